@@ -0,0 +1,59 @@
+package com.inventory.config;
+
+import com.inventory.filter.RequestClass;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Connection pool partitions for the request bulkheads (see BulkheadFilter).
+ *
+ * Enabled with inventory.bulkhead.pool-partitions.enabled=true. Defines one Hikari pool per request class on
+ * the spring.datasource.* database, all with the spring.datasource.hikari.* settings except the size
+ * (inventory.bulkhead.&lt;class&gt;.pool-size) and the time a request waits for a connection
+ * (inventory.bulkhead.&lt;class&gt;.connection-timeout-ms); see BulkheadPoolProperties for the defaults. Pool metrics are published as hikaricp.* tagged
+ * with pool=checkout, catalog, reports or other.
+ *
+ * Not used together with the read/write split (ReadReplicaConfig), which already moves report reads
+ * to their own pool.
+ */
+@Configuration
+@ConditionalOnExpression("${inventory.bulkhead.pool-partitions.enabled:false} && !${inventory.datasource.replica.enabled:false}")
+@EnableConfigurationProperties(BulkheadPoolProperties.class)
+public class BulkheadPoolConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, BulkheadPoolProperties poolProperties,
+                                 Environment environment, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        Map<RequestClass, DataSource> pools = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            BulkheadPoolProperties.Pool settings = poolProperties.of(requestClass);
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName(requestClass.key());
+            pool.setMaximumPoolSize(settings.poolSize());
+            pool.setConnectionTimeout(settings.connectionTimeoutMs());
+            pool.setMetricsTrackerFactory(metrics);
+            pools.put(requestClass, pool);
+            System.out.println("Connection pool partition " + requestClass.key() + ": " + pool.getMaximumPoolSize()
+                    + " connections, " + pool.getConnectionTimeout() + " ms connection timeout");
+        }
+        return new RequestClassRoutingDataSource(pools);
+    }
+}
@@ -0,0 +1,54 @@
+package com.inventory.config;
+
+import com.inventory.filter.RequestClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Connection pool partitions of the request classes (see BulkheadPoolConfig), bound from
+ * inventory.bulkhead.&lt;class&gt;.pool-size and .connection-timeout-ms. Settings that are not configured take
+ * the defaults of their class below.
+ *
+ * @param checkout Pool of POST /api/sales/receipts/batch.
+ * @param catalog Pool of product, category and dashboard reads, including the dashboard overview queries
+ *                (up to inventory.dashboard.threads connections).
+ * @param reports Pool of receipt and sales searches, stock history and ledger, archival and imports.
+ * @param other Pool of everything else.
+ */
+@ConfigurationProperties("inventory.bulkhead")
+public record BulkheadPoolProperties(Pool checkout, Pool catalog, Pool reports, Pool other) {
+
+    public BulkheadPoolProperties {
+        checkout = Pool.withDefaults(checkout, 8, 2000);
+        catalog = Pool.withDefaults(catalog, 6, 2000);
+        reports = Pool.withDefaults(reports, 3, 10000);
+        other = Pool.withDefaults(other, 5, 5000);
+    }
+
+    /**
+     * @param requestClass A request class.
+     * @return The pool settings of that class.
+     */
+    public Pool of(RequestClass requestClass) {
+        return switch (requestClass) {
+            case CHECKOUT -> checkout;
+            case CATALOG -> catalog;
+            case REPORTS -> reports;
+            case OTHER -> other;
+        };
+    }
+
+    /**
+     * @param poolSize Connections in the pool.
+     * @param connectionTimeoutMs How long a request waits for a connection.
+     */
+    public record Pool(Integer poolSize, Long connectionTimeoutMs) {
+
+        private static Pool withDefaults(Pool pool, int poolSize, long connectionTimeoutMs) {
+            if (pool == null) {
+                return new Pool(poolSize, connectionTimeoutMs);
+            }
+            return new Pool(pool.poolSize != null ? pool.poolSize : poolSize,
+                    pool.connectionTimeoutMs != null ? pool.connectionTimeoutMs : connectionTimeoutMs);
+        }
+    }
+}
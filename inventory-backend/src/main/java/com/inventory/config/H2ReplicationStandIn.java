@@ -0,0 +1,79 @@
+package com.inventory.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Local stand-in for database replication, for running the read/write split against two H2 files.
+ *
+ * Periodically dumps the primary database with H2's SCRIPT command and replays it into the replica
+ * with RUNSCRIPT. The copy includes the replication_heartbeat row, so the ReplicaLagMonitor sees the
+ * replica falling behind between copies exactly as it would with real asynchronous replication.
+ * Not meant for production; a real deployment points inventory.datasource.replica.url at a replica
+ * maintained by the database itself.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.datasource.replica.stand-in", name = "enabled", havingValue = "true")
+public class H2ReplicationStandIn {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor lagMonitor;
+
+    @Value("${inventory.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${inventory.datasource.replica.username:sa}")
+    private String replicaUsername;
+
+    @Value("${inventory.datasource.replica.password:}")
+    private String replicaPassword;
+
+    /**
+     * Copies the primary into the replica.
+     * Reads are routed to the primary while the replica is being rewritten.
+     */
+    @Scheduled(initialDelayString = "${inventory.datasource.replica.stand-in.interval-ms:5000}",
+            fixedDelayString = "${inventory.datasource.replica.stand-in.interval-ms:5000}")
+    public void replicate() {
+        File script = null;
+        try {
+            script = File.createTempFile("inventory-replica-", ".sql");
+            try (Connection primary = primaryDataSource.getConnection();
+                 PreparedStatement statement = primary.prepareStatement("SCRIPT DROP TO ?")) {
+                statement.setString(1, script.getAbsolutePath());
+                statement.execute();
+            }
+
+            lagMonitor.setRefreshing(true);
+            try (Connection replica = DriverManager.getConnection(replicaUrl, replicaUsername, replicaPassword);
+                 PreparedStatement statement = replica.prepareStatement("RUNSCRIPT FROM ?")) {
+                statement.setString(1, script.getAbsolutePath());
+                statement.execute();
+            }
+            lagMonitor.checkReplica();
+        } catch (IOException | SQLException e) {
+            System.err.println("Replication stand-in: failed to copy primary to replica: " + e.getMessage());
+        } finally {
+            lagMonitor.setRefreshing(false);
+            if (script != null && !script.delete()) {
+                script.deleteOnExit();
+            }
+        }
+    }
+}
@@ -1,16 +1,32 @@
 package com.inventory.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.core.StreamReadConstraints; // Re-added
 import com.fasterxml.jackson.core.StreamWriteConstraints; // Re-added
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.fasterxml.jackson.datatype.hibernate5.jakarta.Hibernate5JakartaModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.inventory.metrics.RequestTiming;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Custom Jackson ObjectMapper configuration for the Spring Boot application.
@@ -21,6 +37,21 @@ import org.springframework.context.annotation.Primary;
  * 3. Configure other useful serialization features like failing on empty beans or self-references.
  * 4. **Increased the maximum JSON nesting depth to accommodate complex object graphs.**
  * This addresses the "Document nesting depth exceeds the maximum allowed" errors.
+ * 5. Use Blackbird, which replaces reflective getter/setter calls with generated lambdas.
+ *
+ * The hot endpoints (products, receipts, dashboard) return immutable DTO records (com.inventory.dto)
+ * instead of entities, so they never go through the Hibernate module or deep entity graphs.
+ * The module and the raised nesting limits remain for the endpoints that still return entities.
+ *
+ * Every endpoint can also answer in CBOR (binary JSON, RFC 8949) when the client sends
+ * Accept: application/cbor, and accepts CBOR request bodies (Content-Type: application/cbor).
+ * The CBOR mapper is configured exactly like the JSON one, so both carry the same fields and date format;
+ * JSON stays the default for clients that do not ask for CBOR.
+ *
+ * Both message converters record the time to write each response body as inventory.serialization,
+ * tagged with the format and the matched URI pattern. The time includes writing to the response buffer,
+ * so for bodies larger than the buffer it also contains time spent sending to the client.
+ * The same time is reported as the ser phase of the Server-Timing header.
  */
 @Configuration
 public class JacksonConfig {
@@ -28,16 +59,50 @@ public class JacksonConfig {
     @Bean
     @Primary
     public ObjectMapper objectMapper() {
-        JsonMapper.Builder builder = JsonMapper.builder()
+        return withLimits(configure(JsonMapper.builder()).build());
+    }
+
+    /**
+     * Replaces Spring Boot's JSON message converter with one that records serialization time.
+     * @param objectMapper The primary ObjectMapper.
+     * @param meterRegistry The registry for inventory.serialization.
+     * @return The JSON message converter.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TimedJsonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * Serves and reads application/cbor. Spring Boot registers this converter next to the JSON one,
+     * so the format is chosen by the request's Accept and Content-Type headers.
+     * @param meterRegistry The registry for inventory.serialization.
+     * @return The CBOR message converter backed by cborMapper().
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(MeterRegistry meterRegistry) {
+        return new TimedCborHttpMessageConverter(cborMapper(), meterRegistry);
+    }
+
+    /**
+     * @return A CBOR mapper with the same modules and features as the JSON mapper.
+     */
+    public ObjectMapper cborMapper() {
+        return withLimits(configure(CBORMapper.builder()).build());
+    }
+
+    private static <M extends ObjectMapper, B extends MapperBuilder<M, B>> B configure(B builder) {
+        return builder
                 .addModule(new Hibernate5JakartaModule())
                 .addModule(new JavaTimeModule())
+                .addModule(new BlackbirdModule())
                 .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
                 .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
                 .configure(SerializationFeature.FAIL_ON_SELF_REFERENCES, false);
+    }
 
-        // Manually build mapper and configure constraints after build
-        ObjectMapper mapper = builder.build();
-
+    // Configure constraints after build
+    private static ObjectMapper withLimits(ObjectMapper mapper) {
         mapper.getFactory().setStreamReadConstraints(
                 StreamReadConstraints.builder().maxNestingDepth(2000).build()
         );
@@ -47,4 +112,60 @@ public class JacksonConfig {
 
         return mapper;
     }
-}
\ No newline at end of file
+
+    private static void recordSerialization(MeterRegistry meterRegistry, String format, long startNanos) {
+        Object pattern = RequestContextHolder.getRequestAttributes() != null
+                ? RequestContextHolder.getRequestAttributes().getAttribute(
+                        HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        Timer.builder("inventory.serialization")
+                .description("Time to serialize and write a response body")
+                .tag("format", format)
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+        private final MeterRegistry meterRegistry;
+
+        TimedJsonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            super(objectMapper);
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            long start = System.nanoTime();
+            RequestTiming.serializationStarted();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                RequestTiming.serializationFinished();
+                recordSerialization(meterRegistry, "json", start);
+            }
+        }
+    }
+
+    private static class TimedCborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+        private final MeterRegistry meterRegistry;
+
+        TimedCborHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            super(objectMapper);
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            long start = System.nanoTime();
+            RequestTiming.serializationStarted();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                RequestTiming.serializationFinished();
+                recordSerialization(meterRegistry, "cbor", start);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split for reporting queries.
+ *
+ * Enabled with inventory.datasource.replica.enabled=true. Defines a primary pool (spring.datasource.*),
+ * a separate read pool (inventory.datasource.replica.*) and the application DataSource, which routes
+ * read-only transactions to the read pool while the replica is reachable and within the lag tolerance.
+ * When disabled, Spring Boot's single auto-configured DataSource is used unchanged.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("inventory.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${inventory.datasource.replica.url}") String url,
+                                              @Value("${inventory.datasource.replica.username:sa}") String username,
+                                              @Value("${inventory.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // Fail fast so a dead replica costs a read at most this long before falling back to the primary
+        dataSource.setConnectionTimeout(1000);
+        // Do not fail startup if the replica is down; the lag monitor keeps reads on the primary
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${inventory.datasource.replica.max-lag-ms:5000}") long maxLagMillis) {
+        return new ReplicaLagMonitor(primary, replica, maxLagMillis);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+    }
+}
@@ -0,0 +1,62 @@
+package com.inventory.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource that sends connections for read-only transactions
+ * (@Transactional(readOnly = true)) to the replica and everything else to the primary.
+ *
+ * The replica is only used while the ReplicaLagMonitor reports it as reachable and within the
+ * configured lag tolerance; if the replica refuses a connection, the request falls back to the
+ * primary and the replica is marked unavailable until the monitor sees it healthy again.
+ *
+ * Must be wrapped in a LazyConnectionDataSourceProxy: JPA asks for the connection while the
+ * transaction is being started, before the read-only flag is bound to the current thread.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (useReplica()) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                lagMonitor.markUnavailable(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    private boolean useReplica() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && lagMonitor.isReplicaUsable();
+    }
+}
@@ -0,0 +1,101 @@
+package com.inventory.config;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Tracks whether the read replica is reachable and how far it lags behind the primary.
+ *
+ * The primary periodically writes the current time into the replication_heartbeat table; the
+ * replica receives that row through replication like any other data. The replica's lag is
+ * therefore "now - heartbeat time seen on the replica". Read-only traffic is only routed to the
+ * replica while that lag is within the configured tolerance.
+ */
+public class ReplicaLagMonitor {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long maxLagMillis;
+
+    private volatile boolean available = false; // Unknown until the first successful check
+    private volatile long lagMillis = Long.MAX_VALUE;
+    private volatile boolean refreshing = false;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * Writes the heartbeat on the primary.
+     */
+    @Scheduled(fixedDelayString = "${inventory.datasource.replica.heartbeat-interval-ms:1000}")
+    public void writeHeartbeat() {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1")) {
+            statement.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Replica lag monitor: failed to write heartbeat on primary: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the replicated heartbeat from the replica and updates the lag and availability.
+     */
+    @Scheduled(fixedDelayString = "${inventory.datasource.replica.check-interval-ms:1000}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT beat_at FROM replication_heartbeat WHERE id = 1");
+             ResultSet resultSet = statement.executeQuery()) {
+            if (resultSet.next() && resultSet.getTimestamp(1) != null) {
+                lagMillis = Math.max(0, System.currentTimeMillis() - resultSet.getTimestamp(1).getTime());
+            } else {
+                lagMillis = Long.MAX_VALUE; // Replica has not received a heartbeat yet
+            }
+            if (!available) {
+                System.out.println("Replica lag monitor: replica reachable, lag " + lagMillis + " ms.");
+            }
+            available = true;
+        } catch (SQLException e) {
+            markUnavailable(e);
+        }
+    }
+
+    /**
+     * Marks the replica as unavailable; it is used again after the next successful check.
+     * @param cause The error that made the replica unusable.
+     */
+    public void markUnavailable(Throwable cause) {
+        if (available) {
+            System.err.println("Replica lag monitor: replica unavailable, routing reads to primary: " + cause.getMessage());
+        }
+        available = false;
+    }
+
+    /**
+     * Temporarily keeps reads off the replica, e.g. while it is being rebuilt.
+     * @param refreshing true to route all reads to the primary, false to resume normal routing.
+     */
+    public void setRefreshing(boolean refreshing) {
+        this.refreshing = refreshing;
+    }
+
+    /**
+     * @return true if the replica is reachable and its lag is within the configured tolerance.
+     */
+    public boolean isReplicaUsable() {
+        return available && !refreshing && lagMillis <= maxLagMillis;
+    }
+
+    public long getLagMillis() {
+        return lagMillis;
+    }
+}
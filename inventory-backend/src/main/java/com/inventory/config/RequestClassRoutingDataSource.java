@@ -0,0 +1,57 @@
+package com.inventory.config;
+
+import com.inventory.filter.RequestClass;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * DataSource that gives each request class (see RequestClass) its own connection pool, so reports holding
+ * connections for seconds cannot leave checkouts waiting for one.
+ *
+ * The pool is picked from RequestClass.current(), which BulkheadFilter binds for the whole request, so
+ * all the connections a request uses come from the same pool. Work outside a request uses the OTHER pool.
+ * Closing this DataSource closes the pools.
+ */
+public class RequestClassRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final Map<RequestClass, DataSource> pools;
+
+    /**
+     * @param pools One pool per request class; must contain RequestClass.OTHER.
+     */
+    public RequestClassRoutingDataSource(Map<RequestClass, DataSource> pools) {
+        if (!pools.containsKey(RequestClass.OTHER)) {
+            throw new IllegalArgumentException("A pool for " + RequestClass.OTHER + " is required");
+        }
+        this.pools = new EnumMap<>(pools);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pool().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return pool().getConnection(username, password);
+    }
+
+    private DataSource pool() {
+        DataSource pool = pools.get(RequestClass.current());
+        return pool != null ? pool : pools.get(RequestClass.OTHER);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : pools.values()) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.inventory.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables Spring's @Scheduled support for background jobs
+ * (e.g. replica lag monitoring and the local replication stand-in).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
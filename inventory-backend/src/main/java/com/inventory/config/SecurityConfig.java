@@ -50,6 +50,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers(mvc.pattern("/api/auth/**")).permitAll()
                         .requestMatchers(antMatcher("/h2-console/**")).permitAll()
+                        // Health and metrics; served only on the localhost management port (management.server.*)
+                        .requestMatchers(antMatcher("/actuator/health/**"), antMatcher("/actuator/prometheus")).permitAll()
+                        // Readiness probe on the server port (management.endpoint.health.group.readiness.additional-path)
+                        .requestMatchers(antMatcher("/readyz")).permitAll()
 
                         // ✅ Allow OWNER and CASHIER to access all /api/sales/receipts routes (including query params, path vars)
                         .requestMatchers(mvc.pattern("/api/sales/receipts/**")).hasAnyRole("OWNER", "CASHIER")
@@ -0,0 +1,83 @@
+package com.inventory.controller;
+
+import com.inventory.service.FlightRecordingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.UncheckedIOException;
+
+/**
+ * REST Controller for diagnosing the running backend: an on-demand Java Flight Recorder recording
+ * (see FlightRecordingService). The recording files stay on the server.
+ * Accessible only by OWNER.
+ */
+@RestController
+@RequestMapping("/api/admin")
+@CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.OPTIONS})
+public class AdminController {
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    /**
+     * Get the state of the flight recording.
+     * @return Whether it is running, its bounds and the last file written.
+     */
+    @GetMapping("/recording")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<FlightRecordingService.RecordingStatus> getRecordingStatus() {
+        return ResponseEntity.ok(flightRecordingService.status());
+    }
+
+    /**
+     * Start a bounded, continuous flight recording.
+     * @param maxAgeMinutes Optional minutes of history to keep (capped by inventory.jfr.max-age-minutes).
+     * @param maxSizeMb Optional megabytes of history to keep (capped by inventory.jfr.max-size-mb).
+     * @return The recording status, or 409 if a recording is already running.
+     */
+    @PostMapping("/recording/start")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<?> startRecording(@RequestParam(required = false) Long maxAgeMinutes,
+                                            @RequestParam(required = false) Long maxSizeMb) {
+        try {
+            return ResponseEntity.ok(flightRecordingService.start(maxAgeMinutes, maxSizeMb));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Write the running recording to a file on the server; the recording continues.
+     * @return The recording status with the file written, or 409 if no recording is running.
+     */
+    @PostMapping("/recording/dump")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<?> dumpRecording() {
+        try {
+            return ResponseEntity.ok(flightRecordingService.dump());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Stop the recording and write it to a file on the server.
+     * @return The recording status with the file written, or 409 if no recording is running.
+     */
+    @PostMapping("/recording/stop")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<?> stopRecording() {
+        try {
+            return ResponseEntity.ok(flightRecordingService.stop());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
+}
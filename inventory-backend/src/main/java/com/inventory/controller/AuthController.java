@@ -1,26 +1,25 @@
 package com.inventory.controller;
 
-import com.inventory.model.User;
-import com.inventory.model.User.Role; // Import User.Role enum
-import com.inventory.repository.UserRepository;
+import com.inventory.service.LoginVerificationService;
+import com.inventory.service.RefreshTokenService;
 import com.inventory.service.UserDetailsServiceImpl;
+import com.inventory.service.exception.InvalidRefreshTokenException;
+import com.inventory.service.exception.LoginCapacityExceededException;
 import com.inventory.util.JwtUtil;
-import jakarta.annotation.PostConstruct; // Import for @PostConstruct
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Collections; // For Collections.singleton
 import java.util.HashMap;
 import java.util.List; // For List
 import java.util.Map;
-import java.util.Set; // For Set<Role>
+import java.util.UUID;
 import java.util.stream.Collectors; // For Collectors
 
 /**
@@ -33,7 +32,7 @@ import java.util.stream.Collectors; // For Collectors
 public class AuthController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginVerificationService loginVerificationService;
 
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
@@ -42,51 +41,72 @@ public class AuthController {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
-
-    @Autowired
-    private UserRepository userRepository; // To create initial user
-
-    /**
-     * Initializes the application with a default OWNER user if no users exist.
-     * This is for development convenience. In production, users would be created via an admin interface.
-     */
-    @PostConstruct
-    public void init() {
-        if (userRepository.count() == 0) {
-            User owner = new User("owner", passwordEncoder.encode("password"), Set.of(Role.OWNER));
-            userRepository.save(owner);
-            System.out.println("Created default OWNER user: username='owner', password='password'");
-
-            User cashier = new User("cashier", passwordEncoder.encode("password"), Set.of(Role.CASHIER));
-            userRepository.save(cashier);
-            System.out.println("Created default CASHIER user: username='cashier', password='password'");
-        }
-    }
-
+    private RefreshTokenService refreshTokenService;
 
     /**
      * Handles user login requests.
      * @param authenticationRequest A map containing "username" and "password".
-     * @return ResponseEntity with JWT token and user roles on success, or error message on failure.
+     * @return ResponseEntity with JWT access token, refresh token and user roles on success, or error message on failure
+     *         (401 for wrong credentials, 429 with Retry-After when the login verification pool is saturated).
      */
     @PostMapping("/login")
     public ResponseEntity<?> createAuthenticationToken(@RequestBody Map<String, String> authenticationRequest) {
         String username = authenticationRequest.get("username");
         String password = authenticationRequest.get("password");
 
+        final UserDetailsServiceImpl.InventoryUserDetails userDetails;
         try {
-            // Authenticate user credentials
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(username, password)
-            );
+            // Authenticate user credentials (BCrypt runs on the bounded login verification pool)
+            Authentication authentication = loginVerificationService.authenticate(username, password);
+            // The authenticated principal is the loaded user, so there is no need to load it again
+            userDetails = (UserDetailsServiceImpl.InventoryUserDetails) authentication.getPrincipal();
         } catch (BadCredentialsException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Incorrect username or password");
+        } catch (LoginCapacityExceededException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        }
+
+        String accessTokenId = UUID.randomUUID().toString();
+        return ResponseEntity.ok(buildTokenResponse(userDetails, accessTokenId, refreshTokenService.issue(userDetails.getId(), accessTokenId)));
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * No password is checked here, so clients can renew short-lived access tokens cheaply.
+     * The presented refresh token is single-use.
+     * @param refreshRequest A map containing "refreshToken".
+     * @return ResponseEntity with the same shape as the login response, or 401 if the refresh token is invalid.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshAuthenticationToken(@RequestBody Map<String, String> refreshRequest) {
+        try {
+            String accessTokenId = UUID.randomUUID().toString();
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.get("refreshToken"), accessTokenId);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(rotation.getUser().getUsername());
+            return ResponseEntity.ok(buildTokenResponse(userDetails, accessTokenId, rotation.getRefreshToken()));
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
         }
+    }
 
-        // If authentication succeeds, load user details and generate JWT
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-        final String jwt = jwtUtil.generateToken(userDetails);
+    /**
+     * Revokes a refresh token (and the tokens rotated from it, with their access tokens) on logout.
+     * @param logoutRequest A map containing "refreshToken".
+     * @return 204 No Content.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody Map<String, String> logoutRequest) {
+        refreshTokenService.revoke(logoutRequest.get("refreshToken"));
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Builds the token response shared by login and refresh.
+     */
+    private Map<String, Object> buildTokenResponse(UserDetails userDetails, String accessTokenId, String refreshToken) {
+        final String jwt = jwtUtil.generateToken(userDetails, accessTokenId);
 
         // Get roles and send them back to the frontend for UI adaptation
         // IMPORTANT: Ensure "ROLE_" prefix is included as expected by frontend's ApiClient/Spring Security
@@ -94,18 +114,13 @@ public class AuthController {
                 .map(authority -> authority.getAuthority()) // These authorities already have "ROLE_" prefix from UserDetailsServiceImpl
                 .collect(Collectors.toList());
 
-
         Map<String, Object> response = new HashMap<>();
         response.put("jwt", jwt);
+        response.put("expiresIn", jwtUtil.getExpiration()); // Access token validity in milliseconds
+        response.put("refreshToken", refreshToken);
+        response.put("refreshExpiresIn", refreshTokenService.getRefreshExpiration());
         response.put("username", userDetails.getUsername());
         response.put("roles", rolesWithPrefix); // Send roles with "ROLE_" prefix
-
-        // --- NEW DEBUGGING LOGGING ---
-        System.out.println("--- DEBUG (Backend AuthController): Sending Login Response ---");
-        System.out.println("Login Response Map: " + response);
-        System.out.println("Roles being sent: " + response.get("roles"));
-        System.out.println("--- END DEBUG (Backend AuthController) ---");
-
-        return ResponseEntity.ok(response);
+        return response;
     }
 }
@@ -2,7 +2,6 @@ package com.inventory.controller;
 
 import com.inventory.model.Category;
 import com.inventory.repository.CategoryRepository;
-import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -24,22 +23,6 @@ public class CategoryController {
     @Autowired
     private CategoryRepository categoryRepository;
 
-    /**
-     * Initializes some default categories if none exist.
-     * For development convenience.
-     */
-    @PostConstruct
-    public void initCategories() {
-        if (categoryRepository.count() == 0) {
-            categoryRepository.save(new Category("Drinks", "Beverages like sodas, water, juice."));
-            categoryRepository.save(new Category("Snacks", "Biscuits, crisps, candies."));
-            categoryRepository.save(new Category("Household", "Cleaning supplies, detergents."));
-            categoryRepository.save(new Category("Groceries", "Food items, dry goods."));
-            System.out.println("Initialized default categories.");
-        }
-    }
-
-
     /**
      * Get all categories.
      * Accessible by OWNER.
@@ -1,12 +1,12 @@
 package com.inventory.controller;
 
-import com.inventory.model.Product;
+import com.inventory.dto.ProductDto;
+import com.inventory.service.DashboardService;
 import com.inventory.service.ProductService;
 import com.inventory.service.SalesService; // Added SalesService
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize; // Import PreAuthorize
-import org.springframework.security.core.context.SecurityContextHolder; // Import SecurityContextHolder
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap; // For returning a map of summary data
@@ -29,23 +29,20 @@ public class DashboardController {
     @Autowired
     private SalesService salesService;
 
+    // Runs the overview's aggregate queries concurrently.
+    @Autowired
+    private DashboardService dashboardService;
+
     /**
      * GET /api/dashboard/low-stock
      * Endpoint to retrieve a list of products that are currently below their minimum stock level.
      * Accessible by OWNER or CASHIER.
-     * @return ResponseEntity with a list of low stock Product objects and HTTP status 200.
+     * @return ResponseEntity with a list of low stock products and HTTP status 200.
      */
     @GetMapping("/low-stock")
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')") // MODIFIED: Changed to hasAnyAuthority
-    public ResponseEntity<List<Product>> getLowStockProducts() {
-        // DEBUGGING: Print current authentication details
-        System.out.println("DEBUG: DashboardController - getLowStockProducts() - Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: DashboardController - getLowStockProducts() - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
-
-        List<Product> lowStockProducts = productService.getLowStockProducts();
-        return ResponseEntity.ok(lowStockProducts);
+    public ResponseEntity<List<ProductDto>> getLowStockProducts() {
+        return ResponseEntity.ok(ProductDto.fromAll(productService.getLowStockProducts()));
     }
 
     /**
@@ -57,12 +54,6 @@ public class DashboardController {
     @GetMapping("/summary")
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')") // MODIFIED: Changed to hasAnyAuthority
     public ResponseEntity<Map<String, Double>> getDashboardSummary() {
-        // DEBUGGING: Print current authentication details
-        System.out.println("DEBUG: DashboardController - getDashboardSummary() - Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: DashboardController - getDashboardSummary() - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
-
         Map<String, Double> summary = new HashMap<>();
 
         // Get total product count
@@ -75,4 +66,19 @@ public class DashboardController {
 
         return ResponseEntity.ok(summary);
     }
+
+    /**
+     * GET /api/dashboard/overview
+     * Endpoint to retrieve everything the dashboard shows in one call: product count, low stock products,
+     * today's sales, today's totals by payment method and the top sellers.
+     * The aggregates are queried concurrently, each within a timeout; one that does not finish in time is
+     * returned with its last known value and marked stale (see DashboardService).
+     * Accessible by OWNER or CASHIER.
+     * @return ResponseEntity with the overview and HTTP status 200, also when some pieces are stale.
+     */
+    @GetMapping("/overview")
+    @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')")
+    public ResponseEntity<DashboardService.Overview> getDashboardOverview() {
+        return ResponseEntity.ok(dashboardService.overview());
+    }
 }
@@ -1,13 +1,20 @@
 package com.inventory.controller;
 
+import com.inventory.dto.ProductDto;
 import com.inventory.model.Product;
+import com.inventory.service.ProductImportService;
 import com.inventory.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize; // Import PreAuthorize
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 // @RestController is a convenience annotation that combines @Controller and @ResponseBody.
@@ -21,23 +28,26 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImportService productImportService;
+
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')") // MODIFIED: Changed to hasAnyAuthority
-    public ResponseEntity<List<Product>> getAllProducts(@RequestParam(required = false) String name) {
+    public ResponseEntity<List<ProductDto>> getAllProducts(@RequestParam(required = false) String name) {
         List<Product> products;
         if (name != null && !name.trim().isEmpty()) {
             products = productService.searchProductsByName(name);
         } else {
             products = productService.getAllProducts();
         }
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok(ProductDto.fromAll(products));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')") // MODIFIED: Changed to hasAnyAuthority
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
         return productService.getProductById(id)
-                .map(ResponseEntity::ok)
+                .map(product -> ResponseEntity.ok(ProductDto.from(product)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -46,7 +56,7 @@ public class ProductController {
     public ResponseEntity<?> createProduct(@RequestBody Product product) {
         try {
             Product savedProduct = productService.saveProduct(product);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedProduct);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ProductDto.from(savedProduct));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -59,7 +69,7 @@ public class ProductController {
         product.setId(id);
         try {
             Product updatedProduct = productService.saveProduct(product);
-            return ResponseEntity.ok(updatedProduct);
+            return ResponseEntity.ok(ProductDto.from(updatedProduct));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -82,8 +92,29 @@ public class ProductController {
 
     @GetMapping("/low-stock")
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')") // MODIFIED: Changed to hasAnyAuthority
-    public ResponseEntity<List<Product>> getLowStockProducts() {
+    public ResponseEntity<List<ProductDto>> getLowStockProducts() {
         List<Product> lowStockProducts = productService.getLowStockProducts();
-        return ResponseEntity.ok(lowStockProducts);
+        return ResponseEntity.ok(ProductDto.fromAll(lowStockProducts));
+    }
+
+    /**
+     * Bulk-imports products from a CSV request body (Content-Type text/csv).
+     * The body is streamed and inserted in batches; rows that fail validation are skipped
+     * and reported in the response together with the import counts.
+     * Accessible by OWNER.
+     * @param request The servlet request whose body holds the CSV file.
+     * @return The ImportResult summary, or 400 if the file cannot be read or has an invalid header.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<?> importProducts(HttpServletRequest request) {
+        String charset = request.getCharacterEncoding() != null ? request.getCharacterEncoding() : StandardCharsets.UTF_8.name();
+        try (Reader reader = new InputStreamReader(request.getInputStream(), charset)) {
+            ProductImportService.ImportResult result = productImportService.importProducts(reader,
+                    progress -> System.out.println("Product import progress: " + progress));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body("Product import failed: " + e.getMessage());
+        }
     }
 }
@@ -1,6 +1,9 @@
 package com.inventory.controller;
 
+import com.inventory.dto.ReceiptDto;
+import com.inventory.metrics.CheckoutEvent;
 import com.inventory.model.Receipt;
+import com.inventory.service.ReceiptArchiveService;
 import com.inventory.service.ReceiptService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -25,6 +28,9 @@ public class ReceiptController {
     @Autowired
     private ReceiptService receiptService;
 
+    @Autowired
+    private ReceiptArchiveService receiptArchiveService;
+
     /**
      * Endpoint to record a batch sale (multiple items) and create a receipt.
      * This endpoint is exclusively here now.
@@ -35,18 +41,24 @@ public class ReceiptController {
     @PostMapping("/batch")
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')")
     public ResponseEntity<?> recordBatchSale(@RequestBody ReceiptService.RecordReceiptRequest request) {
-        System.out.println("DEBUG: ReceiptController - recordBatchSale() hit. Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: ReceiptController - recordBatchSale() - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        event.outcome = "OK";
         try {
             String cashierUsername = SecurityContextHolder.getContext().getAuthentication().getName();
+            event.cashier = cashierUsername;
+            event.lines = request.getSaleItems() != null ? request.getSaleItems().size() : 0;
             Receipt newReceipt = receiptService.recordBatchSale(request, cashierUsername);
-            return ResponseEntity.status(HttpStatus.CREATED).body(newReceipt);
+            event.receiptId = newReceipt.getId();
+            return ResponseEntity.status(HttpStatus.CREATED).body(ReceiptDto.from(newReceipt));
         } catch (IllegalArgumentException e) {
+            event.outcome = e.getClass().getSimpleName();
             return ResponseEntity.badRequest().body(e.getMessage());
         } catch (RuntimeException e) {
+            event.outcome = e.getClass().getSimpleName();
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } finally {
+            event.commit(); // Does nothing unless a flight recording is running (see FlightRecordingService)
         }
     }
 
@@ -62,26 +74,21 @@ public class ReceiptController {
      * @param cashierId Optional cashier ID for filtering.
      * @param paymentMethod Optional payment method for filtering.
      * @param productName Optional product name contained in the sale for filtering.
-     * @return A list of Receipt objects.
+     * @return A list of receipts.
      */
     @GetMapping // This maps to /api/sales/receipts and accepts query parameters
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')")
-    public ResponseEntity<List<Receipt>> getReceipts(
+    public ResponseEntity<List<ReceiptDto>> getReceipts(
             @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false) Long cashierId,
             @RequestParam(required = false) Receipt.PaymentMethod paymentMethod,
             @RequestParam(required = false) String productName) {
 
-        System.out.println("DEBUG: ReceiptController - getReceipts (filtered/all) hit. Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: ReceiptController - getReceipts (filtered/all) - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
-
         try {
             // Your existing receiptService.getFilteredReceipts method already handles null/empty parameters
             List<Receipt> filteredReceipts = receiptService.getFilteredReceipts(startDate, endDate, cashierId, paymentMethod, productName);
-            return ResponseEntity.ok(filteredReceipts);
+            return ResponseEntity.ok(ReceiptDto.fromAll(filteredReceipts));
         } catch (Exception e) {
             System.err.println("Error fetching filtered receipts: " + e.getMessage());
             e.printStackTrace();
@@ -98,13 +105,9 @@ public class ReceiptController {
      */
     @GetMapping("/{id}") // This maps to /api/sales/receipts/{id}
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')")
-    public ResponseEntity<Receipt> getReceiptById(@PathVariable Long id) {
-        System.out.println("DEBUG: ReceiptController - getReceiptById(" + id + ") hit. Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: ReceiptController - getReceiptById(" + id + ") - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
+    public ResponseEntity<ReceiptDto> getReceiptById(@PathVariable Long id) {
         Optional<Receipt> receipt = receiptService.getReceiptById(id);
-        return receipt.map(ResponseEntity::ok)
+        return receipt.map(r -> ResponseEntity.ok(ReceiptDto.from(r)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -117,10 +120,6 @@ public class ReceiptController {
     @DeleteMapping("/{id}") // This maps to /api/sales/receipts/{id} for DELETE
     @PreAuthorize("hasAuthority('ROLE_OWNER')")
     public ResponseEntity<Void> deleteReceipt(@PathVariable Long id) {
-        System.out.println("DEBUG: ReceiptController - deleteReceipt(" + id + ") hit. Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: ReceiptController - deleteReceipt(" + id + ") - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
         try {
             receiptService.deleteReceipt(id);
             return ResponseEntity.noContent().build();
@@ -128,4 +127,23 @@ public class ReceiptController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
+
+    /**
+     * Archive receipts older than the given date into compressed cold storage.
+     * Archived receipts remain available through the search and get-by-ID endpoints but can no longer be deleted.
+     * Accessible only by OWNER.
+     * @param before Receipts with a transaction date before this date are archived.
+     * @return The number of receipts and blocks archived.
+     */
+    @PostMapping("/archive")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<?> archiveReceipts(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime before) {
+        try {
+            return ResponseEntity.ok(receiptArchiveService.archiveReceiptsBefore(before));
+        } catch (RuntimeException e) {
+            System.err.println("Error archiving receipts: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+        }
+    }
 }
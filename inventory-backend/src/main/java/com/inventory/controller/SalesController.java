@@ -6,7 +6,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -38,11 +37,6 @@ public class SalesController {
     @GetMapping // Maps to /api/sales
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')")
     public ResponseEntity<List<Sale>> getAllSales() {
-        System.out.println("DEBUG: SalesController - getAllSales() - Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: SalesController - getAllSales() - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
-
         List<Sale> sales = salesService.getAllSales();
         return ResponseEntity.ok(sales);
     }
@@ -57,11 +51,6 @@ public class SalesController {
     @DeleteMapping("/{id}") // Maps to /api/sales/{id}
     @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')")
     public ResponseEntity<Void> deleteSale(@PathVariable Long id) {
-        System.out.println("DEBUG: SalesController - deleteSale() - Current Authentication: " + SecurityContextHolder.getContext().getAuthentication());
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            System.out.println("DEBUG: SalesController - deleteSale() - Authorities: " + SecurityContextHolder.getContext().getAuthentication().getAuthorities());
-        }
-
         try {
             salesService.deleteSale(id);
             return ResponseEntity.noContent().build();
@@ -3,6 +3,7 @@ package com.inventory.controller;
 import com.inventory.model.StockAdjustment;
 import com.inventory.service.StockAdjustmentService;
 import com.inventory.service.StockAdjustmentService.StockAdjustmentRequest;
+import com.inventory.service.StockLedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,7 +11,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for managing stock-related operations, primarily stock adjustments.
@@ -24,6 +28,9 @@ public class StockController {
     @Autowired
     private StockAdjustmentService stockAdjustmentService;
 
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
     /**
      * Endpoint to record a new stock adjustment.
      * Accessible by OWNER.
@@ -64,4 +71,58 @@ public class StockController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to fetch stock adjustment history: " + e.getMessage());
         }
     }
+
+    /**
+     * Endpoint to get a product's stock according to the stock ledger, now or at a point in time.
+     * Accessible by OWNER and CASHIER.
+     * @param productId The product ID.
+     * @param at Optional point in time (ISO date-time); defaults to now.
+     * @return The product ID, the point in time and the quantity on hand at that time.
+     */
+    @GetMapping("/ledger/{productId}")
+    @PreAuthorize("hasAnyAuthority('ROLE_OWNER', 'ROLE_CASHIER')")
+    public ResponseEntity<?> getLedgerQuantity(@PathVariable Long productId,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("productId", productId);
+        response.put("at", at != null ? at : LocalDateTime.now());
+        response.put("quantity", stockLedgerService.getQuantityAt(productId, at));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint to list the most recent stock movements of a product.
+     * Accessible by OWNER.
+     * @param productId The product ID.
+     * @param limit Maximum number of movements to return (default 100).
+     * @return The movements, most recent first.
+     */
+    @GetMapping("/ledger/{productId}/movements")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<List<StockLedgerService.StockMovement>> getLedgerMovements(@PathVariable Long productId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(stockLedgerService.getMovements(productId, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * Endpoint to check every product's stored quantity against the stock ledger.
+     * Accessible by OWNER.
+     * @return The products whose stored quantity differs from the ledger (empty if consistent).
+     */
+    @GetMapping("/ledger/verify")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<List<StockLedgerService.Discrepancy>> verifyLedger() {
+        return ResponseEntity.ok(stockLedgerService.verify());
+    }
+
+    /**
+     * Endpoint to take ledger snapshots immediately instead of waiting for the scheduled compaction.
+     * Accessible by OWNER.
+     * @return The number of snapshots written.
+     */
+    @PostMapping("/ledger/snapshots")
+    @PreAuthorize("hasAuthority('ROLE_OWNER')")
+    public ResponseEntity<Map<String, Integer>> compactLedger() {
+        return ResponseEntity.ok(Map.of("snapshots", stockLedgerService.compactSnapshots()));
+    }
 }
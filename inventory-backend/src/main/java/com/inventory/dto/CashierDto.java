@@ -0,0 +1,24 @@
+package com.inventory.dto;
+
+import com.inventory.model.User;
+import org.hibernate.Hibernate;
+
+/**
+ * The cashier of a receipt. Only the ID and username are exposed (never the password hash).
+ * @param id The user ID.
+ * @param username The username (null if the user was not loaded).
+ */
+public record CashierDto(Long id, String username) {
+
+    /**
+     * Maps a user without triggering a lazy load: an uninitialized proxy is mapped to its ID only.
+     * @param user The cashier, possibly an uninitialized proxy.
+     * @return The DTO, or null if user is null.
+     */
+    public static CashierDto from(User user) {
+        if (user == null) {
+            return null;
+        }
+        return new CashierDto(user.getId(), Hibernate.isInitialized(user) ? user.getUsername() : null);
+    }
+}
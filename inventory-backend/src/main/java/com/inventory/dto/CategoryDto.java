@@ -0,0 +1,28 @@
+package com.inventory.dto;
+
+import com.inventory.model.Category;
+import org.hibernate.Hibernate;
+
+/**
+ * Read-only view of a Category, as returned by the product and receipt endpoints.
+ * @param id The category ID.
+ * @param name The category name (null if the category was not loaded).
+ * @param description The category description (null if the category was not loaded).
+ */
+public record CategoryDto(Long id, String name, String description) {
+
+    /**
+     * Maps a category without triggering a lazy load: an uninitialized proxy is mapped to its ID only.
+     * @param category The category, possibly an uninitialized proxy.
+     * @return The DTO, or null if category is null.
+     */
+    public static CategoryDto from(Category category) {
+        if (category == null) {
+            return null;
+        }
+        if (!Hibernate.isInitialized(category)) {
+            return new CategoryDto(category.getId(), null, null);
+        }
+        return new CategoryDto(category.getId(), category.getName(), category.getDescription());
+    }
+}
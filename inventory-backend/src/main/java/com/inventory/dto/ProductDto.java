@@ -0,0 +1,38 @@
+package com.inventory.dto;
+
+import com.inventory.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-only view of a Product, as returned by the product, dashboard and receipt endpoints.
+ * Same JSON shape as the Product entity.
+ */
+public record ProductDto(Long id, String name, String description, double price, int quantity,
+                         int minStockLevel, CategoryDto category) {
+
+    /**
+     * @param product The product entity.
+     * @return The DTO, or null if product is null.
+     */
+    public static ProductDto from(Product product) {
+        if (product == null) {
+            return null;
+        }
+        return new ProductDto(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getQuantity(), product.getMinStockLevel(), CategoryDto.from(product.getCategory()));
+    }
+
+    /**
+     * @param products The product entities.
+     * @return The DTOs, in the same order.
+     */
+    public static List<ProductDto> fromAll(List<Product> products) {
+        List<ProductDto> dtos = new ArrayList<>(products.size());
+        for (Product product : products) {
+            dtos.add(from(product));
+        }
+        return dtos;
+    }
+}
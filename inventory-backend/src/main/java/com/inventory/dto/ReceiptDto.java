@@ -0,0 +1,62 @@
+package com.inventory.dto;
+
+import com.inventory.model.Product;
+import com.inventory.model.Receipt;
+import com.inventory.model.Sale;
+import com.inventory.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of a Receipt with its line items, as returned by the receipt endpoints.
+ * Same JSON shape as the Receipt entity, except that the cashier carries only its ID and username.
+ */
+public record ReceiptDto(Long id, String receiptNumber, CashierDto cashier, LocalDateTime transactionDate,
+                         double totalAmount, Receipt.PaymentMethod paymentMethod, double cashAmount,
+                         double mpesaAmount, String mpesaTransactionId, List<SaleDto> sales) {
+
+    /**
+     * @param receipt The receipt entity (live or restored from the archive).
+     * @return The DTO, or null if receipt is null.
+     */
+    public static ReceiptDto from(Receipt receipt) {
+        if (receipt == null) {
+            return null;
+        }
+        return from(receipt, new IdentityHashMap<>(), new IdentityHashMap<>());
+    }
+
+    /**
+     * Maps a page of receipts. Products and cashiers repeat across the receipts of a page, so each
+     * distinct entity is mapped once and its DTO shared (records are immutable).
+     * @param receipts The receipt entities.
+     * @return The DTOs, in the same order.
+     */
+    public static List<ReceiptDto> fromAll(List<Receipt> receipts) {
+        Map<Product, ProductDto> products = new IdentityHashMap<>();
+        Map<User, CashierDto> cashiers = new IdentityHashMap<>();
+        List<ReceiptDto> dtos = new ArrayList<>(receipts.size());
+        for (Receipt receipt : receipts) {
+            dtos.add(from(receipt, products, cashiers));
+        }
+        return dtos;
+    }
+
+    private static ReceiptDto from(Receipt receipt, Map<Product, ProductDto> products, Map<User, CashierDto> cashiers) {
+        List<SaleDto> sales = new ArrayList<>(receipt.getSales().size());
+        for (Sale sale : receipt.getSales()) {
+            Product product = sale.getProduct();
+            ProductDto productDto = product != null ? products.computeIfAbsent(product, ProductDto::from) : null;
+            sales.add(SaleDto.from(sale, productDto));
+        }
+        User cashier = receipt.getCashier();
+        CashierDto cashierDto = cashier != null ? cashiers.computeIfAbsent(cashier, CashierDto::from) : null;
+        return new ReceiptDto(receipt.getId(), receipt.getReceiptNumber(), cashierDto,
+                receipt.getTransactionDate(), receipt.getTotalAmount(), receipt.getPaymentMethod(),
+                receipt.getCashAmount(), receipt.getMpesaAmount(), receipt.getMpesaTransactionId(), sales);
+    }
+}
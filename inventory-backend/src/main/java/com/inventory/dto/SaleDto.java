@@ -0,0 +1,26 @@
+package com.inventory.dto;
+
+import com.inventory.model.Sale;
+
+/**
+ * A line item of a receipt. The back reference to the receipt is omitted, as it was for the Sale entity.
+ */
+public record SaleDto(Long id, ProductDto product, int quantity, double unitPrice, double totalAmount) {
+
+    /**
+     * @param sale The sale entity.
+     * @return The DTO.
+     */
+    public static SaleDto from(Sale sale) {
+        return from(sale, ProductDto.from(sale.getProduct()));
+    }
+
+    /**
+     * @param sale The sale entity.
+     * @param product The already mapped product of the sale.
+     * @return The DTO.
+     */
+    static SaleDto from(Sale sale, ProductDto product) {
+        return new SaleDto(sale.getId(), product, sale.getQuantity(), sale.getUnitPrice(), sale.getTotalAmount());
+    }
+}
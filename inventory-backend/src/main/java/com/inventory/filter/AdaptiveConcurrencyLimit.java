@@ -0,0 +1,74 @@
+package com.inventory.filter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Global concurrency limit that adapts to observed latency (additive increase, multiplicative decrease).
+ *
+ * While requests complete within the target latency and the limit is actually being used, the limit grows by
+ * about one per limit-many requests. When a request takes longer than the target, the limit is multiplied by
+ * the backoff ratio, at most once per target latency so one slow burst does not collapse it. The limit stays
+ * between min and max. Requests that arrive while in-flight has reached the limit are rejected.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private double limit; // Guarded by this
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyMillis, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight.
+     * Every successful call must be paired with a call to release().
+     * @return Whether the request may run.
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Ends an admitted request.
+     * @param latencyNanos How long it took.
+     * @param sample Whether its latency should adjust the limit (false for requests that are slow by nature).
+     */
+    public synchronized void release(long latencyNanos, boolean sample) {
+        int wasInFlight = inFlight--;
+        if (!sample) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (latencyNanos > targetLatencyNanos) {
+            if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (wasInFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
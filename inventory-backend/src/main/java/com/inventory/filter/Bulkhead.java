@@ -0,0 +1,78 @@
+package com.inventory.filter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control for one request class: at most maxConcurrent requests run at once, at most maxWaiting
+ * wait for a slot, and none waits longer than timeoutMillis. A request that finds the queue full, or times
+ * out in it, is rejected instead of tying up a server thread.
+ */
+public class Bulkhead {
+
+    private final RequestClass requestClass;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    public Bulkhead(RequestClass requestClass, int maxConcurrent, int maxWaiting, long timeoutMillis) {
+        this.requestClass = requestClass;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.maxWaiting = Math.max(0, maxWaiting);
+        this.timeoutMillis = Math.max(0, timeoutMillis);
+        this.permits = new Semaphore(this.maxConcurrent, true); // Fair, so waiting requests are served in order
+    }
+
+    /**
+     * Takes a slot, waiting for one if all are in use and the queue has room.
+     * Every successful call must be paired with a call to release().
+     * @return Whether the request may run; false if the queue was full or the wait timed out.
+     * @throws InterruptedException If the thread was interrupted while waiting.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public RequestClass getRequestClass() { return requestClass; }
+    public int getMaxConcurrent() { return maxConcurrent; }
+    public int getMaxWaiting() { return maxWaiting; }
+    public long getTimeoutMillis() { return timeoutMillis; }
+
+    /**
+     * @return Requests of this class running now.
+     */
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    /**
+     * @return Requests of this class waiting for a slot now.
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{" + requestClass.key() + ": maxConcurrent=" + maxConcurrent + ", maxWaiting=" + maxWaiting
+                + ", timeoutMillis=" + timeoutMillis + '}';
+    }
+}
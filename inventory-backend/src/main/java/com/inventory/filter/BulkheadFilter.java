@@ -0,0 +1,140 @@
+package com.inventory.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bulkheads between the request classes (see RequestClass), so a burst of heavy reports or imports cannot
+ * take the server threads and database connections that checkouts need.
+ *
+ * Each /api request is classified and must get a slot in its class's Bulkhead before it runs; the limits are
+ * inventory.bulkhead.&lt;class&gt;.max-concurrent, .max-waiting and .timeout-ms (see BulkheadProperties for the
+ * defaults). A request that cannot get a slot
+ * is answered 503 Service Unavailable with Retry-After. The sum of max-concurrent plus max-waiting over the
+ * non-checkout classes should stay below server.tomcat.threads.max, so there is always a thread left to
+ * accept a checkout.
+ *
+ * The class is bound to the request thread (RequestClass.current()), which is how the partitioned
+ * DataSource picks the connection pool. Runs before Spring Security, so authentication queries already use
+ * the right pool and rejected requests cost no token verification.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private BulkheadProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.bulkhead.enabled:true}")
+    private boolean enabled;
+
+    // Seconds clients are told to wait before retrying a rejected request
+    @Value("${inventory.bulkhead.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    private final Map<RequestClass, Bulkhead> bulkheads = new EnumMap<>(RequestClass.class);
+    private final Map<RequestClass, Counter> rejected = new EnumMap<>(RequestClass.class);
+
+    @PostConstruct
+    public void init() {
+        for (RequestClass requestClass : RequestClass.values()) {
+            BulkheadProperties.Limits limits = properties.of(requestClass);
+            Bulkhead bulkhead = new Bulkhead(requestClass, limits.maxConcurrent(), limits.maxWaiting(), limits.timeoutMs());
+            bulkheads.put(requestClass, bulkhead);
+            Gauge.builder("inventory.bulkhead.active", bulkhead, Bulkhead::getActive)
+                    .description("Requests running in the bulkhead")
+                    .tag("class", requestClass.key())
+                    .register(meterRegistry);
+            Gauge.builder("inventory.bulkhead.waiting", bulkhead, Bulkhead::getWaiting)
+                    .description("Requests waiting for a slot in the bulkhead")
+                    .tag("class", requestClass.key())
+                    .register(meterRegistry);
+            rejected.put(requestClass, Counter.builder("inventory.bulkhead.rejected")
+                    .description("Requests rejected because the bulkhead was full")
+                    .tag("class", requestClass.key())
+                    .register(meterRegistry));
+            if (enabled) {
+                System.out.println("Request bulkhead: " + bulkhead);
+            }
+        }
+    }
+
+    /**
+     * @param requestClass A request class.
+     * @return The bulkhead of that class.
+     */
+    public Bulkhead getBulkhead(RequestClass requestClass) {
+        return bulkheads.get(requestClass);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = RequestClass.classify(request.getMethod(), path(request));
+        RequestClass.bind(requestClass);
+        try {
+            if (!enabled) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            Bulkhead bulkhead = bulkheads.get(requestClass);
+            boolean admitted;
+            try {
+                admitted = bulkhead.tryAcquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                admitted = false;
+            }
+            if (!admitted) {
+                rejected.get(requestClass).increment();
+                response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+                response.getWriter().write("Too many " + requestClass.key() + " requests in progress, try again shortly.");
+                return;
+            }
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                bulkhead.release();
+            }
+        } finally {
+            RequestClass.unbind();
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
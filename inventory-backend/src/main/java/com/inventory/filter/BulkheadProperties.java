@@ -0,0 +1,53 @@
+package com.inventory.filter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Limits of the request bulkheads (see BulkheadFilter), bound from inventory.bulkhead.&lt;class&gt;.max-concurrent,
+ * .max-waiting and .timeout-ms. Limits that are not configured take the defaults of their class below.
+ *
+ * @param checkout Limits of POST /api/sales/receipts/batch.
+ * @param catalog Limits of product, category and dashboard reads.
+ * @param reports Limits of receipt and sales searches, stock history and ledger, archival and imports.
+ * @param other Limits of everything else.
+ */
+@ConfigurationProperties("inventory.bulkhead")
+public record BulkheadProperties(Limits checkout, Limits catalog, Limits reports, Limits other) {
+
+    public BulkheadProperties {
+        checkout = Limits.withDefaults(checkout, 20, 50, 2000);
+        catalog = Limits.withDefaults(catalog, 20, 50, 2000);
+        reports = Limits.withDefaults(reports, 2, 4, 10000);
+        other = Limits.withDefaults(other, 20, 50, 5000);
+    }
+
+    /**
+     * @param requestClass A request class.
+     * @return The limits of that class.
+     */
+    public Limits of(RequestClass requestClass) {
+        return switch (requestClass) {
+            case CHECKOUT -> checkout;
+            case CATALOG -> catalog;
+            case REPORTS -> reports;
+            case OTHER -> other;
+        };
+    }
+
+    /**
+     * @param maxConcurrent Requests of the class that run at once.
+     * @param maxWaiting Requests that may wait for a slot; further requests are rejected.
+     * @param timeoutMs How long a request waits for a slot before it is rejected.
+     */
+    public record Limits(Integer maxConcurrent, Integer maxWaiting, Long timeoutMs) {
+
+        private static Limits withDefaults(Limits limits, int maxConcurrent, int maxWaiting, long timeoutMs) {
+            if (limits == null) {
+                return new Limits(maxConcurrent, maxWaiting, timeoutMs);
+            }
+            return new Limits(limits.maxConcurrent != null ? limits.maxConcurrent : maxConcurrent,
+                    limits.maxWaiting != null ? limits.maxWaiting : maxWaiting,
+                    limits.timeoutMs != null ? limits.timeoutMs : timeoutMs);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventory.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Makes server.compression.min-response-size apply to JSON and CBOR responses.
+ *
+ * Tomcat only skips compression when it knows the response is smaller than the threshold, i.e. when the
+ * response has a Content-Length. The Jackson message converters flush the body when they finish, which
+ * commits the response without a length, so every response was compressed however small it was.
+ * This filter ignores explicit flushes: a body that fits in Tomcat's output buffer (8 KB) is then
+ * completed with a Content-Length and compressed only above the threshold, while larger bodies are
+ * still streamed (and compressed) as soon as the buffer fills up.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, new DeferredFlushResponse(response));
+    }
+
+    private static class DeferredFlushResponse extends HttpServletResponseWrapper {
+        private ServletOutputStream outputStream;
+
+        DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new DeferredFlushOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public void flushBuffer() {
+            // The container flushes when the request completes
+        }
+    }
+
+    private static class DeferredFlushOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        DeferredFlushOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            // The container flushes when the request completes
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.inventory.filter;
 
+import com.inventory.metrics.RequestTiming;
+import com.inventory.service.TokenRevocationService;
 import com.inventory.service.UserDetailsServiceImpl;
 import com.inventory.util.JwtUtil;
-import io.jsonwebtoken.Claims;
+import com.inventory.util.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +23,8 @@ import java.util.stream.Collectors;
 
 /**
  * JWT authentication filter that validates and sets user authentication context.
+ * Tokens that were revoked (see TokenRevocationService) are treated as if no token was sent.
+ * The time spent here is reported as the auth phase of the Server-Timing header.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -31,53 +35,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
         final String authHeader = request.getHeader("Authorization");
-        String jwt = null;
-        String username = null;
-
-        // Extract JWT from Authorization header
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (Exception e) {
-                System.err.println("❌ Error parsing JWT: " + e.getMessage());
-            }
-        }
-
-        // If username extracted and user not authenticated in context
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt)) {
-                Claims claims = jwtUtil.extractAllClaims(jwt);
 
-                // ✅ Extract roles from claims — expecting ["ROLE_OWNER", ...]
-                List<String> roles = claims.get("roles", List.class);
-                List<SimpleGrantedAuthority> authorities = roles.stream()
+        // Extract and verify the JWT from the Authorization header (one parse, or none if recently verified)
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            VerifiedTokenCache.VerifiedToken token = jwtUtil.verify(authHeader.substring(7));
+            // Revocation is checked on every request, including tokens served from the verified-token cache
+            if (token != null && token.getUsername() != null
+                    && (token.getTokenId() == null || !tokenRevocationService.isRevoked(token.getTokenId()))) {
+                // Roles claim holds ["ROLE_OWNER", ...]
+                List<SimpleGrantedAuthority> authorities = token.getRoles().stream()
                         .map(SimpleGrantedAuthority::new)
                         .collect(Collectors.toList());
 
-                // ✅ Debug logging
-                System.out.println("✅ Extracted username: " + username);
-                System.out.println("✅ Extracted roles: " + roles);
-                System.out.println("✅ Spring authorities: " + authorities);
-
-                // ✅ Set authenticated user in SecurityContext
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(username, null, authorities);
+                        new UsernamePasswordAuthenticationToken(token.getUsername(), null, authorities);
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                System.out.println("🔐 SecurityContext set for: " + username);
-            } else {
-                System.out.println("❌ JWT validation failed or expired for user: " + username);
             }
         }
+        RequestTiming.addAuth(System.nanoTime() - start);
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,255 @@
+package com.inventory.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control ahead of the controllers, so a misbehaving till or a client refresh loop cannot flood
+ * the backend. Both limits answer 429 Too Many Requests with Retry-After; the desktop client's ApiClient
+ * waits and retries.
+ *
+ * 1. Rate limit: a TokenBucket per user and terminal (the X-Terminal-Id header the tills send). Each allows
+ *    bursts of inventory.ratelimit.burst requests and inventory.ratelimit.requests-per-second sustained.
+ *    The header is chosen by the client, so it only splits the budget of an authenticated user, and only
+ *    for their first inventory.ratelimit.max-terminals-per-user terminals; further terminals share the
+ *    user's own bucket. Requests without a user, e.g. logins, are keyed by remote address alone.
+ * 2. Concurrency limit: an AdaptiveConcurrencyLimit over all requests except checkouts, which have their own
+ *    bulkhead and should never be shed because catalog refreshes pile up. The limit shrinks when requests
+ *    take longer than inventory.concurrency.target-latency-ms and grows back while they are fast. Report
+ *    requests count against it but do not adjust it, since they are slow by nature.
+ *
+ * Runs after the Spring Security filters, so the authenticated user is known.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String TERMINAL_ID_HEADER = "X-Terminal-Id";
+
+    private static final Pattern VALID_TERMINAL_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    // Shared by new users and addresses once max-clients buckets exist, so memory stays bounded
+    private static final ClientKey OVERFLOW_KEY = new ClientKey("overflow", null);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${inventory.ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${inventory.ratelimit.burst:40}")
+    private int burst;
+
+    @Value("${inventory.ratelimit.requests-per-second:10}")
+    private double requestsPerSecond;
+
+    // Clients (user and terminal pairs) tracked at once; idle ones are dropped by evictIdleBuckets()
+    @Value("${inventory.ratelimit.max-clients:10000}")
+    private int maxClients;
+
+    // Terminals of one user with a bucket of their own; requests from further terminals use the user's bucket
+    @Value("${inventory.ratelimit.max-terminals-per-user:8}")
+    private int maxTerminalsPerUser;
+
+    @Value("${inventory.concurrency.enabled:true}")
+    private boolean concurrencyLimitEnabled;
+
+    @Value("${inventory.concurrency.initial-limit:40}")
+    private int initialLimit;
+
+    @Value("${inventory.concurrency.min-limit:5}")
+    private int minLimit;
+
+    @Value("${inventory.concurrency.max-limit:150}")
+    private int maxLimit;
+
+    @Value("${inventory.concurrency.target-latency-ms:250}")
+    private long targetLatencyMillis;
+
+    @Value("${inventory.concurrency.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    private final ConcurrentHashMap<ClientKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> terminalsPerUser = new ConcurrentHashMap<>();
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+    private Counter rateRejected;
+    private Counter concurrencyRejected;
+
+    @PostConstruct
+    public void init() {
+        concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatencyMillis, backoffRatio);
+        Gauge.builder("inventory.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("inventory.concurrency.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests running under the adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("inventory.ratelimit.clients", buckets, ConcurrentHashMap::size)
+                .description("Clients with a rate limit bucket")
+                .register(meterRegistry);
+        rateRejected = rejectedCounter("rate");
+        concurrencyRejected = rejectedCounter("concurrency");
+        System.out.println("Rate limit: " + (rateLimitEnabled ? burst + " burst, " + requestsPerSecond + "/s per user and terminal" : "disabled")
+                + "; adaptive concurrency limit: " + (concurrencyLimitEnabled ? minLimit + ".." + maxLimit + ", target " + targetLatencyMillis + " ms" : "disabled"));
+    }
+
+    /**
+     * @return The adaptive concurrency limit (for monitoring and tests).
+     */
+    public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        if (rateLimitEnabled) {
+            long waitNanos = bucket(request).tryConsume(System.nanoTime());
+            if (waitNanos > 0) {
+                rateRejected.increment();
+                reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)),
+                        "Too many requests from this terminal, slow down.");
+                return;
+            }
+        }
+        RequestClass requestClass = RequestClass.current();
+        if (!concurrencyLimitEnabled || requestClass == RequestClass.CHECKOUT) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            concurrencyRejected.increment();
+            reject(response, 1, "The server is busy, try again shortly.");
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            concurrencyLimit.release(System.nanoTime() - started, requestClass != RequestClass.REPORTS);
+        }
+    }
+
+    /**
+     * Drops the buckets of clients that have been idle long enough to refill them completely.
+     */
+    @Scheduled(fixedDelayString = "${inventory.ratelimit.cleanup-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.entrySet().removeIf(entry -> {
+            if (!entry.getValue().isFull(now)) {
+                return false;
+            }
+            if (entry.getKey().terminalId() != null) {
+                releaseTerminal(entry.getKey().client());
+            }
+            return true;
+        });
+    }
+
+    private TokenBucket bucket(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return bucket(new ClientKey("ip:" + request.getRemoteAddr(), null));
+        }
+        String user = "user:" + authentication.getName();
+        String terminalId = request.getHeader(TERMINAL_ID_HEADER);
+        if (terminalId == null || !VALID_TERMINAL_ID.matcher(terminalId).matches()) {
+            return bucket(new ClientKey(user, null));
+        }
+        ClientKey key = new ClientKey(user, terminalId);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients || !reserveTerminal(user)) {
+            return bucket(new ClientKey(user, null));
+        }
+        TokenBucket created = new TokenBucket(burst, requestsPerSecond, System.nanoTime());
+        bucket = buckets.putIfAbsent(key, created);
+        if (bucket != null) {
+            // Another request from the same terminal got there first
+            releaseTerminal(user);
+            return bucket;
+        }
+        return created;
+    }
+
+    private TokenBucket bucket(ClientKey key) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            key = OVERFLOW_KEY;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(burst, requestsPerSecond, System.nanoTime()));
+    }
+
+    /**
+     * Counts one more terminal with its own bucket for the user, unless they already have the maximum.
+     * @param user The user part of the bucket key.
+     * @return Whether the terminal may have its own bucket.
+     */
+    private boolean reserveTerminal(String user) {
+        boolean[] reserved = new boolean[1];
+        terminalsPerUser.compute(user, (u, terminals) -> {
+            int count = terminals == null ? 0 : terminals;
+            reserved[0] = count < maxTerminalsPerUser;
+            return reserved[0] ? count + 1 : terminals;
+        });
+        return reserved[0];
+    }
+
+    private void releaseTerminal(String user) {
+        terminalsPerUser.computeIfPresent(user, (u, terminals) -> terminals > 1 ? terminals - 1 : null);
+    }
+
+    private Counter rejectedCounter(String reason) {
+        return Counter.builder("inventory.ratelimit.rejected")
+                .description("Requests rejected with 429 by the rate or concurrency limit")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+
+    /**
+     * Identifies a bucket: a user ("user:" and the username) or a remote address ("ip:" and the address),
+     * and for users optionally the terminal.
+     */
+    private record ClientKey(String client, String terminalId) {
+    }
+}
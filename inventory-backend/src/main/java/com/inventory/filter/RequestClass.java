@@ -0,0 +1,83 @@
+package com.inventory.filter;
+
+/**
+ * Traffic classes that get their own bulkhead (see BulkheadFilter) and, when pool partitions are enabled,
+ * their own connection pool (see RequestClassRoutingDataSource).
+ *
+ * The class of the request being handled is bound to the current thread for the length of the request;
+ * work outside a request (startup, Flyway, scheduled jobs) runs as OTHER.
+ */
+public enum RequestClass {
+
+    /** POST /api/sales/receipts/batch: the till is waiting, latency must stay flat. */
+    CHECKOUT("checkout"),
+    /** Product, category and dashboard reads that tills and the back office make all day. */
+    CATALOG("catalog"),
+    /** Receipt and sales searches, stock history, ledger verification, archival and bulk imports. */
+    REPORTS("reports"),
+    /** Everything else: authentication, user management, catalog and stock writes, admin. */
+    OTHER("other");
+
+    private static final ThreadLocal<RequestClass> CURRENT = new ThreadLocal<>();
+
+    private final String key;
+
+    RequestClass(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return The name used in the inventory.bulkhead.* properties, pool names and metric tags.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Classifies a request by method and path (without the context path).
+     * @param method The HTTP method.
+     * @param path The request path, e.g. /api/sales/receipts/batch.
+     * @return The traffic class.
+     */
+    public static RequestClass classify(String method, String path) {
+        boolean get = "GET".equals(method);
+        boolean post = "POST".equals(method);
+        if (post && path.equals("/api/sales/receipts/batch")) {
+            return CHECKOUT;
+        }
+        if (get && (path.equals("/api/sales/receipts") || path.equals("/api/sales")
+                || path.equals("/api/stock/adjustments/history") || path.startsWith("/api/stock/ledger/"))) {
+            return REPORTS;
+        }
+        if (post && (path.equals("/api/sales/receipts/archive") || path.equals("/api/products/import")
+                || path.equals("/api/stock/ledger/snapshots"))) {
+            return REPORTS;
+        }
+        if (get && (path.startsWith("/api/products") || path.startsWith("/api/categories")
+                || path.startsWith("/api/dashboard"))) {
+            return CATALOG;
+        }
+        return OTHER;
+    }
+
+    /**
+     * @return The class of the request handled by the current thread, OTHER outside a request.
+     */
+    public static RequestClass current() {
+        RequestClass current = CURRENT.get();
+        return current != null ? current : OTHER;
+    }
+
+    /**
+     * Binds a class to the current thread; BulkheadFilter does this per request, and work handed to other
+     * threads on behalf of a request binds the request's class there, so it uses the same connection pool.
+     * @param requestClass The class.
+     */
+    public static void bind(RequestClass requestClass) {
+        CURRENT.set(requestClass);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,50 @@
+package com.inventory.filter;
+
+import com.inventory.metrics.RequestTiming;
+import com.inventory.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements each request issues (inventory.db.statements), tagged with the
+ * request method and the matched URI pattern (e.g. /api/sales/receipts/{id}), as a histogram.
+ * Request latency itself is recorded by Spring Boot as http.server.requests.
+ * Runs after the Spring Security filters, so it also marks where the app phase of Server-Timing begins.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.reset();
+        RequestTiming.filtersDone();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("inventory.db.statements")
+                    .description("SQL statements prepared per request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .serviceLevelObjectives(1, 2, 5, 10, 20, 50, 100, 200) // Histogram buckets
+                    .register(meterRegistry)
+                    .record(StatementCounter.count());
+        }
+    }
+}
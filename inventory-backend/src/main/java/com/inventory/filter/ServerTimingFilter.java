@@ -0,0 +1,152 @@
+package com.inventory.filter;
+
+import com.inventory.metrics.RequestTiming;
+import com.inventory.metrics.StatementCounter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Adds a Server-Timing header with the per-phase breakdown of each request (see RequestTiming)
+ * and an X-Trace-Id header that identifies the request.
+ *
+ * Clients may send their own X-Trace-Id so both sides log the same ID; otherwise one is generated.
+ * Headers must go out before the body, so the header is added at the last possible moment: when the
+ * request completes for bodies that fit in the response buffer, or just before the first buffer of a
+ * larger body is sent (then ser and total cover the time up to that point).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private static final Pattern VALID_TRACE_ID = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (traceId == null || !VALID_TRACE_ID.matcher(traceId).matches()) {
+            traceId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        }
+        StatementCounter.reset();
+        RequestTiming timing = RequestTiming.start(traceId);
+        response.setHeader(TRACE_ID_HEADER, traceId);
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, timing);
+        try {
+            filterChain.doFilter(request, timedResponse);
+        } finally {
+            timedResponse.addServerTiming();
+            RequestTiming.end();
+        }
+    }
+
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+        private final RequestTiming timing;
+        private boolean headerAdded;
+        private long bytesWritten;
+        private ServletOutputStream outputStream;
+
+        ServerTimingResponse(HttpServletResponse response, RequestTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void addServerTiming() {
+            if (!headerAdded && !isCommitted()) {
+                setHeader("Server-Timing", timing.toServerTiming());
+            }
+            headerAdded = true;
+        }
+
+        // Adds the header before a write that would fill the buffer and commit the response
+        private void beforeWrite(int len) {
+            bytesWritten += len;
+            if (!headerAdded && bytesWritten >= getBufferSize()) {
+                addServerTiming();
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        beforeWrite(1);
+                        delegate.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        beforeWrite(len);
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush(); // Deferred by CompressionThresholdFilter, so this does not commit
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        addServerTiming();
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming(); // Character output (error pages) cannot be tracked byte by byte
+            return super.getWriter();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addServerTiming();
+            super.sendRedirect(location);
+        }
+    }
+}
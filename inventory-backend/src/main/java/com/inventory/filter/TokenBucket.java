@@ -0,0 +1,51 @@
+package com.inventory.filter;
+
+/**
+ * Token bucket: holds up to capacity tokens, refilled continuously at refillPerSecond.
+ * Each request takes one token, so a client may burst up to capacity requests and then
+ * sustain refillPerSecond.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens; // Guarded by this
+    private long refilledAtNanos;
+
+    public TokenBucket(double capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = Math.max(1, capacity);
+        this.refillPerNano = Math.max(refillPerSecond, 0.001) / 1_000_000_000.0;
+        this.tokens = this.capacity;
+        this.refilledAtNanos = nowNanos;
+    }
+
+    /**
+     * Takes a token if one is available.
+     * @param nowNanos The current System.nanoTime().
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next token is available.
+     */
+    public synchronized long tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / refillPerNano);
+    }
+
+    /**
+     * @param nowNanos The current System.nanoTime().
+     * @return Whether the bucket is full, i.e. its client has been idle long enough that it can be dropped.
+     */
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        if (nowNanos > refilledAtNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - refilledAtNanos) * refillPerNano);
+            refilledAtNanos = nowNanos;
+        }
+    }
+}
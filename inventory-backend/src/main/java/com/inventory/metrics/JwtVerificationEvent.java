@@ -0,0 +1,27 @@
+package com.inventory.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for verifying the JWT of a request (JwtUtil.verify), with the same result values as the
+ * inventory.jwt.verification timer: cached (served from the verified-token cache), verified (signature
+ * checked) or rejected (malformed, bad signature or expired).
+ */
+@Name("com.inventory.JwtVerification")
+@Label("JWT Verification")
+@Category({"Inventory", "Security"})
+@Description("Verifying the access token of a request")
+@StackTrace(false)
+public class JwtVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Result")
+    public String result;
+
+    @Label("Username")
+    @Description("Subject of the token; empty if it was rejected")
+    public String username;
+}
@@ -0,0 +1,119 @@
+package com.inventory.metrics;
+
+import java.util.Locale;
+
+/**
+ * Collects where the time of the current request goes, for the Server-Timing response header.
+ *
+ * ServerTimingFilter starts a collector for every request on the request thread; the instrumented
+ * components add to it through the static methods, which do nothing outside a request (scheduled jobs,
+ * tests). The phases are:
+ * auth      JwtAuthenticationFilter (token verification and revocation check)
+ * security  the rest of the filter chain before the application (Spring Security, CORS)
+ * db        JDBC prepare and execute time of Hibernate statements (StatementTimingListener),
+ *           with the statement count (StatementCounter); reading result sets is not included
+ * ser       writing the response body with Jackson
+ * app       everything else after the filters: controller and service code, Hibernate itself
+ * total     from the start of the request until the header is written
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final String traceId;
+    private final long startNanos;
+    private long filtersDoneNanos;
+    private long authNanos;
+    private long dbNanos;
+    private long serializationNanos;
+    private long serializationStartNanos;
+
+    private RequestTiming(String traceId) {
+        this.traceId = traceId;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts collecting for a request on the current thread.
+     * @param traceId The trace ID of the request.
+     * @return The collector; pass it to end() when the request completes.
+     */
+    public static RequestTiming start(String traceId) {
+        RequestTiming timing = new RequestTiming(traceId);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * Stops collecting on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static void addAuth(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.authNanos += nanos;
+        }
+    }
+
+    public static void addDb(long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.dbNanos += nanos;
+        }
+    }
+
+    /**
+     * Marks the point where the request leaves the security filters and reaches the application.
+     */
+    public static void filtersDone() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.filtersDoneNanos == 0) {
+            timing.filtersDoneNanos = System.nanoTime();
+        }
+    }
+
+    public static void serializationStarted() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.serializationStartNanos = System.nanoTime();
+        }
+    }
+
+    public static void serializationFinished() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null && timing.serializationStartNanos != 0) {
+            timing.serializationNanos += System.nanoTime() - timing.serializationStartNanos;
+            timing.serializationStartNanos = 0;
+        }
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    /**
+     * Builds the Server-Timing header value from the time collected so far. If the body is still being
+     * written (the header goes out with the first buffer of a large body), ser covers the part written so far.
+     * @return E.g. auth;dur=0.12, security;dur=0.40, db;dur=3.10;desc="4 statements", app;dur=5.02, ser;dur=1.20, total;dur=10.84
+     */
+    public String toServerTiming() {
+        long now = System.nanoTime();
+        long ser = serializationNanos + (serializationStartNanos != 0 ? now - serializationStartNanos : 0);
+        long filtersDone = filtersDoneNanos != 0 ? filtersDoneNanos : now;
+        long security = Math.max(0, filtersDone - startNanos - authNanos);
+        long app = Math.max(0, now - filtersDone - dbNanos - ser);
+        return entry("auth", authNanos) + ", "
+                + entry("security", security) + ", "
+                + entry("db", dbNanos) + ";desc=\"" + StatementCounter.count() + " statements\", "
+                + entry("app", app) + ", "
+                + entry("ser", ser) + ", "
+                + entry("total", now - startNanos);
+    }
+
+    private static String entry(String name, long nanos) {
+        return name + ";dur=" + String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
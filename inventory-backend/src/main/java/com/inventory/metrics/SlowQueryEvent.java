@@ -0,0 +1,28 @@
+package com.inventory.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for a Hibernate statement (repository query, insert, update or batch) whose JDBC execution took
+ * longer than the threshold: 50 ms by default, inventory.jfr.slow-query-threshold-ms in recordings started
+ * through FlightRecordingService. Emitted by StatementTimingListener with the SQL that StatementCounter saw
+ * for the statement. Statements run through JdbcTemplate are not covered.
+ */
+@Name("com.inventory.SlowQuery")
+@Label("Slow Query")
+@Category({"Inventory", "Database"})
+@Description("A Hibernate statement that took longer than the threshold to execute")
+@Threshold("50 ms")
+public class SlowQueryEvent extends jdk.jfr.Event {
+
+    @Label("SQL")
+    public String sql;
+
+    @Label("Batch")
+    @Description("Whether the statement was executed as a JDBC batch")
+    public boolean batch;
+}
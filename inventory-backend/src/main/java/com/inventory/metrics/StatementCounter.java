@@ -0,0 +1,46 @@
+package com.inventory.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ *
+ * Registered through spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ * RequestMetricsFilter resets the count when a request starts and records it when the request ends,
+ * so N+1 query patterns show up as a high inventory.db.statements value for the endpoint.
+ * JDBC batches count once per prepared statement; queries made with JdbcTemplate are not counted.
+ * The last statement's SQL is kept for the slow query JFR event (see StatementTimingListener).
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        LAST_SQL.set(sql);
+        return sql; // Statements are never rewritten
+    }
+
+    /**
+     * Starts a new count on the current thread.
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return Statements prepared on the current thread since the last reset.
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+
+    /**
+     * @return The SQL of the statement Hibernate prepared last on the current thread, or null if none.
+     */
+    public static String lastSql() {
+        return LAST_SQL.get();
+    }
+}
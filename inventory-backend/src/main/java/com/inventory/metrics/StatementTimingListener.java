@@ -0,0 +1,75 @@
+package com.inventory.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the JDBC prepare and execute time of Hibernate statements to the current request's RequestTiming,
+ * and emits a SlowQueryEvent for executions over the event's threshold while a JFR recording has it enabled.
+ * Hibernate creates one listener per session (hibernate.session.events.auto), so the start times
+ * kept here are never shared between threads.
+ */
+public class StatementTimingListener implements SessionEventListener {
+
+    private long prepareStart;
+    private long executeStart;
+    private long batchStart;
+    private SlowQueryEvent slowQuery;
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        prepareStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        RequestTiming.addDb(System.nanoTime() - prepareStart);
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+        slowQuery = beginSlowQuery();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTiming.addDb(System.nanoTime() - executeStart);
+        commitSlowQuery(false);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+        slowQuery = beginSlowQuery();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTiming.addDb(System.nanoTime() - batchStart);
+        commitSlowQuery(true);
+    }
+
+    // Null unless a recording has the event enabled, so statements cost nothing extra otherwise
+    private static SlowQueryEvent beginSlowQuery() {
+        SlowQueryEvent event = new SlowQueryEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    private void commitSlowQuery(boolean batch) {
+        SlowQueryEvent event = slowQuery;
+        slowQuery = null;
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) { // Over the threshold
+            event.sql = StatementCounter.lastSql();
+            event.batch = batch;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.inventory.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token issued at login or refresh.
+ * Only the SHA-256 hash of the token is stored. Tokens are single-use: each refresh revokes the
+ * presented token and issues a new one in the same family. Presenting a revoked token again is
+ * treated as token theft and revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash; // Hex encoded SHA-256 of the raw token
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 36)
+    private String familyId; // Shared by all tokens descended from the same login
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime revokedAt; // Set when the token is rotated, logged out or its family revoked
+
+    @Column(length = 36)
+    private String accessTokenId; // jti of the access token issued together with this refresh token
+
+    private LocalDateTime accessExpiresAt; // Expiry of that access token
+
+    // Constructors
+    public RefreshToken() {
+    }
+
+    public RefreshToken(String tokenHash, User user, String familyId, LocalDateTime expiresAt,
+                        String accessTokenId, LocalDateTime accessExpiresAt) {
+        this.tokenHash = tokenHash;
+        this.user = user;
+        this.familyId = familyId;
+        this.createdAt = LocalDateTime.now();
+        this.expiresAt = expiresAt;
+        this.accessTokenId = accessTokenId;
+        this.accessExpiresAt = accessExpiresAt;
+    }
+
+    public boolean isExpired() {
+        return !expiresAt.isAfter(LocalDateTime.now());
+    }
+
+    public boolean isRevoked() {
+        return revokedAt != null;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    public String getFamilyId() { return familyId; }
+    public void setFamilyId(String familyId) { this.familyId = familyId; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+    public String getAccessTokenId() { return accessTokenId; }
+    public void setAccessTokenId(String accessTokenId) { this.accessTokenId = accessTokenId; }
+    public LocalDateTime getAccessExpiresAt() { return accessExpiresAt; }
+    public void setAccessExpiresAt(LocalDateTime accessExpiresAt) { this.accessExpiresAt = accessExpiresAt; }
+}
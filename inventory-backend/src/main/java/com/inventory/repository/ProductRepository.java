@@ -1,9 +1,18 @@
 package com.inventory.repository;
 
 import com.inventory.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 // @Repository indicates that this interface is a "Repository" in the Spring sense,
 // providing mechanisms for storage, retrieval, update, delete operation on objects.
@@ -13,11 +22,43 @@ import java.util.List;
 // It takes two generic parameters: the entity type (Product) and the ID type (Long).
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // The read queries fetch the category in the same query, so mapping the products to
+    // ProductDto does not load each category separately.
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findById(Long id);
+
     // Custom method to find products by name, ignoring case.
     // Spring Data JPA automatically generates the query for this method name.
+    @EntityGraph(attributePaths = "category")
     List<Product> findByNameContainingIgnoreCase(String name);
 
+    // Products whose name equals the given name, ignoring case: the duplicate check of
+    // ProductService.saveProduct (the CSV import applies the same rule to the names it preloads).
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByNameIgnoreCase(String name);
+
     // Custom method to find products with quantity less than or equal to their minStockLevel.
     // This will be used for low stock alerts.
+    @EntityGraph(attributePaths = "category")
     List<Product> findByQuantityLessThanEqual(int quantity);
+
+    // Stock changes read the quantity under a row lock (SELECT ... FOR UPDATE) held until commit, so concurrent
+    // checkouts of the same product queue up instead of overwriting each other's quantity. The rows are locked
+    // in ascending ID order, so two checkouts sharing several products cannot deadlock.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    // The first products by ID (catalog listing warm-up, see WarmUpService).
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllByOrderByIdAsc(Pageable pageable);
 }
@@ -0,0 +1,39 @@
+package com.inventory.repository;
+
+import com.inventory.model.Receipt;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom query methods for Receipt that cannot be expressed as a single static @Query.
+ * Implemented by ReceiptRepositoryImpl and mixed into ReceiptRepository by Spring Data.
+ */
+public interface ReceiptRepositoryCustom {
+
+    /**
+     * Fetches receipts with their sales, products and cashier, applying only the filters that are set.
+     * Every argument is optional (null = no filter).
+     * @param startDate Receipts on or after this date/time.
+     * @param endDate Receipts on or before this date/time.
+     * @param cashierId Receipts processed by this cashier.
+     * @param paymentMethod Receipts paid with this payment method.
+     * @param productName Receipts containing a product whose name contains this text (see productNameMatches);
+     *                    only the matching sales of those receipts are loaded.
+     * @return The matching receipts, with sales, products and cashier eagerly loaded.
+     */
+    List<Receipt> findFilteredReceipts(LocalDateTime startDate, LocalDateTime endDate, Long cashierId,
+                                       Receipt.PaymentMethod paymentMethod, String productName);
+
+    /**
+     * The product name filter of findFilteredReceipts: a case-sensitive substring match, with no wildcards.
+     * The archive search (ReceiptArchiveService) applies the same rule, so a search matches the same way
+     * on both sides of the archive cutoff.
+     * @param name A product name.
+     * @param productName The filter text.
+     * @return true if the name contains the filter text.
+     */
+    static boolean productNameMatches(String name, String productName) {
+        return name != null && name.contains(productName);
+    }
+}
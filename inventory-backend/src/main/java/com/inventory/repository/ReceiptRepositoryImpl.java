@@ -0,0 +1,69 @@
+package com.inventory.repository;
+
+import com.inventory.model.Receipt;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of ReceiptRepositoryCustom.
+ * The previous static query used "(:param IS NULL OR column = :param)" for every filter, which the
+ * database cannot match against an index, so every search was a full scan of receipts. Building the
+ * WHERE clause from the filters actually supplied lets the receipt indexes (see V2 migration) be used.
+ */
+public class ReceiptRepositoryImpl implements ReceiptRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Receipt> findFilteredReceipts(LocalDateTime startDate, LocalDateTime endDate, Long cashierId,
+                                              Receipt.PaymentMethod paymentMethod, String productName) {
+        StringBuilder jpql = new StringBuilder("SELECT DISTINCT r FROM Receipt r " +
+                "LEFT JOIN FETCH r.sales s " +
+                "LEFT JOIN FETCH s.product p " +
+                "LEFT JOIN FETCH p.category cat " +
+                "LEFT JOIN FETCH r.cashier c " +
+                // User.roles is eager: without the fetch join it is loaded with one query per cashier
+                "LEFT JOIN FETCH c.roles");
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+
+        if (startDate != null) {
+            conditions.add("r.transactionDate >= :startDate");
+            parameters.put("startDate", startDate);
+        }
+        if (endDate != null) {
+            conditions.add("r.transactionDate <= :endDate");
+            parameters.put("endDate", endDate);
+        }
+        if (cashierId != null) {
+            conditions.add("r.cashier.id = :cashierId");
+            parameters.put("cashierId", cashierId);
+        }
+        if (paymentMethod != null) {
+            conditions.add("r.paymentMethod = :paymentMethod");
+            parameters.put("paymentMethod", paymentMethod);
+        }
+        if (productName != null) {
+            // Filtering the fetch-joined sales also leaves only the matching sales in each receipt.
+            // Wildcards in the text are escaped: a plain substring match (see productNameMatches).
+            conditions.add("p.name LIKE :productName ESCAPE '!'");
+            parameters.put("productName", "%" + productName.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+
+        if (!conditions.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+
+        TypedQuery<Receipt> query = entityManager.createQuery(jpql.toString(), Receipt.class);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventory.repository;
+
+import com.inventory.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for RefreshToken entities.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Finds a refresh token by the hash of its raw value, fetching the user for token generation.
+     * @param tokenHash The SHA-256 hash of the raw token.
+     * @return An Optional containing the token if found.
+     */
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Marks a token as used, but only if it is still active.
+     * @return 1 if this call rotated the token, 0 if it had already been revoked (e.g. by a concurrent refresh).
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.id = :id AND t.revokedAt IS NULL")
+    int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.familyId = :familyId AND t.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.user.id = :userId AND t.revokedAt IS NULL")
+    int revokeByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Finds the tokens of a user whose access token has not expired yet.
+     * @return Tokens carrying an access token ID that may still be in use.
+     */
+    @Query("SELECT t FROM RefreshToken t WHERE t.user.id = :userId AND t.accessTokenId IS NOT NULL AND t.accessExpiresAt > :now")
+    List<RefreshToken> findWithLiveAccessTokenByUserId(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Finds the tokens of a family whose access token has not expired yet.
+     * @return Tokens carrying an access token ID that may still be in use.
+     */
+    @Query("SELECT t FROM RefreshToken t WHERE t.familyId = :familyId AND t.accessTokenId IS NOT NULL AND t.accessExpiresAt > :now")
+    List<RefreshToken> findWithLiveAccessTokenByFamilyId(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
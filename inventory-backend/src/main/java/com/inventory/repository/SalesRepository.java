@@ -1,7 +1,9 @@
 package com.inventory.repository;
 
 import com.inventory.model.Sale;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,6 +16,22 @@ import java.util.Optional; // Keep Optional import
 @Repository
 public interface SalesRepository extends JpaRepository<Sale, Long> {
 
+    /**
+     * Finds all sales with their products and the products' categories in one query.
+     * Sale.product is eager, so without the entity graph each product would be loaded with its own query.
+     * @return All sales.
+     */
+    @Override
+    @EntityGraph(attributePaths = {"product", "product.category"})
+    List<Sale> findAll();
+
+    /**
+     * Sums the total amount of all sales in the database, without loading them.
+     * @return The total, or 0 if there are no sales.
+     */
+    @Query("SELECT COALESCE(SUM(s.totalAmount), 0) FROM Sale s")
+    double sumTotalAmount();
+
     /**
      * Checks if any sales exist for a given product ID.
      * Used to prevent deletion of products that have associated sales.
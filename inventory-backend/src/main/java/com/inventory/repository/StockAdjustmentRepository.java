@@ -1,6 +1,7 @@
 package com.inventory.repository;
 
 import com.inventory.model.StockAdjustment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -15,7 +16,10 @@ public interface StockAdjustmentRepository extends JpaRepository<StockAdjustment
 
     /**
      * Finds all stock adjustments, ordered by adjustment date in descending order.
+     * The product (with its category) and the adjusting user (with their roles) are fetched in the same query;
+     * they are eager or serialized with the adjustment, and would otherwise be loaded one by one.
      * @return A list of all stock adjustments.
      */
+    @EntityGraph(attributePaths = {"product", "product.category", "adjustedBy", "adjustedBy.roles"})
     List<StockAdjustment> findAllByOrderByAdjustmentDateDesc();
 }
@@ -1,9 +1,11 @@
 package com.inventory.repository;
 
 import com.inventory.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,6 +15,14 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Finds all users with their roles in one query (roles are eager, and would otherwise be loaded per user).
+     * @return All users.
+     */
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAll();
+
     /**
      * Finds a User by their username. Used for authentication.
      * @param username The username to search for.
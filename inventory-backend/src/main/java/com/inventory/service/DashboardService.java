@@ -0,0 +1,319 @@
+package com.inventory.service;
+
+import com.inventory.dto.ProductDto;
+import com.inventory.filter.RequestClass;
+import com.inventory.model.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the dashboard overview (GET /api/dashboard/overview) from independent aggregate queries that run
+ * concurrently on a small dedicated pool, so the overview takes about as long as its slowest query rather
+ * than the sum of all of them.
+ *
+ * The queries use connections of the calling request's class (CATALOG for the dashboard), and each running
+ * query holds one. The pool has inventory.dashboard.threads threads for all overviews together, so however
+ * many overviews are requested at once, they never hold more than that many catalog connections; keep it
+ * well below inventory.bulkhead.catalog.pool-size so product lookups from the tills always find one.
+ *
+ * Every query must finish within inventory.dashboard.query-timeout-ms of the request. A query that does not
+ * is abandoned and its piece of the overview is the last value computed (stale = true, asOf = when it was
+ * computed), or empty with an error if there is none yet; the rest of the overview is still returned.
+ * Abandoned queries are cancelled without interrupting their thread (an interrupt during I/O would close
+ * H2's database file): queued ones never start, running ones finish in the background or are stopped by
+ * the database after inventory.dashboard.statement-timeout-seconds, and a late result still refreshes the
+ * last known value for the next overview.
+ */
+@Service
+public class DashboardService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Overview queries running at once, across all overviews (one overview issues five); also the most
+    // connections the overviews hold at once
+    @Value("${inventory.dashboard.threads:2}")
+    private int threads;
+
+    // Overview queries that may wait for a thread; beyond this, pieces are returned stale immediately
+    @Value("${inventory.dashboard.queue-capacity:50}")
+    private int queueCapacity;
+
+    @Value("${inventory.dashboard.query-timeout-ms:1000}")
+    private long queryTimeoutMillis;
+
+    @Value("${inventory.dashboard.statement-timeout-seconds:10}")
+    private int statementTimeoutSeconds;
+
+    @Value("${inventory.dashboard.low-stock-limit:100}")
+    private int lowStockLimit;
+
+    @Value("${inventory.dashboard.top-sellers-days:7}")
+    private int topSellersDays;
+
+    @Value("${inventory.dashboard.top-sellers-limit:10}")
+    private int topSellersLimit;
+
+    private ThreadPoolExecutor executor;
+    private JdbcTemplate queryTemplate;
+    private final Map<String, Piece<?>> lastKnown = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-query-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        queryTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        queryTemplate.setQueryTimeout(statementTimeoutSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the overview queries concurrently and waits for each until the query timeout.
+     * @return The overview; pieces whose query failed or timed out are marked stale.
+     */
+    public Overview overview() {
+        LocalDateTime startOfToday = LocalDate.now().atStartOfDay();
+        Timestamp today = Timestamp.valueOf(startOfToday);
+        Timestamp topSellersFrom = Timestamp.valueOf(startOfToday.minusDays(topSellersDays - 1L));
+        // The queries use the connection pool of the calling request's class
+        RequestClass requestClass = RequestClass.current();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(queryTimeoutMillis);
+
+        Future<Piece<Long>> productCount = submit("productCount", requestClass,
+                () -> queryTemplate.queryForObject("SELECT COUNT(*) FROM products", Long.class));
+        Future<Piece<List<ProductDto>>> lowStock = submit("lowStock", requestClass,
+                () -> ProductDto.fromAll(findBelowMinStockLevel()));
+        Future<Piece<SalesTotal>> todaySales = submit("todaySales", requestClass,
+                () -> queryTemplate.queryForObject(
+                        "SELECT COUNT(*), COALESCE(SUM(total_amount), 0) FROM receipts WHERE transaction_date >= ?",
+                        (rs, rowNum) -> new SalesTotal(null, rs.getLong(1), rs.getDouble(2)), today));
+        Future<Piece<List<SalesTotal>>> paymentMethods = submit("paymentMethods", requestClass,
+                () -> queryTemplate.query(
+                        "SELECT payment_method, COUNT(*), SUM(total_amount) FROM receipts WHERE transaction_date >= ? " +
+                                "GROUP BY payment_method ORDER BY payment_method",
+                        (rs, rowNum) -> new SalesTotal(rs.getString(1), rs.getLong(2), rs.getDouble(3)), today));
+        Future<Piece<List<TopSeller>>> topSellers = submit("topSellers", requestClass,
+                () -> queryTemplate.query(
+                        "SELECT s.product_id, p.name, SUM(s.quantity) AS sold, SUM(s.total_amount) " +
+                                "FROM receipts r JOIN sales s ON s.receipt_id = r.id JOIN products p ON p.id = s.product_id " +
+                                "WHERE r.transaction_date >= ? GROUP BY s.product_id, p.name ORDER BY sold DESC, s.product_id LIMIT ?",
+                        (rs, rowNum) -> new TopSeller(rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getDouble(4)),
+                        topSellersFrom, topSellersLimit));
+
+        Overview overview = new Overview();
+        overview.productCount = await("productCount", productCount, deadline);
+        overview.lowStock = await("lowStock", lowStock, deadline);
+        overview.todaySales = await("todaySales", todaySales, deadline);
+        overview.paymentMethods = await("paymentMethods", paymentMethods, deadline);
+        overview.topSellers = await("topSellers", topSellers, deadline);
+        overview.topSellersDays = topSellersDays;
+        overview.complete = !(overview.productCount.stale || overview.lowStock.stale || overview.todaySales.stale
+                || overview.paymentMethods.stale || overview.topSellers.stale);
+        overview.generatedAt = Instant.now();
+        return overview;
+    }
+
+    /**
+     * Products at or below their own minimum stock level, by name, with their categories. Runs with the same
+     * statement timeout as the JDBC queries.
+     */
+    private List<Product> findBelowMinStockLevel() {
+        return entityManager.createQuery(
+                        "SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.quantity <= p.minStockLevel ORDER BY p.name",
+                        Product.class)
+                .setHint("jakarta.persistence.query.timeout", statementTimeoutSeconds * 1000)
+                .setMaxResults(lowStockLimit)
+                .getResultList();
+    }
+
+    private <T> Future<Piece<T>> submit(String name, RequestClass requestClass, Callable<T> query) {
+        try {
+            return executor.submit(() -> {
+                RequestClass.bind(requestClass);
+                try {
+                    Piece<T> piece = new Piece<>(query.call(), false, Instant.now(), null);
+                    lastKnown.put(name, piece);
+                    return piece;
+                } finally {
+                    RequestClass.unbind();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new IllegalStateException("too many overview queries waiting"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Piece<T> await(String name, Future<Piece<T>> future, long deadlineNanos) {
+        String error;
+        try {
+            return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            error = "timed out after " + queryTimeoutMillis + " ms";
+        } catch (ExecutionException e) {
+            error = e.getCause().getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            error = "interrupted";
+        }
+        System.err.println("Dashboard overview: " + name + " " + error + ", returning the last known value.");
+        Piece<T> last = (Piece<T>) lastKnown.get(name);
+        return new Piece<>(last != null ? last.value : null, true, last != null ? last.asOf : null, error);
+    }
+
+    /**
+     * One aggregate of the overview.
+     * @param <T> The aggregate's type.
+     */
+    public static class Piece<T> {
+        private final T value;
+        private final boolean stale;
+        private final Instant asOf;
+        private final String error;
+
+        Piece(T value, boolean stale, Instant asOf, String error) {
+            this.value = value;
+            this.stale = stale;
+            this.asOf = asOf;
+            this.error = error;
+        }
+
+        /** @return The aggregate; null if it could not be computed and there is no earlier value. */
+        public T getValue() { return value; }
+        /** @return True if the query did not complete for this overview and the value is an earlier one. */
+        public boolean isStale() { return stale; }
+        /** @return When the value was computed; null if there is no value. */
+        public Instant getAsOf() { return asOf; }
+        /** @return Why the query did not complete; null if it did. */
+        public String getError() { return error; }
+
+        @Override
+        public String toString() {
+            return "Piece{value=" + value + ", stale=" + stale + ", asOf=" + asOf + ", error=" + error + '}';
+        }
+    }
+
+    /**
+     * Receipt count and amount, for all payment methods (paymentMethod null) or one.
+     */
+    public static class SalesTotal {
+        private final String paymentMethod;
+        private final long receipts;
+        private final double amount;
+
+        SalesTotal(String paymentMethod, long receipts, double amount) {
+            this.paymentMethod = paymentMethod;
+            this.receipts = receipts;
+            this.amount = amount;
+        }
+
+        public String getPaymentMethod() { return paymentMethod; }
+        public long getReceipts() { return receipts; }
+        public double getAmount() { return amount; }
+
+        @Override
+        public String toString() {
+            return "SalesTotal{paymentMethod=" + paymentMethod + ", receipts=" + receipts + ", amount=" + amount + '}';
+        }
+    }
+
+    /**
+     * A product with the quantity and amount sold in the top sellers period.
+     */
+    public static class TopSeller {
+        private final long productId;
+        private final String name;
+        private final long quantity;
+        private final double amount;
+
+        TopSeller(long productId, String name, long quantity, double amount) {
+            this.productId = productId;
+            this.name = name;
+            this.quantity = quantity;
+            this.amount = amount;
+        }
+
+        public long getProductId() { return productId; }
+        public String getName() { return name; }
+        public long getQuantity() { return quantity; }
+        public double getAmount() { return amount; }
+
+        @Override
+        public String toString() {
+            return "TopSeller{productId=" + productId + ", name=" + name + ", quantity=" + quantity + ", amount=" + amount + '}';
+        }
+    }
+
+    /**
+     * The dashboard overview. complete is false if any piece is stale.
+     */
+    public static class Overview {
+        private Piece<Long> productCount;
+        private Piece<List<ProductDto>> lowStock;
+        private Piece<SalesTotal> todaySales;
+        private Piece<List<SalesTotal>> paymentMethods;
+        private Piece<List<TopSeller>> topSellers;
+        private int topSellersDays;
+        private boolean complete;
+        private Instant generatedAt;
+
+        public Piece<Long> getProductCount() { return productCount; }
+        /** @return Products at or below their minimum stock level, by name, at most inventory.dashboard.low-stock-limit. */
+        public Piece<List<ProductDto>> getLowStock() { return lowStock; }
+        /** @return Receipts since midnight. */
+        public Piece<SalesTotal> getTodaySales() { return todaySales; }
+        /** @return Receipts since midnight by payment method. */
+        public Piece<List<SalesTotal>> getPaymentMethods() { return paymentMethods; }
+        /** @return Best-selling products by quantity over the last topSellersDays days (today included). */
+        public Piece<List<TopSeller>> getTopSellers() { return topSellers; }
+        public int getTopSellersDays() { return topSellersDays; }
+        public boolean isComplete() { return complete; }
+        public Instant getGeneratedAt() { return generatedAt; }
+
+        @Override
+        public String toString() {
+            return "Overview{complete=" + complete + ", generatedAt=" + generatedAt + ", productCount=" + productCount
+                    + ", todaySales=" + todaySales + '}';
+        }
+    }
+}
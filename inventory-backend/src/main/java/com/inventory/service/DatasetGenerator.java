@@ -0,0 +1,445 @@
+package com.inventory.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Fills the database with a large, reproducible dataset for performance testing: categories, products,
+ * cashiers, years of receipts with their sales lines, and stock adjustments.
+ *
+ * Enabled with inventory.datagen.enabled=true (the 'datagen' profile, see application-datagen.properties);
+ * it then runs once after startup and does nothing if generated products already exist. Rows are written
+ * with batched JDBC inserts, one transaction per batch, bypassing Hibernate. The same seed and end date
+ * always produce the same data.
+ *
+ * The data is shaped like a shop's:
+ * - product popularity follows a Zipf distribution, so a few products make most of the sales
+ * - receipts are spread evenly over the years before the end date, in ID order, with 1 to
+ *   2 * lines-per-receipt - 1 lines each, mostly single units, and a mix of cash, M-Pesa and mixed payments
+ * - every sale and adjustment is also written to the stock ledger, after an OPENING movement at the start
+ *   that is large enough for stock never to go negative, so Product.quantity agrees with the ledger
+ *   at every point in time
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.datagen", name = "enabled", havingValue = "true")
+public class DatasetGenerator implements ApplicationRunner {
+
+    static final String NAME_PREFIX = "Gen ";
+
+    private static final String[] CATEGORY_NAMES = {"Drinks", "Snacks", "Dairy", "Bakery", "Household", "Toiletries",
+            "Produce", "Cereals", "Canned Food", "Frozen", "Stationery", "Hardware", "Baby Care", "Spices", "Pet Food"};
+    private static final String[] ADJECTIVES = {"Fresh", "Classic", "Premium", "Family", "Golden", "Organic", "Spicy",
+            "Sweet", "Mini", "Jumbo", "Light", "Extra", "Natural", "Royal", "Daily"};
+    private static final String[] NOUNS = {"Milk", "Bread", "Rice", "Soda", "Juice", "Soap", "Tea", "Coffee", "Flour",
+            "Sugar", "Biscuits", "Crisps", "Butter", "Yoghurt", "Noodles", "Beans", "Oil", "Salt", "Eggs", "Water"};
+    private static final String[] ADJUSTMENT_REASONS = {"Delivery received", "Damaged in store", "Stock count correction",
+            "Expired goods removed", "Returned to supplier", "Found in back store"};
+
+    // Indexes that no foreign key depends on (V2, V5): name and definition
+    private static final String[][] BULK_LOAD_INDEXES = {
+            {"idx_receipts_transaction_date", "receipts (transaction_date)"},
+            {"idx_receipts_payment_method", "receipts (payment_method, transaction_date)"},
+            {"idx_stock_adjustments_adjustment_date", "stock_adjustments (adjustment_date DESC)"},
+            {"idx_stock_movements_product_occurred", "stock_movements (product_id, occurred_at)"}};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${inventory.datagen.seed:42}")
+    private long seed;
+
+    @Value("${inventory.datagen.categories:50}")
+    private int categories;
+
+    @Value("${inventory.datagen.products:100000}")
+    private int products;
+
+    @Value("${inventory.datagen.cashiers:20}")
+    private int cashiers;
+
+    @Value("${inventory.datagen.sales-lines:10000000}")
+    private long salesLines;
+
+    // Average lines per receipt
+    @Value("${inventory.datagen.lines-per-receipt:3}")
+    private int linesPerReceipt;
+
+    @Value("${inventory.datagen.years:3}")
+    private int years;
+
+    @Value("${inventory.datagen.stock-adjustments:5000}")
+    private int stockAdjustments;
+
+    // Receipts per insert batch (and transaction); sales lines and movements follow their receipts
+    @Value("${inventory.datagen.batch-size:5000}")
+    private int batchSize;
+
+    // Receipts end at the start of this day (yyyy-MM-dd); empty for today
+    @Value("${inventory.datagen.end-date:}")
+    private String endDate;
+
+    @Value("${inventory.datagen.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    private long startedNanos;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE name LIKE ?", Integer.class, NAME_PREFIX + "%");
+        if (existing != null && existing > 0) {
+            System.out.println("Dataset generator: " + existing + " generated products already present, nothing to do.");
+        } else {
+            System.out.println("Dataset generator: done. " + generate());
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    /**
+     * Generates the configured volumes on top of whatever the database already contains.
+     * @return What was generated and how long it took.
+     */
+    public GenerationResult generate() {
+        startedNanos = System.nanoTime();
+        GenerationResult result = new GenerationResult();
+        Random random = new Random(seed);
+        LocalDateTime end = (endDate == null || endDate.isBlank() ? LocalDate.now() : LocalDate.parse(endDate)).atStartOfDay();
+        LocalDateTime start = end.minusYears(years);
+        Long ownerId = jdbcTemplate.queryForObject(
+                "SELECT MIN(u.id) FROM app_users u JOIN user_roles r ON r.user_id = u.id WHERE r.role_name = 'OWNER'", Long.class);
+
+        long[] cashierIds = insertCashiers();
+        Catalog catalog = insertCatalog(random);
+        result.products = products;
+        progress(String.format("%d categories, %d products and %d cashiers inserted", categories, products, cashiers));
+
+        // Secondary indexes are cheaper to build once at the end than to maintain row by row
+        for (String[] index : BULK_LOAD_INDEXES) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index[0]);
+        }
+        try {
+            insertReceipts(random, catalog, cashierIds, start, end, result);
+            // Adjustments are recorded by the owner (by a generated cashier on a database without one)
+            insertAdjustments(random, catalog, ownerId != null ? ownerId : cashierIds[0], start, end, result);
+            progress(result.stockAdjustments + " stock adjustments inserted");
+            finishStock(random, catalog, start);
+            progress("opening stock inserted");
+        } finally {
+            for (String[] index : BULK_LOAD_INDEXES) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + index[0] + " ON " + index[1]);
+            }
+        }
+        progress("indexes rebuilt");
+
+        restartIdentity("categories");
+        restartIdentity("products");
+        restartIdentity("app_users");
+        restartIdentity("receipts");
+        restartIdentity("stock_adjustments");
+        jdbcTemplate.execute("ANALYZE"); // Fresh selectivity statistics for the query planner
+        result.seconds = (System.nanoTime() - startedNanos) / 1_000_000_000.0;
+        return result;
+    }
+
+    private long[] insertCashiers() {
+        long firstId = nextId("app_users");
+        String passwordHash = passwordEncoder.encode("password"); // Same password as the default accounts
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> roles = new ArrayList<>();
+        long[] ids = new long[cashiers];
+        for (int i = 0; i < cashiers; i++) {
+            ids[i] = firstId + i;
+            users.add(new Object[]{ids[i], "gen-cashier-" + (i + 1), passwordHash});
+            roles.add(new Object[]{ids[i]});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO app_users (id, username, password) VALUES (?, ?, ?)", users);
+            jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_name) VALUES (?, 'CASHIER')", roles);
+        });
+        return ids;
+    }
+
+    /**
+     * Inserts the categories and products (with zero stock; finishStock sets the final quantities)
+     * and assigns each product a popularity rank.
+     */
+    private Catalog insertCatalog(Random random) {
+        long firstCategory = nextId("categories");
+        List<Object[]> categoryRows = new ArrayList<>();
+        for (int i = 0; i < categories; i++) {
+            categoryRows.add(new Object[]{firstCategory + i,
+                    String.format("%s%s %03d", NAME_PREFIX, CATEGORY_NAMES[i % CATEGORY_NAMES.length], i + 1)});
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate("INSERT INTO categories (id, name) VALUES (?, ?)", categoryRows));
+
+        Catalog catalog = new Catalog(nextId("products"), products);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            catalog.prices[i] = 20 + random.nextInt(2000) + (random.nextBoolean() ? 0.5 : 0.0);
+            // Fixed-width number, so no product name contains another (ProductService's duplicate check)
+            String name = String.format("%s%s %s %06d", NAME_PREFIX,
+                    ADJECTIVES[random.nextInt(ADJECTIVES.length)], NOUNS[random.nextInt(NOUNS.length)], i + 1);
+            rows.add(new Object[]{catalog.firstId + i, name, "Generated product", catalog.prices[i],
+                    5 + random.nextInt(16), firstCategory + random.nextInt(categories)});
+            if (rows.size() == batchSize || i == products - 1) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                        "INSERT INTO products (id, name, description, price, quantity, min_stock_level, category_id) VALUES (?, ?, ?, ?, 0, ?, ?)", rows));
+                rows.clear();
+            }
+        }
+
+        // Popularity: the product at rank r (in a random order) is sold with weight 1 / (r + 1)
+        int[] byRank = new int[products];
+        for (int i = 0; i < products; i++) {
+            byRank[i] = i;
+        }
+        for (int i = products - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = byRank[i];
+            byRank[i] = byRank[j];
+            byRank[j] = swap;
+        }
+        double total = 0;
+        for (int rank = 0; rank < products; rank++) {
+            total += 1.0 / (rank + 1);
+            catalog.cumulativePopularity[rank] = total;
+        }
+        catalog.productByRank = byRank;
+        return catalog;
+    }
+
+    private void insertReceipts(Random random, Catalog catalog, long[] cashierIds,
+                                LocalDateTime start, LocalDateTime end, GenerationResult result) {
+        long receiptId = nextId("receipts");
+        long expectedReceipts = Math.max(1, salesLines / linesPerReceipt);
+        long spacingMillis = Math.max(1, ChronoUnit.MILLIS.between(start, end) / expectedReceipts);
+        long remainingLines = salesLines;
+        long receiptIndex = 0;
+        long reportEvery = Math.max(1_000_000, salesLines / 10);
+        long nextReport = reportEvery;
+
+        List<Object[]> receipts = new ArrayList<>(batchSize);
+        List<Object[]> sales = new ArrayList<>(batchSize * linesPerReceipt * 2);
+        List<Object[]> movements = new ArrayList<>(batchSize * linesPerReceipt * 2);
+        while (remainingLines > 0) {
+            LocalDateTime time = start.plus(Math.min(receiptIndex * spacingMillis + random.nextInt((int) Math.min(spacingMillis, Integer.MAX_VALUE)),
+                    ChronoUnit.MILLIS.between(start, end) - 1), ChronoUnit.MILLIS);
+            Timestamp timestamp = Timestamp.valueOf(time);
+            int lines = (int) Math.min(remainingLines, 1 + random.nextInt(2 * linesPerReceipt - 1));
+            double total = 0;
+            for (int line = 0; line < lines; line++) {
+                int product = catalog.pick(random);
+                int quantity = random.nextInt(10) < 8 ? 1 : 2 + random.nextInt(4);
+                double unitPrice = catalog.prices[product];
+                total += unitPrice * quantity;
+                catalog.unitsSold[product] += quantity;
+                sales.add(new Object[]{receiptId, catalog.firstId + product, quantity, unitPrice, unitPrice * quantity});
+                movements.add(new Object[]{catalog.firstId + product, -quantity, StockLedgerService.MovementType.SALE.name(), receiptId, timestamp});
+            }
+            int payment = random.nextInt(10);
+            String paymentMethod = payment < 7 ? "CASH" : payment < 9 ? "MPESA" : "MIXED";
+            double cash = payment < 7 ? total : payment < 9 ? 0 : Math.floor(total / 2);
+            String mpesaTransactionId = payment < 7 ? null : "GEN" + Long.toString(receiptId, 36).toUpperCase(Locale.ROOT);
+            receipts.add(new Object[]{receiptId, "GEN-" + receiptId, cashierIds[random.nextInt(cashierIds.length)], timestamp,
+                    total, cash, total - cash, paymentMethod, mpesaTransactionId});
+
+            receiptId++;
+            receiptIndex++;
+            remainingLines -= lines;
+            result.salesLines += lines;
+            if (receipts.size() == batchSize || remainingLines == 0) {
+                insertReceiptBatch(receipts, sales, movements);
+                result.receipts += receipts.size();
+                receipts.clear();
+                sales.clear();
+                movements.clear();
+            }
+            if (result.salesLines >= nextReport) {
+                progress(String.format(Locale.ROOT, "%,d sales lines in %,d receipts inserted", result.salesLines, receiptIndex));
+                nextReport += reportEvery;
+            }
+        }
+    }
+
+    private void insertReceiptBatch(List<Object[]> receipts, List<Object[]> sales, List<Object[]> movements) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO receipts (id, receipt_number, cashier_id, transaction_date, total_amount, "
+                    + "cash_amount, mpesa_amount, payment_method, mpesa_transaction_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", receipts);
+            jdbcTemplate.batchUpdate("INSERT INTO sales (receipt_id, product_id, quantity, unit_price, total_amount) VALUES (?, ?, ?, ?, ?)", sales);
+            insertMovements(movements);
+        });
+    }
+
+    private void insertAdjustments(Random random, Catalog catalog, long userId,
+                                   LocalDateTime start, LocalDateTime end, GenerationResult result) {
+        long adjustmentId = nextId("stock_adjustments");
+        long rangeMillis = ChronoUnit.MILLIS.between(start, end);
+        List<Object[]> adjustments = new ArrayList<>();
+        List<Object[]> movements = new ArrayList<>();
+        for (int i = 0; i < stockAdjustments; i++) {
+            int product = random.nextInt(products);
+            int kind = random.nextInt(20);
+            String type;
+            int change;
+            if (kind < 12) {
+                type = "ADDITION";
+                change = 1 + random.nextInt(100);
+            } else if (kind < 17) {
+                type = "SUBTRACTION";
+                change = -(1 + random.nextInt(10));
+            } else {
+                type = "CORRECTION";
+                change = random.nextBoolean() ? 1 + random.nextInt(5) : -(1 + random.nextInt(5));
+            }
+            if (change < 0) {
+                catalog.unitsRemoved[product] -= change;
+            }
+            catalog.adjustmentDelta[product] += change;
+            Timestamp timestamp = Timestamp.valueOf(start.plus((long) (random.nextDouble() * rangeMillis), ChronoUnit.MILLIS));
+            adjustments.add(new Object[]{adjustmentId, catalog.firstId + product, change, type,
+                    ADJUSTMENT_REASONS[random.nextInt(ADJUSTMENT_REASONS.length)], userId, timestamp});
+            movements.add(new Object[]{catalog.firstId + product, change, StockLedgerService.MovementType.ADJUSTMENT.name(), adjustmentId, timestamp});
+            adjustmentId++;
+            if (adjustments.size() == batchSize || i == stockAdjustments - 1) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate("INSERT INTO stock_adjustments (id, product_id, quantity_change, adjustment_type, reason, "
+                            + "adjusted_by_user_id, adjustment_date) VALUES (?, ?, ?, ?, ?, ?, ?)", adjustments);
+                    insertMovements(movements);
+                });
+                result.stockAdjustments += adjustments.size();
+                adjustments.clear();
+                movements.clear();
+            }
+        }
+    }
+
+    /**
+     * Records each product's OPENING movement at the start of the history and sets Product.quantity to the
+     * ledger balance. The opening stock covers everything sold or removed later plus 0-500 units left over.
+     */
+    private void finishStock(Random random, Catalog catalog, LocalDateTime start) {
+        Timestamp openedAt = Timestamp.valueOf(start.minusDays(1));
+        List<Object[]> movements = new ArrayList<>();
+        List<Object[]> quantities = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            long opening = catalog.unitsSold[i] + catalog.unitsRemoved[i] + random.nextInt(501);
+            long quantity = opening - catalog.unitsSold[i] + catalog.adjustmentDelta[i];
+            movements.add(new Object[]{catalog.firstId + i, opening, StockLedgerService.MovementType.OPENING.name(), null, openedAt});
+            quantities.add(new Object[]{quantity, catalog.firstId + i});
+            if (movements.size() == batchSize || i == products - 1) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    insertMovements(movements);
+                    jdbcTemplate.batchUpdate("UPDATE products SET quantity = ? WHERE id = ?", quantities);
+                });
+                movements.clear();
+                quantities.clear();
+            }
+        }
+    }
+
+    private void insertMovements(List<Object[]> movements) {
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movements (product_id, delta, movement_type, reference_id, occurred_at) VALUES (?, ?, ?, ?, ?)", movements);
+    }
+
+    private void progress(String done) {
+        System.out.println(String.format(Locale.ROOT, "Dataset generator: %s after %.1f s",
+                done, (System.nanoTime() - startedNanos) / 1_000_000_000.0));
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max + 1 : 1;
+    }
+
+    // Rows were inserted with explicit IDs, so the identity column has to continue after them
+    private void restartIdentity(String table) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId(table));
+    }
+
+    /**
+     * The generated products: prices, popularity and the stock changes accumulated while generating.
+     */
+    private static class Catalog {
+        private final long firstId;
+        private final double[] prices;
+        private final double[] cumulativePopularity;
+        private int[] productByRank;
+        private final long[] unitsSold;
+        private final long[] unitsRemoved;
+        private final long[] adjustmentDelta;
+
+        Catalog(long firstId, int size) {
+            this.firstId = firstId;
+            this.prices = new double[size];
+            this.cumulativePopularity = new double[size];
+            this.unitsSold = new long[size];
+            this.unitsRemoved = new long[size];
+            this.adjustmentDelta = new long[size];
+        }
+
+        // Index (0-based) of a product drawn by popularity
+        int pick(Random random) {
+            double point = random.nextDouble() * cumulativePopularity[cumulativePopularity.length - 1];
+            int low = 0;
+            int high = cumulativePopularity.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulativePopularity[mid] < point) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return productByRank[low];
+        }
+    }
+
+    public static class GenerationResult {
+        private int products;
+        private long receipts;
+        private long salesLines;
+        private int stockAdjustments;
+        private double seconds;
+
+        public int getProducts() { return products; }
+        public long getReceipts() { return receipts; }
+        public long getSalesLines() { return salesLines; }
+        public int getStockAdjustments() { return stockAdjustments; }
+        public double getSeconds() { return seconds; }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "GenerationResult{products=%d, receipts=%d, salesLines=%d, stockAdjustments=%d, seconds=%.1f}",
+                    products, receipts, salesLines, stockAdjustments, seconds);
+        }
+    }
+}
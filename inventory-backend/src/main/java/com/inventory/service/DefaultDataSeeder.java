@@ -0,0 +1,73 @@
+package com.inventory.service;
+
+import com.inventory.model.Category;
+import com.inventory.model.User;
+import com.inventory.model.User.Role;
+import com.inventory.repository.CategoryRepository;
+import com.inventory.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.Set;
+
+/**
+ * Creates the default users (owner and cashier, password "password") and categories in an empty database.
+ * This is for development convenience. In production, users would be created via an admin interface.
+ *
+ * Runs once the context has started rather than while the beans are created, so it does not hold up
+ * startup. With inventory.seed.background=true (the fast-start profile) it runs on a background thread and
+ * the server does not wait for it at all; on a new database, logins then fail until the "Created default"
+ * lines are logged. On an existing database seeding is only two count queries either way.
+ */
+@Service
+public class DefaultDataSeeder implements ApplicationRunner {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${inventory.seed.background:false}")
+    private boolean background;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!background) {
+            seed();
+            return;
+        }
+        Thread thread = new Thread(this::seed, "default-data-seeder");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Creates the default users and categories if there are none.
+     */
+    public void seed() {
+        if (userRepository.count() == 0) {
+            User owner = new User("owner", passwordEncoder.encode("password"), Set.of(Role.OWNER));
+            userRepository.save(owner);
+            System.out.println("Created default OWNER user: username='owner', password='password'");
+
+            User cashier = new User("cashier", passwordEncoder.encode("password"), Set.of(Role.CASHIER));
+            userRepository.save(cashier);
+            System.out.println("Created default CASHIER user: username='cashier', password='password'");
+        }
+        if (categoryRepository.count() == 0) {
+            categoryRepository.save(new Category("Drinks", "Beverages like sodas, water, juice."));
+            categoryRepository.save(new Category("Snacks", "Biscuits, crisps, candies."));
+            categoryRepository.save(new Category("Household", "Cleaning supplies, detergents."));
+            categoryRepository.save(new Category("Groceries", "Food items, dry goods."));
+            System.out.println("Initialized default categories.");
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.inventory.service;
+
+import com.inventory.metrics.CheckoutEvent;
+import com.inventory.metrics.JwtVerificationEvent;
+import com.inventory.metrics.SlowQueryEvent;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Starts, dumps and stops an on-demand Java Flight Recorder recording of the running backend, so hot paths can
+ * be profiled under real load without a restart (POST /api/admin/recording/...).
+ *
+ * There is at most one recording at a time. It is continuous but bounded: JFR keeps only the last max-age
+ * minutes, up to max-size megabytes, in its disk repository, so it can be left running until an incident and
+ * then dumped. Dumps are written to inventory.jfr.directory and opened with JDK Mission Control or
+ * "jfr print --events com.inventory.Checkout file.jfr".
+ *
+ * Besides the JDK's own events (from the configured settings, "profile" by default: method sampling,
+ * allocation, GC, locks, socket and file I/O) the recording has the application's events:
+ * com.inventory.Checkout, com.inventory.JwtVerification and com.inventory.SlowQuery (see the event classes).
+ */
+@Service
+public class FlightRecordingService {
+
+    static final String RECORDING_NAME = "inventory-on-demand";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Value("${inventory.jfr.directory:./data/recordings}")
+    private String directory;
+
+    // Built-in JFR settings ("default" or "profile") or the path of a .jfc file
+    @Value("${inventory.jfr.settings:profile}")
+    private String settings;
+
+    @Value("${inventory.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${inventory.jfr.max-size-mb:250}")
+    private long maxSizeMb;
+
+    @Value("${inventory.jfr.slow-query-threshold-ms:50}")
+    private long slowQueryThresholdMs;
+
+    private Recording recording; // Guarded by this
+    private Path lastDump;
+
+    /**
+     * Starts the recording.
+     * @param requestedMaxAgeMinutes Minutes of history to keep, at most inventory.jfr.max-age-minutes; null for that maximum.
+     * @param requestedMaxSizeMb Megabytes of history to keep, at most inventory.jfr.max-size-mb; null for that maximum.
+     * @return The status of the new recording.
+     * @throws IllegalStateException If a recording is already running.
+     */
+    public synchronized RecordingStatus start(Long requestedMaxAgeMinutes, Long requestedMaxSizeMb) {
+        if (recording != null) {
+            throw new IllegalStateException("A recording is already running since " + recording.getStartTime());
+        }
+        long ageMinutes = bounded(requestedMaxAgeMinutes, maxAgeMinutes);
+        long sizeMb = bounded(requestedMaxSizeMb, maxSizeMb);
+        Recording newRecording;
+        try {
+            newRecording = new Recording(configuration());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Cannot read the JFR settings '" + settings + "': " + e.getMessage(), e);
+        }
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(Duration.ofMinutes(ageMinutes));
+        newRecording.setMaxSize(sizeMb * 1024 * 1024);
+        newRecording.enable(CheckoutEvent.class);
+        newRecording.enable(JwtVerificationEvent.class);
+        newRecording.enable(SlowQueryEvent.class).withThreshold(Duration.ofMillis(slowQueryThresholdMs));
+        newRecording.start();
+        recording = newRecording;
+        System.out.println("Flight recording started: last " + ageMinutes + " minutes, up to " + sizeMb + " MB.");
+        return status();
+    }
+
+    /**
+     * Writes what the running recording holds to a new file; the recording continues.
+     * @return The status, with the file written.
+     * @throws IllegalStateException If no recording is running.
+     */
+    public synchronized RecordingStatus dump() {
+        requireRecording();
+        lastDump = dumpTo(recording);
+        return status();
+    }
+
+    /**
+     * Stops the recording, writes it to a new file and discards it.
+     * @return The status, with the file written.
+     * @throws IllegalStateException If no recording is running.
+     */
+    public synchronized RecordingStatus stop() {
+        requireRecording();
+        try {
+            recording.stop();
+            lastDump = dumpTo(recording);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+        System.out.println("Flight recording stopped.");
+        return status();
+    }
+
+    /**
+     * @return Whether a recording is running, its bounds and the last file written.
+     */
+    public synchronized RecordingStatus status() {
+        RecordingStatus status = new RecordingStatus();
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            status.running = true;
+            status.startedAt = recording.getStartTime();
+            status.maxAgeMinutes = recording.getMaxAge().toMinutes();
+            status.maxSizeMb = recording.getMaxSize() / (1024 * 1024);
+        }
+        status.lastDump = lastDump != null ? lastDump.toString() : null;
+        return status;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private Configuration configuration() throws IOException, ParseException {
+        if (settings.endsWith(".jfc")) {
+            return Configuration.create(Paths.get(settings));
+        }
+        return Configuration.getConfiguration(settings);
+    }
+
+    private void requireRecording() {
+        if (recording == null) {
+            throw new IllegalStateException("No recording is running.");
+        }
+    }
+
+    private Path dumpTo(Recording source) {
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            Path file = dir.resolve("inventory-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr").toAbsolutePath();
+            source.dump(file);
+            System.out.println("Flight recording written to " + file);
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the flight recording: " + e.getMessage(), e);
+        }
+    }
+
+    private static long bounded(Long requested, long max) {
+        return requested == null || requested <= 0 ? max : Math.min(requested, max);
+    }
+
+    /**
+     * State of the on-demand recording.
+     */
+    public static class RecordingStatus {
+        private boolean running;
+        private Instant startedAt;
+        private long maxAgeMinutes;
+        private long maxSizeMb;
+        private String lastDump;
+
+        public boolean isRunning() { return running; }
+        public Instant getStartedAt() { return startedAt; }
+        public long getMaxAgeMinutes() { return maxAgeMinutes; }
+        public long getMaxSizeMb() { return maxSizeMb; }
+        public String getLastDump() { return lastDump; }
+
+        @Override
+        public String toString() {
+            return "RecordingStatus{running=" + running + ", startedAt=" + startedAt + ", maxAgeMinutes=" + maxAgeMinutes
+                    + ", maxSizeMb=" + maxSizeMb + ", lastDump=" + lastDump + '}';
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.inventory.service;
+
+import com.inventory.service.exception.LoginCapacityExceededException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs login password verification on a dedicated, bounded thread pool.
+ *
+ * A BCrypt check costs tens of milliseconds of CPU, so a burst of logins on request threads can starve
+ * all other API traffic. Here at most inventory.security.login.threads verifications run at once and at
+ * most inventory.security.login.queue-capacity wait for a thread. When both are full, the login is
+ * rejected immediately with LoginCapacityExceededException (HTTP 429) instead of queueing without limit.
+ */
+@Service
+public class LoginVerificationService {
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    // Concurrent password verifications (0 = half the available processors, at least one)
+    @Value("${inventory.security.login.threads:0}")
+    private int threads;
+
+    // Logins allowed to wait for a verification thread before new ones are rejected
+    @Value("${inventory.security.login.queue-capacity:32}")
+    private int queueCapacity;
+
+    // Maximum time a login waits for its verification (queueing included)
+    @Value("${inventory.security.login.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        System.out.println("Login verification pool: " + poolSize + " threads, queue capacity " + queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifies a username and password on the verification pool.
+     * @param username The username.
+     * @param password The raw password.
+     * @return The successful Authentication; its principal is the loaded UserDetails.
+     * @throws AuthenticationException If the credentials are wrong (e.g. BadCredentialsException).
+     * @throws LoginCapacityExceededException If the pool is saturated or the verification timed out.
+     */
+    public Authentication authenticate(String username, String password) {
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)));
+        } catch (RejectedExecutionException e) {
+            throw new LoginCapacityExceededException("Too many concurrent logins. Please try again shortly.", e);
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AuthenticationException) {
+                throw (AuthenticationException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Login verification failed", e.getCause());
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw new LoginCapacityExceededException("Login verification timed out. Please try again shortly.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new LoginCapacityExceededException("Login verification was interrupted.", e);
+        }
+    }
+
+    /**
+     * @return Number of logins currently waiting for a verification thread.
+     */
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+}
@@ -0,0 +1,297 @@
+package com.inventory.service;
+
+import com.inventory.util.CsvReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service for bulk-importing products from CSV.
+ * Unlike ProductService.saveProduct (one category lookup and one duplicate scan per product),
+ * the importer preloads all categories and existing product names once, streams the CSV
+ * record by record and writes valid rows with JDBC batch inserts, committing once per batch.
+ * Memory use is bounded by the batch size plus the set of known product names.
+ *
+ * Expected header (case-insensitive, any column order):
+ * name, description, price, quantity, minStockLevel, category
+ * The category column may hold either a category name or a numeric category ID.
+ *
+ * A row is a duplicate if its name equals the name of an existing product, or of an earlier row in the
+ * file, ignoring case and surrounding whitespace; the same rule as ProductService.saveProduct. Duplicate
+ * rows are rejected and reported like any other invalid row.
+ */
+@Service
+public class ProductImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, quantity, min_stock_level, category_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    // Number of rows sent to the database per JDBC batch (and per transaction)
+    @Value("${inventory.import.batch-size:500}")
+    private int batchSize;
+
+    // Upper bound on row errors kept in the result, so a badly broken file cannot exhaust memory
+    @Value("${inventory.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    /**
+     * Callback for import progress, invoked after every committed batch.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportResult progress);
+    }
+
+    /**
+     * Imports products from a CSV stream.
+     * Rows are validated individually; invalid rows are skipped and reported, valid rows are inserted.
+     * @param csv The CSV content. It is consumed incrementally and not closed by this method.
+     * @param listener Optional progress callback (may be null).
+     * @return A summary of the import, including per-row errors.
+     * @throws IOException If the CSV cannot be read or has no usable header.
+     */
+    public ImportResult importProducts(Reader csv, ProgressListener listener) throws IOException {
+        CsvReader reader = new CsvReader(csv);
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty.");
+        }
+        Map<String, Integer> columns = mapHeader(header);
+
+        Map<String, Long> categoriesByName = new HashMap<>();
+        Set<Long> categoryIds = new HashSet<>();
+        jdbcTemplate.query("SELECT id, name FROM categories", rs -> {
+            categoriesByName.put(normalize(rs.getString("name")), rs.getLong("id"));
+            categoryIds.add(rs.getLong("id"));
+        });
+
+        Set<String> knownNames = new HashSet<>();
+        jdbcTemplate.query("SELECT name FROM products", rs -> {
+            knownNames.add(normalize(rs.getString("name")));
+        });
+
+        ImportResult result = new ImportResult();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        List<String> record;
+
+        while ((record = reader.readRecord()) != null) {
+            if (isBlank(record)) {
+                continue;
+            }
+            result.rowsRead++;
+            long line = reader.getLineNumber();
+            try {
+                Object[] row = toRow(record, columns, categoriesByName, categoryIds);
+                String key = normalize((String) row[0]);
+                if (!knownNames.add(key)) {
+                    throw new IllegalArgumentException("Product with name '" + row[0] + "' already exists.");
+                }
+                batch.add(row);
+            } catch (IllegalArgumentException e) {
+                result.addError(line, e.getMessage(), maxReportedErrors);
+                continue;
+            }
+
+            if (batch.size() >= batchSize) {
+                flush(batch, result, listener);
+            }
+        }
+        flush(batch, result, listener);
+
+        System.out.println("Product import finished: " + result);
+        return result;
+    }
+
+    /**
+     * Inserts the pending batch in a single transaction and notifies the listener.
+     */
+    private void flush(List<Object[]> batch, ImportResult result, ProgressListener listener) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int[] argTypes = {Types.VARCHAR, Types.VARCHAR, Types.DOUBLE, Types.INTEGER, Types.INTEGER, Types.BIGINT};
+        transactionTemplate.executeWithoutResult(status -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, argTypes);
+            stockLedgerService.recordImportedProducts(maxId != null ? maxId : 0L);
+        });
+        result.imported += batch.size();
+        batch.clear();
+
+        if (listener != null) {
+            listener.onProgress(result);
+        }
+    }
+
+    /**
+     * Resolves header names to column positions. Unknown columns are ignored.
+     */
+    private Map<String, Integer> mapHeader(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "").replace(" ", "");
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1); // Strip UTF-8 BOM written by spreadsheet exports
+            }
+            columns.putIfAbsent(name, i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price") || !columns.containsKey("category")) {
+            throw new IllegalArgumentException("CSV header must contain at least 'name', 'price' and 'category' columns.");
+        }
+        return columns;
+    }
+
+    /**
+     * Validates a CSV record and converts it into insert parameters.
+     * Applies the same rules as ProductService.saveProduct.
+     */
+    private Object[] toRow(List<String> record, Map<String, Integer> columns,
+                           Map<String, Long> categoriesByName, Set<Long> categoryIds) {
+        String name = field(record, columns, "name");
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Product name cannot be empty.");
+        }
+        String description = field(record, columns, "description");
+
+        double price = parseDouble(field(record, columns, "price"), "price");
+        if (price < 0) {
+            throw new IllegalArgumentException("Price cannot be negative.");
+        }
+        int quantity = parseInt(field(record, columns, "quantity"), "quantity");
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity cannot be negative.");
+        }
+        int minStockLevel = parseInt(field(record, columns, "minstocklevel"), "minStockLevel");
+        if (minStockLevel < 0) {
+            throw new IllegalArgumentException("Minimum stock level cannot be negative.");
+        }
+
+        String categoryValue = field(record, columns, "category");
+        if (categoryValue == null || categoryValue.isEmpty()) {
+            throw new IllegalArgumentException("Product must have a category selected.");
+        }
+        Long categoryId = categoriesByName.get(normalize(categoryValue));
+        if (categoryId == null && categoryValue.chars().allMatch(Character::isDigit)) {
+            Long id = Long.valueOf(categoryValue);
+            categoryId = categoryIds.contains(id) ? id : null;
+        }
+        if (categoryId == null) {
+            throw new IllegalArgumentException("Category not found: " + categoryValue);
+        }
+
+        return new Object[]{name, description, price, quantity, minStockLevel, categoryId};
+    }
+
+    private String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private double parseDouble(String value, String column) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing value for '" + column + "'.");
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for '" + column + "': " + value);
+        }
+    }
+
+    private int parseInt(String value, String column) {
+        if (value == null) {
+            return 0; // quantity and minStockLevel default to 0, as in the product form
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid whole number for '" + column + "': " + value);
+        }
+    }
+
+    private boolean isBlank(List<String> record) {
+        return record.stream().allMatch(value -> value.trim().isEmpty());
+    }
+
+    private static String normalize(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Summary of a CSV import: row counts and (up to a limit) the errors of rejected rows.
+     */
+    public static class ImportResult {
+        private long rowsRead;
+        private long imported;
+        private long rejected;
+        private boolean errorsTruncated;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void addError(long line, String message, int maxErrors) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+
+        // Getters
+        public long getRowsRead() { return rowsRead; }
+        public long getImported() { return imported; }
+        public long getRejected() { return rejected; }
+        public boolean isErrorsTruncated() { return errorsTruncated; }
+        public List<RowError> getErrors() { return errors; }
+
+        @Override
+        public String toString() {
+            return "ImportResult{" +
+                    "rowsRead=" + rowsRead +
+                    ", imported=" + imported +
+                    ", rejected=" + rejected +
+                    '}';
+        }
+    }
+
+    /**
+     * A rejected CSV row: the line it started on and why it was rejected.
+     */
+    public static class RowError {
+        private final long line;
+        private final String message;
+
+        public RowError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() { return line; }
+        public String getMessage() { return message; }
+    }
+}
@@ -26,6 +26,9 @@ public class ProductService {
     @Autowired
     private CategoryRepository categoryRepository; // Autowire CategoryRepository
 
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
     /**
      * Retrieves all products from the database.
      * @return A list of all Product entities.
@@ -46,6 +49,8 @@ public class ProductService {
     /**
      * Saves a new product or updates an existing one.
      * Includes validation for name uniqueness and category existence.
+     * Names are unique ignoring case and surrounding whitespace: "Soda" and " soda " are duplicates,
+     * "Soda" and "Soda Water" are not. The name is saved trimmed. ProductImportService applies the same rule.
      * @param product The product object to save. If it has an ID, it will be updated.
      * @return The saved or updated Product entity.
      * @throws IllegalArgumentException if product name is empty, already exists,
@@ -57,8 +62,10 @@ public class ProductService {
             throw new IllegalArgumentException("Product name cannot be empty.");
         }
 
+        product.setName(product.getName().trim());
+
         // Check for duplicate name for new products or if name is changed for existing ones
-        Optional<Product> existingProductByName = productRepository.findByNameContainingIgnoreCase(product.getName()).stream()
+        Optional<Product> existingProductByName = productRepository.findByNameIgnoreCase(product.getName()).stream()
                 .filter(p -> (product.getId() == null || !p.getId().equals(product.getId()))) // Exclude self if updating
                 .findFirst();
 
@@ -85,7 +92,17 @@ public class ProductService {
             throw new IllegalArgumentException("Minimum stock level cannot be negative.");
         }
 
-        return productRepository.save(product);
+        // Quantity edits from the product form are recorded in the stock ledger as corrections
+        boolean isNew = product.getId() == null;
+        if (!isNew) {
+            productRepository.findByIdForUpdate(product.getId()); // No checkout may change the stock between here and commit
+        }
+        int delta = isNew ? product.getQuantity() : product.getQuantity() - stockLedgerService.getCurrentQuantity(product.getId());
+
+        Product savedProduct = productRepository.save(product);
+        stockLedgerService.record(savedProduct.getId(), delta,
+                isNew ? StockLedgerService.MovementType.OPENING : StockLedgerService.MovementType.CORRECTION, null);
+        return savedProduct;
     }
 
     /**
@@ -124,6 +141,7 @@ public class ProductService {
      * Retrieves products that are currently at or below their minimum stock level.
      * @return A list of low stock products.
      */
+    @Transactional(readOnly = true)
     public List<Product> getLowStockProducts() {
         return productRepository.findByQuantityLessThanEqual(0); // Assuming minStockLevel can be 0 or check against actual minStockLevel
         // Corrected to use quantity <= minStockLevel directly in DB
@@ -133,6 +151,7 @@ public class ProductService {
      * Retrieves the total count of all products.
      * @return The total number of products.
      */
+    @Transactional(readOnly = true)
     public long getTotalProductCount() {
         return productRepository.count();
     }
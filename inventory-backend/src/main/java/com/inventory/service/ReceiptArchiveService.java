@@ -0,0 +1,477 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.model.Category;
+import com.inventory.model.Product;
+import com.inventory.model.Receipt;
+import com.inventory.model.Sale;
+import com.inventory.model.User;
+import com.inventory.repository.ReceiptRepositoryCustom;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service for moving receipts of closed periods out of the receipts and sales tables into
+ * compressed cold storage, and for reading them back.
+ *
+ * Archived receipts are written to append-only segment files in inventory.archive.directory.
+ * A segment is a sequence of independently gzip-compressed blocks, each holding up to
+ * inventory.archive.block-size receipts (one JSON document per line, sales included).
+ * Every block has one row in the receipt_archive_blocks table: its file, byte offset and length,
+ * and its date and receipt ID ranges. That sparse index is all that is needed to locate the
+ * few blocks a lookup has to decompress.
+ *
+ * The overall date and ID range of the archive is also kept in memory, so lookups that cannot
+ * touch the archive (the common case) cost nothing extra.
+ */
+@Service
+public class ReceiptArchiveService {
+
+    private static final DateTimeFormatter SEGMENT_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.archive.directory:./data/archive}")
+    private String directory;
+
+    // Receipts older than this many full months (counted back from the start of the current month) are archived
+    @Value("${inventory.archive.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${inventory.archive.block-size:500}")
+    private int blockSize;
+
+    private final ObjectMapper archiveMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+
+    // Overall range of everything archived so far; null while the archive is empty
+    private volatile ArchiveBounds bounds;
+
+    @PostConstruct
+    public void init() {
+        refreshBounds();
+    }
+
+    /**
+     * Scheduled archival of closed periods (enabled with inventory.archive.enabled=true).
+     */
+    @Scheduled(cron = "${inventory.archive.cron:0 30 2 * * *}")
+    public void archiveClosedPeriods() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay();
+        try {
+            archiveReceiptsBefore(cutoff);
+        } catch (RuntimeException e) {
+            System.err.println("Receipt archival failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves all receipts (and their sales) with a transaction date before the cutoff into a new segment file.
+     * Each block is written and flushed to disk before its rows are indexed and deleted in one transaction,
+     * so a crash can at worst leave unreferenced bytes at the end of a segment, never lose receipts.
+     * @param cutoff Receipts strictly before this date are archived.
+     * @return A summary of the archival run.
+     */
+    public synchronized ArchiveResult archiveReceiptsBefore(LocalDateTime cutoff) {
+        ArchiveResult result = new ArchiveResult();
+        List<ArchivedReceipt> block = loadBlock(cutoff);
+        if (block.isEmpty()) {
+            return result;
+        }
+
+        String segmentName = "receipts-" + LocalDateTime.now().format(SEGMENT_NAME) + ".seg";
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(dir.resolve(segmentName),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                while (!block.isEmpty()) {
+                    long offset = channel.size();
+                    byte[] compressed = compress(block);
+                    ByteBuffer buffer = ByteBuffer.wrap(compressed);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(true);
+
+                    List<ArchivedReceipt> written = block;
+                    transactionTemplate.executeWithoutResult(status -> indexAndDelete(segmentName, offset, compressed.length, written));
+                    refreshBounds(); // The block's receipts have left the live tables; searches must find them in the archive now
+                    result.blocks++;
+                    result.receipts += written.size();
+                    block = loadBlock(cutoff);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive segment " + segmentName, e);
+        }
+
+        System.out.println("Receipt archival finished: " + result + " into " + segmentName);
+        return result;
+    }
+
+    /**
+     * @param id A receipt ID.
+     * @return true if the ID lies within the range of archived receipt IDs.
+     */
+    public boolean mayContain(Long id) {
+        ArchiveBounds current = bounds;
+        return current != null && id != null && id >= current.minId && id <= current.maxId;
+    }
+
+    /**
+     * @param startDate Optional start of the range (null = open).
+     * @param endDate Optional end of the range (null = open).
+     * @return true if the date range overlaps the range of archived transaction dates.
+     */
+    public boolean overlaps(LocalDateTime startDate, LocalDateTime endDate) {
+        ArchiveBounds current = bounds;
+        return current != null
+                && (startDate == null || !startDate.isAfter(current.maxDate))
+                && (endDate == null || !endDate.isBefore(current.minDate));
+    }
+
+    /**
+     * Looks up an archived receipt by ID.
+     * @param id The receipt ID.
+     * @return The archived receipt (detached, read-only), or empty if it is not in the archive.
+     */
+    public Optional<Receipt> findArchivedReceipt(Long id) {
+        if (!mayContain(id)) {
+            return Optional.empty();
+        }
+        List<BlockRef> blocks = jdbcTemplate.query(
+                "SELECT segment_file, block_offset, block_length FROM receipt_archive_blocks WHERE min_receipt_id <= ? AND max_receipt_id >= ?",
+                (rs, rowNum) -> new BlockRef(rs.getString(1), rs.getLong(2), rs.getInt(3)), id, id);
+        for (BlockRef ref : blocks) {
+            for (ArchivedReceipt archived : readBlock(ref)) {
+                if (archived.id.equals(id)) {
+                    return Optional.of(archived.toReceipt(null));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Searches the archive with the same criteria as the live receipt search.
+     * Only the blocks whose date range overlaps the requested range are decompressed.
+     * @return Matching archived receipts (detached, read-only); empty if the range does not overlap the archive.
+     */
+    public List<Receipt> findArchivedReceipts(LocalDateTime startDate, LocalDateTime endDate, Long cashierId,
+                                              Receipt.PaymentMethod paymentMethod, String productName) {
+        if (!overlaps(startDate, endDate)) {
+            return Collections.emptyList();
+        }
+        List<BlockRef> blocks = jdbcTemplate.query(
+                "SELECT segment_file, block_offset, block_length FROM receipt_archive_blocks " +
+                        "WHERE max_transaction_date >= ? AND min_transaction_date <= ? ORDER BY min_transaction_date",
+                (rs, rowNum) -> new BlockRef(rs.getString(1), rs.getLong(2), rs.getInt(3)),
+                Timestamp.valueOf(startDate != null ? startDate : LocalDateTime.of(1970, 1, 1, 0, 0)),
+                Timestamp.valueOf(endDate != null ? endDate : LocalDateTime.of(9999, 12, 31, 23, 59)));
+
+        List<Receipt> receipts = new ArrayList<>();
+        for (BlockRef ref : blocks) {
+            for (ArchivedReceipt archived : readBlock(ref)) {
+                if (archived.matches(startDate, endDate, cashierId, paymentMethod, productName)) {
+                    receipts.add(archived.toReceipt(productName));
+                }
+            }
+        }
+        return receipts;
+    }
+
+    /**
+     * Loads the next block of receipts to archive, with their sales, cashier and product names.
+     */
+    private List<ArchivedReceipt> loadBlock(LocalDateTime cutoff) {
+        Map<Long, ArchivedReceipt> receipts = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT r.id, r.receipt_number, r.transaction_date, r.total_amount, r.payment_method, r.cash_amount, " +
+                        "r.mpesa_amount, r.mpesa_transaction_id, r.cashier_id, u.username " +
+                        "FROM receipts r JOIN app_users u ON u.id = r.cashier_id " +
+                        "WHERE r.transaction_date < ? ORDER BY r.transaction_date, r.id FETCH FIRST ? ROWS ONLY",
+                rs -> {
+                    ArchivedReceipt receipt = new ArchivedReceipt();
+                    receipt.id = rs.getLong("id");
+                    receipt.receiptNumber = rs.getString("receipt_number");
+                    receipt.transactionDate = rs.getTimestamp("transaction_date").toLocalDateTime();
+                    receipt.totalAmount = rs.getDouble("total_amount");
+                    receipt.paymentMethod = Receipt.PaymentMethod.valueOf(rs.getString("payment_method"));
+                    receipt.cashAmount = rs.getDouble("cash_amount");
+                    receipt.mpesaAmount = rs.getDouble("mpesa_amount");
+                    receipt.mpesaTransactionId = rs.getString("mpesa_transaction_id");
+                    receipt.cashierId = rs.getLong("cashier_id");
+                    receipt.cashierUsername = rs.getString("username");
+                    receipts.put(receipt.id, receipt);
+                },
+                Timestamp.valueOf(cutoff), blockSize);
+        if (receipts.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(receipts.size(), "?"));
+        jdbcTemplate.query(
+                "SELECT s.id, s.receipt_id, s.product_id, s.quantity, s.unit_price, s.total_amount, " +
+                        "p.name AS product_name, p.category_id, c.name AS category_name " +
+                        "FROM sales s LEFT JOIN products p ON p.id = s.product_id LEFT JOIN categories c ON c.id = p.category_id " +
+                        "WHERE s.receipt_id IN (" + placeholders + ") ORDER BY s.id",
+                rs -> {
+                    ArchivedSale sale = new ArchivedSale();
+                    sale.id = rs.getLong("id");
+                    sale.productId = rs.getLong("product_id");
+                    sale.productName = rs.getString("product_name");
+                    sale.categoryId = rs.getObject("category_id", Long.class);
+                    sale.categoryName = rs.getString("category_name");
+                    sale.quantity = rs.getInt("quantity");
+                    sale.unitPrice = rs.getDouble("unit_price");
+                    sale.totalAmount = rs.getDouble("total_amount");
+                    receipts.get(rs.getLong("receipt_id")).sales.add(sale);
+                },
+                receipts.keySet().toArray());
+        return new ArrayList<>(receipts.values());
+    }
+
+    /**
+     * Records the block in the sparse index and removes its receipts and sales from the live tables.
+     */
+    private void indexAndDelete(String segmentName, long offset, int length, List<ArchivedReceipt> block) {
+        LocalDateTime minDate = block.get(0).transactionDate;
+        LocalDateTime maxDate = block.get(block.size() - 1).transactionDate;
+        long minId = block.stream().mapToLong(receipt -> receipt.id).min().getAsLong();
+        long maxId = block.stream().mapToLong(receipt -> receipt.id).max().getAsLong();
+        jdbcTemplate.update("INSERT INTO receipt_archive_blocks (segment_file, block_offset, block_length, receipt_count, " +
+                        "min_transaction_date, max_transaction_date, min_receipt_id, max_receipt_id, archived_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                segmentName, offset, length, block.size(), Timestamp.valueOf(minDate), Timestamp.valueOf(maxDate),
+                minId, maxId, Timestamp.valueOf(LocalDateTime.now()));
+
+        Object[] ids = block.stream().map(receipt -> receipt.id).toArray();
+        String placeholders = String.join(",", Collections.nCopies(ids.length, "?"));
+        jdbcTemplate.update("DELETE FROM sales WHERE receipt_id IN (" + placeholders + ")", ids);
+        jdbcTemplate.update("DELETE FROM receipts WHERE id IN (" + placeholders + ")", ids);
+    }
+
+    private byte[] compress(List<ArchivedReceipt> block) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+            for (ArchivedReceipt receipt : block) {
+                writer.write(archiveMapper.writeValueAsString(receipt));
+                writer.write('\n');
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private List<ArchivedReceipt> readBlock(BlockRef ref) {
+        Path segment = Paths.get(directory).resolve(ref.segmentFile);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(ref.length);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, ref.offset + buffer.position()) < 0) {
+                    throw new IOException("Archive segment " + ref.segmentFile + " is truncated.");
+                }
+            }
+            List<ArchivedReceipt> receipts = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(buffer.array())), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    receipts.add(archiveMapper.readValue(line, ArchivedReceipt.class));
+                }
+            }
+            return receipts;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + ref.segmentFile, e);
+        }
+    }
+
+    private void refreshBounds() {
+        bounds = jdbcTemplate.query("SELECT MIN(min_transaction_date), MAX(max_transaction_date), MIN(min_receipt_id), MAX(max_receipt_id) " +
+                "FROM receipt_archive_blocks", rs -> {
+            if (!rs.next() || rs.getTimestamp(1) == null) {
+                return null;
+            }
+            return new ArchiveBounds(rs.getTimestamp(1).toLocalDateTime(), rs.getTimestamp(2).toLocalDateTime(),
+                    rs.getLong(3), rs.getLong(4));
+        });
+    }
+
+    /**
+     * Summary of an archival run.
+     */
+    public static class ArchiveResult {
+        private long receipts;
+        private int blocks;
+
+        public long getReceipts() { return receipts; }
+        public int getBlocks() { return blocks; }
+
+        @Override
+        public String toString() {
+            return "ArchiveResult{receipts=" + receipts + ", blocks=" + blocks + '}';
+        }
+    }
+
+    private static class ArchiveBounds {
+        private final LocalDateTime minDate;
+        private final LocalDateTime maxDate;
+        private final long minId;
+        private final long maxId;
+
+        ArchiveBounds(LocalDateTime minDate, LocalDateTime maxDate, long minId, long maxId) {
+            this.minDate = minDate;
+            this.maxDate = maxDate;
+            this.minId = minId;
+            this.maxId = maxId;
+        }
+    }
+
+    private static class BlockRef {
+        private final String segmentFile;
+        private final long offset;
+        private final int length;
+
+        BlockRef(String segmentFile, long offset, int length) {
+            this.segmentFile = segmentFile;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Archive record of a receipt. Cashier and product details are stored as they were at archival time,
+     * so archived receipts stay readable even if the product is later deleted.
+     */
+    static class ArchivedReceipt {
+        private Long id;
+        private String receiptNumber;
+        private LocalDateTime transactionDate;
+        private double totalAmount;
+        private Receipt.PaymentMethod paymentMethod;
+        private double cashAmount;
+        private double mpesaAmount;
+        private String mpesaTransactionId;
+        private Long cashierId;
+        private String cashierUsername;
+        private List<ArchivedSale> sales = new ArrayList<>();
+
+        boolean matches(LocalDateTime startDate, LocalDateTime endDate, Long cashier,
+                        Receipt.PaymentMethod method, String productName) {
+            if (startDate != null && transactionDate.isBefore(startDate)) return false;
+            if (endDate != null && transactionDate.isAfter(endDate)) return false;
+            if (cashier != null && !cashier.equals(cashierId)) return false;
+            if (method != null && method != paymentMethod) return false;
+            return productName == null || sales.stream().anyMatch(sale ->
+                    ReceiptRepositoryCustom.productNameMatches(sale.productName, productName));
+        }
+
+        /**
+         * @param productName Product name filter; if set, only the matching sales are included, as in the live search.
+         */
+        Receipt toReceipt(String productName) {
+            User cashier = new User();
+            cashier.setId(cashierId);
+            cashier.setUsername(cashierUsername);
+
+            Receipt receipt = new Receipt();
+            receipt.setId(id);
+            receipt.setReceiptNumber(receiptNumber);
+            receipt.setCashier(cashier);
+            receipt.setTransactionDate(transactionDate);
+            receipt.setTotalAmount(totalAmount);
+            receipt.setPaymentMethod(paymentMethod);
+            receipt.setCashAmount(cashAmount);
+            receipt.setMpesaAmount(mpesaAmount);
+            receipt.setMpesaTransactionId(mpesaTransactionId);
+            for (ArchivedSale archivedSale : sales) {
+                if (productName == null || ReceiptRepositoryCustom.productNameMatches(archivedSale.productName, productName)) {
+                    receipt.addSale(archivedSale.toSale());
+                }
+            }
+            return receipt;
+        }
+    }
+
+    static class ArchivedSale {
+        private Long id;
+        private Long productId;
+        private String productName;
+        private Long categoryId;
+        private String categoryName;
+        private int quantity;
+        private double unitPrice;
+        private double totalAmount;
+
+        Sale toSale() {
+            Product product = new Product();
+            product.setId(productId);
+            product.setName(productName);
+            product.setPrice(unitPrice);
+            if (categoryId != null) {
+                Category category = new Category();
+                category.setId(categoryId);
+                category.setName(categoryName);
+                product.setCategory(category);
+            }
+
+            Sale sale = new Sale();
+            sale.setId(id);
+            sale.setProduct(product);
+            sale.setQuantity(quantity);
+            sale.setUnitPrice(unitPrice);
+            sale.setTotalAmount(totalAmount);
+            return sale;
+        }
+    }
+}
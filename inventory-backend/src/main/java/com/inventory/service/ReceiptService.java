@@ -12,18 +12,37 @@ import com.inventory.service.exception.InsufficientStockException;
 import com.inventory.service.exception.ProductNotFoundException;
 import com.inventory.service.exception.ReceiptNotFoundException; // NEW: Import for ReceiptNotFoundException
 import com.inventory.service.exception.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional; // RE-ADDED: Used for Optional return types
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing sales receipts and related operations.
+ * Checkout and receipt deletion lock the rows of the products they change (see ProductRepository.findAllByIdForUpdate),
+ * so concurrent checkouts cannot oversell or lose each other's stock updates.
+ * Checkout (recordBatchSale) records the time of each phase as inventory.checkout.phase:
+ * validation, stock_update (including the flush that sends the stock updates to the database), insert
+ * and commit (flush of anything still pending and commit of the transaction).
  */
 @Service
 public class ReceiptService {
@@ -32,14 +51,39 @@ public class ReceiptService {
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final SalesRepository salesRepository;
+    private final ReceiptArchiveService receiptArchiveService;
+    private final StockLedgerService stockLedgerService;
+    private final Timer validationTimer;
+    private final Timer stockUpdateTimer;
+    private final Timer insertTimer;
+    private final Timer commitTimer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     public ReceiptService(ReceiptRepository receiptRepository, ProductRepository productRepository,
-                          UserRepository userRepository, SalesRepository salesRepository) {
+                          UserRepository userRepository, SalesRepository salesRepository,
+                          ReceiptArchiveService receiptArchiveService, StockLedgerService stockLedgerService,
+                          MeterRegistry meterRegistry) {
         this.receiptRepository = receiptRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.salesRepository = salesRepository;
+        this.receiptArchiveService = receiptArchiveService;
+        this.stockLedgerService = stockLedgerService;
+        this.validationTimer = checkoutPhaseTimer(meterRegistry, "validation");
+        this.stockUpdateTimer = checkoutPhaseTimer(meterRegistry, "stock_update");
+        this.insertTimer = checkoutPhaseTimer(meterRegistry, "insert");
+        this.commitTimer = checkoutPhaseTimer(meterRegistry, "commit");
+    }
+
+    private static Timer checkoutPhaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("inventory.checkout.phase")
+                .description("Time spent in each phase of recording a batch sale")
+                .tag("phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
     /**
@@ -55,14 +99,18 @@ public class ReceiptService {
      */
     @Transactional
     public Receipt recordBatchSale(RecordReceiptRequest request, String cashierUsername) throws UserNotFoundException, ProductNotFoundException, InsufficientStockException {
+        long phaseStart = System.nanoTime();
         User cashier = userRepository.findByUsername(cashierUsername)
                 .orElseThrow(() -> new UserNotFoundException("Cashier not found: " + cashierUsername));
 
-        // 1. Calculate total amount and validate stock
+        // 1. Lock the products, then calculate total amount and validate stock
+        Map<Long, Product> products = lockProducts(request.getSaleItems().stream().map(RecordSaleItem::getProductId));
         double totalAmount = 0.0;
         for (RecordSaleItem item : request.getSaleItems()) {
-            Product product = productRepository.findById(item.getProductId())
-                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + item.getProductId()));
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException("Product not found with ID: " + item.getProductId());
+            }
 
             if (product.getQuantity() < item.getQuantity()) {
                 throw new InsufficientStockException("Insufficient stock for product " + product.getName() +
@@ -70,6 +118,7 @@ public class ReceiptService {
             }
             totalAmount += product.getPrice() * item.getQuantity();
         }
+        phaseStart = recordPhase(validationTimer, phaseStart);
 
         // 2. Create Receipt
         String receiptNumber = "R" + System.currentTimeMillis() + UUID.randomUUID().toString().substring(0, 5);
@@ -78,20 +127,75 @@ public class ReceiptService {
 
         // 3. Create Sale items and update product stock
         for (RecordSaleItem item : request.getSaleItems()) {
-            Product product = productRepository.findById(item.getProductId()).get(); // Already checked for existence
+            Product product = products.get(item.getProductId()); // Already checked for existence
             Sale sale = new Sale(product, item.getQuantity(), product.getPrice());
             receipt.addSale(sale); // Add sale to receipt and link them bidirectionally
 
             product.setQuantity(product.getQuantity() - item.getQuantity()); // Deduct stock
             productRepository.save(product); // Save updated product stock
         }
+        entityManager.flush(); // The UPDATEs run here, so the phase times them rather than the setters
+        phaseStart = recordPhase(stockUpdateTimer, phaseStart);
 
-        return receiptRepository.save(receipt); // Save the receipt (cascades to sales)
+        Receipt savedReceipt = receiptRepository.save(receipt); // Save the receipt (cascades to sales)
+        for (RecordSaleItem item : request.getSaleItems()) {
+            stockLedgerService.record(item.getProductId(), -item.getQuantity(), StockLedgerService.MovementType.SALE, savedReceipt.getId());
+        }
+        recordPhase(insertTimer, phaseStart);
+        timeCommit();
+        return savedReceipt;
+    }
+
+    /**
+     * Loads and row-locks the given products for the rest of the transaction, in ascending ID order
+     * (see ProductRepository.findAllByIdForUpdate).
+     * @return The products found, by ID.
+     */
+    private Map<Long, Product> lockProducts(Stream<Long> productIds) {
+        Set<Long> ids = productIds.filter(Objects::nonNull).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Product> products = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Product product : productRepository.findAllByIdForUpdate(ids)) {
+                products.put(product.getId(), product);
+            }
+        }
+        return products;
+    }
+
+    private static long recordPhase(Timer timer, long phaseStart) {
+        long now = System.nanoTime();
+        timer.record(now - phaseStart, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Records the time from the start of the commit (including the flush of pending inserts and updates)
+     * until the transaction has committed.
+     */
+    private void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStart;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStart = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                commitTimer.record(System.nanoTime() - commitStart, TimeUnit.NANOSECONDS);
+            }
+        });
     }
 
     /**
      * Retrieves a list of receipts, optionally filtered by date range, cashier, payment method, or product name.
-     * This method now uses a custom repository query to eagerly fetch associated sales and products.
+     * This method uses a custom repository query that eagerly fetches associated sales and products
+     * and only filters on the criteria supplied, so the receipt indexes can be used.
+     * Archived receipts are included only when the date range overlaps the archive.
      *
      * @param startDate Optional start date for filtering.
      * @param endDate Optional end date for filtering.
@@ -106,20 +210,29 @@ public class ReceiptService {
             Long cashierId,
             Receipt.PaymentMethod paymentMethod,
             String productName) {
-        return receiptRepository.findFilteredReceiptsWithSalesAndProduct(
+        List<Receipt> receipts = receiptRepository.findFilteredReceipts(
                 startDate, endDate, cashierId, paymentMethod, productName
         );
+        if (receiptArchiveService.overlaps(startDate, endDate)) {
+            receipts = new ArrayList<>(receipts);
+            receipts.addAll(receiptArchiveService.findArchivedReceipts(startDate, endDate, cashierId, paymentMethod, productName));
+        }
+        return receipts;
     }
 
     /**
-     * Retrieves a single receipt by its ID.
+     * Retrieves a single receipt by its ID, falling back to the archive if the ID lies in its range.
      * @param id The ID of the receipt to retrieve.
      * @return An Optional containing the Receipt if found, or empty if not found.
      */
     @Transactional(readOnly = true)
     public Optional<Receipt> getReceiptById(Long id) {
         // This query also eager fetches sales and cashier to prevent lazy initialization issues
-        return receiptRepository.findReceiptByIdWithSalesAndCashier(id);
+        Optional<Receipt> receipt = receiptRepository.findReceiptByIdWithSalesAndCashier(id);
+        if (receipt.isEmpty() && receiptArchiveService.mayContain(id)) {
+            return receiptArchiveService.findArchivedReceipt(id);
+        }
+        return receipt;
     }
 
     /**
@@ -135,13 +248,17 @@ public class ReceiptService {
         Receipt receipt = receiptRepository.findReceiptByIdWithSalesAndCashier(id)
                 .orElseThrow(() -> new ReceiptNotFoundException("Receipt not found with ID: " + id));
 
-        // Return product quantities to stock
+        // Return product quantities to stock, locking the products as a checkout does
         if (receipt.getSales() != null) {
+            Map<Long, Product> products = lockProducts(receipt.getSales().stream().map(sale -> sale.getProduct().getId()));
             for (Sale sale : receipt.getSales()) {
-                Product product = productRepository.findById(sale.getProduct().getId())
-                        .orElseThrow(() -> new ProductNotFoundException("Product not found for sale item with ID: " + sale.getProduct().getId()));
+                Product product = products.get(sale.getProduct().getId());
+                if (product == null) {
+                    throw new ProductNotFoundException("Product not found for sale item with ID: " + sale.getProduct().getId());
+                }
                 product.setQuantity(product.getQuantity() + sale.getQuantity());
                 productRepository.save(product);
+                stockLedgerService.record(product.getId(), sale.getQuantity(), StockLedgerService.MovementType.REFUND, receipt.getId());
             }
         }
         receiptRepository.delete(receipt);
@@ -0,0 +1,198 @@
+package com.inventory.service;
+
+import com.inventory.model.RefreshToken;
+import com.inventory.model.User;
+import com.inventory.repository.RefreshTokenRepository;
+import com.inventory.repository.UserRepository;
+import com.inventory.service.exception.InvalidRefreshTokenException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service for issuing and rotating refresh tokens.
+ *
+ * Refresh tokens are random 256-bit values; only their SHA-256 hash is stored, so a database leak
+ * does not expose usable tokens. Hashing with SHA-256 instead of BCrypt is safe here because the
+ * tokens have full entropy, and it keeps /api/auth/refresh free of password hashing.
+ * Each refresh revokes the presented token and issues a new one in the same family; if a revoked
+ * token is presented again, the whole family is revoked, forcing a new login.
+ * Each row also records the ID (jti) of the access token issued with it, so the access tokens that are
+ * still valid can be revoked along with the refresh tokens (see TokenRevocationService).
+ */
+@Service
+public class RefreshTokenService {
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Access token validity in milliseconds
+    @Value("${jwt.expiration}")
+    private long accessExpiration;
+
+    // Refresh token validity in milliseconds
+    @Value("${jwt.refresh-expiration:86400000}")
+    private long refreshExpiration;
+
+    /**
+     * Issues a refresh token for a user who just logged in (starts a new token family).
+     * @param userId The ID of the authenticated user (referenced, not loaded).
+     * @param accessTokenId The ID (jti) of the access token issued with it.
+     * @return The raw refresh token, to be returned to the client once.
+     */
+    @Transactional
+    public String issue(Long userId, String accessTokenId) {
+        return issue(userRepository.getReferenceById(userId), UUID.randomUUID().toString(), accessTokenId);
+    }
+
+    /**
+     * Exchanges a refresh token for a new one.
+     * @param rawToken The refresh token presented by the client.
+     * @param accessTokenId The ID (jti) of the access token issued with the new refresh token.
+     * @return The user and the new raw refresh token.
+     * @throws InvalidRefreshTokenException If the token is unknown, expired or was already used.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken, String accessTokenId) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            throw new InvalidRefreshTokenException("Refresh token is missing.");
+        }
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token."));
+
+        if (token.isExpired()) {
+            throw new InvalidRefreshTokenException("Refresh token has expired.");
+        }
+        // Conditional update, so two concurrent refreshes with the same token cannot both succeed
+        boolean rotated = !token.isRevoked() && refreshTokenRepository.markUsed(token.getId(), LocalDateTime.now()) == 1;
+        if (!rotated) {
+            // A rotated token was used again: either the client retried or the token was stolen.
+            // Revoke the whole family so neither party can continue with it.
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now());
+            revokeAccessTokens(refreshTokenRepository.findWithLiveAccessTokenByFamilyId(token.getFamilyId(), LocalDateTime.now()));
+            System.err.println("Refresh token reuse detected for user '" + token.getUser().getUsername() + "'; token family revoked.");
+            throw new InvalidRefreshTokenException("Refresh token has already been used.");
+        }
+
+        String newToken = issue(token.getUser(), token.getFamilyId(), accessTokenId);
+        return new Rotation(token.getUser(), newToken);
+    }
+
+    /**
+     * Revokes the family of a refresh token and the access tokens issued with it (logout). Unknown tokens are ignored.
+     * @param rawToken The refresh token presented by the client.
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isEmpty()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken)).ifPresent(token -> {
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now());
+            revokeAccessTokens(refreshTokenRepository.findWithLiveAccessTokenByFamilyId(token.getFamilyId(), LocalDateTime.now()));
+        });
+    }
+
+    /**
+     * Ends all sessions of a user (e.g. when their roles change): revokes their refresh tokens and
+     * the access tokens that are still valid, so the user has to log in again.
+     * @param userId The user ID.
+     */
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        revokeAccessTokens(refreshTokenRepository.findWithLiveAccessTokenByUserId(userId, LocalDateTime.now()));
+        refreshTokenRepository.revokeByUserId(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Removes all refresh tokens of a user and revokes their access tokens (e.g. when the user is deleted).
+     * @param userId The user ID.
+     */
+    @Transactional
+    public void deleteAllForUser(Long userId) {
+        revokeAccessTokens(refreshTokenRepository.findWithLiveAccessTokenByUserId(userId, LocalDateTime.now()));
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Deletes refresh tokens that expired more than a day ago. Runs daily.
+     */
+    @Scheduled(cron = "${jwt.refresh-cleanup-cron:0 15 3 * * *}")
+    @Transactional
+    public void deleteExpiredTokens() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now().minusDays(1));
+        if (deleted > 0) {
+            System.out.println("Deleted " + deleted + " expired refresh tokens.");
+        }
+    }
+
+    /**
+     * @return Refresh token validity in milliseconds.
+     */
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    private String issue(User user, String familyId, String accessTokenId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusNanos(refreshExpiration * 1_000_000L);
+        // The access token was signed just before this, so this is never earlier than its exp claim
+        LocalDateTime accessExpiresAt = now.plusNanos(accessExpiration * 1_000_000L);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), user, familyId, expiresAt, accessTokenId, accessExpiresAt));
+        return rawToken;
+    }
+
+    private void revokeAccessTokens(List<RefreshToken> tokens) {
+        for (RefreshToken token : tokens) {
+            tokenRevocationService.revoke(token.getAccessTokenId(), token.getAccessExpiresAt());
+        }
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Result of a refresh: the token owner and the replacement refresh token.
+     */
+    public static class Rotation {
+        private final User user;
+        private final String refreshToken;
+
+        public Rotation(User user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public User getUser() { return user; }
+        public String getRefreshToken() { return refreshToken; }
+    }
+}
@@ -28,12 +28,15 @@ public class SalesService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
     // This method is now likely deprecated by the new ReceiptService's recordBatchSale,
     // but kept for compatibility if old endpoints still call it directly.
     // In a POS system, individual sales are typically part of a larger Receipt.
     @Transactional
     public Sale recordSale(Long productId, int quantitySold) {
-        Product product = productRepository.findById(productId)
+        Product product = productRepository.findByIdForUpdate(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found with ID: " + productId));
 
         if (product.getQuantity() < quantitySold) {
@@ -53,7 +56,10 @@ public class SalesService {
         product.setQuantity(product.getQuantity() - quantitySold);
         productRepository.save(product);
 
-        return salesRepository.save(sale);
+        Sale savedSale = salesRepository.save(sale);
+        // A sale outside a receipt has no receipt to refer to
+        stockLedgerService.record(product.getId(), -quantitySold, StockLedgerService.MovementType.SALE, null);
+        return savedSale;
     }
 
     @Transactional(readOnly = true)
@@ -84,10 +90,12 @@ public class SalesService {
                 .orElseThrow(() -> new RuntimeException("Sale not found with ID: " + id));
 
         // Refund stock to the product
-        Product product = sale.getProduct();
+        Product product = sale.getProduct() != null ? productRepository.findByIdForUpdate(sale.getProduct().getId()).orElse(null) : null;
         if (product != null) {
             product.setQuantity(product.getQuantity() + sale.getQuantity());
             productRepository.save(product);
+            Long receiptId = sale.getReceipt() != null ? sale.getReceipt().getId() : null;
+            stockLedgerService.record(product.getId(), sale.getQuantity(), StockLedgerService.MovementType.REFUND, receiptId);
         }
 
         salesRepository.delete(sale);
@@ -96,9 +104,7 @@ public class SalesService {
 
     @Transactional(readOnly = true)
     public double getTotalSalesAmount() {
-        return salesRepository.findAll().stream()
-                .mapToDouble(Sale::getTotalAmount)
-                .sum();
+        return salesRepository.sumTotalAmount();
     }
 
     // REMOVED: getSalesByDateRange as Sale entity no longer has 'saleDate' field.
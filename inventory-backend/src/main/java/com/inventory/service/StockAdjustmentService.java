@@ -32,6 +32,9 @@ public class StockAdjustmentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
     /**
      * DTO for stock adjustment requests from frontend.
      * This nested class allows the API to receive a clean payload.
@@ -62,7 +65,7 @@ public class StockAdjustmentService {
      */
     @Transactional
     public StockAdjustment adjustStock(StockAdjustmentRequest request) {
-        Product product = productRepository.findById(request.getProductId())
+        Product product = productRepository.findByIdForUpdate(request.getProductId()) // Locked until commit, as at checkout
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + request.getProductId()));
 
         if (request.getReason() == null || request.getReason().trim().isEmpty()) {
@@ -122,7 +125,9 @@ public class StockAdjustmentService {
                 // adjustmentDate is set by default constructor, no need to pass it here
         );
 
-        return stockAdjustmentRepository.save(adjustment);
+        StockAdjustment savedAdjustment = stockAdjustmentRepository.save(adjustment);
+        stockLedgerService.record(product.getId(), newQuantity - currentQuantity, StockLedgerService.MovementType.ADJUSTMENT, savedAdjustment.getId());
+        return savedAdjustment;
     }
 
     /**
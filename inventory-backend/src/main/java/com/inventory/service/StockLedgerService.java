@@ -0,0 +1,238 @@
+package com.inventory.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only audit trail of stock movements.
+ *
+ * Product.quantity is the stock of record: checkout and every other stock change read and update it
+ * under a row lock on the product (see ProductRepository.findAllByIdForUpdate), so concurrent changes
+ * of the same product are serialized. Each change is also recorded here as a signed delta in
+ * stock_movements, in the same transaction, which makes the stock reconstructible and auditable.
+ * The ledger does not remove the contention on the product row; every stock change costs the
+ * row lock plus one ledger insert.
+ *
+ * Stock can be recomputed from the ledger: the latest snapshot of the product plus the movements
+ * recorded after it. Snapshots are taken periodically for every product with new movements, so a
+ * lookup only has to sum a short tail of the ledger; older snapshots are kept for point-in-time queries.
+ * verify() reports any product whose stored quantity disagrees with the ledger.
+ */
+@Service
+public class StockLedgerService {
+
+    /**
+     * Kinds of stock movement. OPENING records stock that existed before it was tracked in the ledger
+     * (including the initial quantity of a new product).
+     */
+    public enum MovementType {
+        OPENING,
+        SALE,
+        REFUND,
+        ADJUSTMENT,
+        IMPORT,
+        CORRECTION
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Snapshots only fold in movements older than this, so a transaction that is still in flight
+    // when the snapshot is taken cannot have its movement skipped
+    @Value("${inventory.stock-ledger.snapshot-safety-lag-seconds:60}")
+    private long snapshotSafetyLagSeconds;
+
+    /**
+     * Appends a movement to the ledger. Must be called in the transaction that changes the stock.
+     * @param productId The product whose stock changed.
+     * @param delta The signed change in quantity (negative for sales).
+     * @param type The kind of movement.
+     * @param referenceId What caused the movement: the receipt ID for SALE and REFUND (null for a sale outside a
+     *                    receipt), the stock adjustment ID for ADJUSTMENT, and null for the other types.
+     */
+    public void record(Long productId, int delta, MovementType type, Long referenceId) {
+        if (delta == 0) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO stock_movements (product_id, delta, movement_type, reference_id, occurred_at) VALUES (?, ?, ?, ?, ?)",
+                productId, delta, type.name(), referenceId, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Records an IMPORT movement for every product inserted by a bulk import, using its initial quantity.
+     * Must be called in the transaction that inserted the products.
+     * @param idsAbove Only products with an ID greater than this are considered (the highest ID before the import batch).
+     */
+    public void recordImportedProducts(long idsAbove) {
+        jdbcTemplate.update("INSERT INTO stock_movements (product_id, delta, movement_type, reference_id, occurred_at) " +
+                        "SELECT p.id, p.quantity, ?, NULL, ? FROM products p WHERE p.id > ? AND p.quantity <> 0 " +
+                        "AND NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = p.id)",
+                MovementType.IMPORT.name(), Timestamp.valueOf(LocalDateTime.now()), idsAbove);
+    }
+
+    /**
+     * Recomputes the current stock of a product from its latest snapshot and the movements after it.
+     * @param productId The product ID.
+     * @return The quantity on hand according to the ledger.
+     */
+    @Transactional(readOnly = true)
+    public int getCurrentQuantity(Long productId) {
+        return getQuantityAt(productId, null);
+    }
+
+    /**
+     * Computes the stock of a product at a point in time.
+     * @param productId The product ID.
+     * @param at The point in time, or null for now.
+     * @return The quantity on hand at that time according to the ledger.
+     */
+    @Transactional(readOnly = true)
+    public int getQuantityAt(Long productId, LocalDateTime at) {
+        Timestamp limit = at != null ? Timestamp.valueOf(at) : null;
+        List<Object[]> snapshot = jdbcTemplate.query(
+                "SELECT as_of, quantity FROM stock_snapshots WHERE product_id = ?" + (limit != null ? " AND as_of <= ?" : "") +
+                        " ORDER BY as_of DESC FETCH FIRST 1 ROWS ONLY",
+                (rs, rowNum) -> new Object[]{rs.getTimestamp(1), rs.getInt(2)},
+                limit != null ? new Object[]{productId, limit} : new Object[]{productId});
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COALESCE(SUM(delta), 0) FROM stock_movements WHERE product_id = ?");
+        args.add(productId);
+        int base = 0;
+        if (!snapshot.isEmpty()) {
+            sql.append(" AND occurred_at >= ?");
+            args.add(snapshot.get(0)[0]);
+            base = (Integer) snapshot.get(0)[1];
+        }
+        if (limit != null) {
+            sql.append(" AND occurred_at <= ?");
+            args.add(limit);
+        }
+        Integer tail = jdbcTemplate.queryForObject(sql.toString(), Integer.class, args.toArray());
+        return base + (tail != null ? tail : 0);
+    }
+
+    /**
+     * Lists the movements of a product, most recent first.
+     * @param productId The product ID.
+     * @param limit Maximum number of movements to return.
+     * @return The most recent movements of the product.
+     */
+    @Transactional(readOnly = true)
+    public List<StockMovement> getMovements(Long productId, int limit) {
+        return jdbcTemplate.query(
+                "SELECT id, product_id, delta, movement_type, reference_id, occurred_at FROM stock_movements " +
+                        "WHERE product_id = ? ORDER BY occurred_at DESC, id DESC FETCH FIRST ? ROWS ONLY",
+                (rs, rowNum) -> new StockMovement(rs.getLong("id"), rs.getLong("product_id"), rs.getInt("delta"),
+                        MovementType.valueOf(rs.getString("movement_type")), rs.getObject("reference_id", Long.class),
+                        rs.getTimestamp("occurred_at").toLocalDateTime()),
+                productId, limit);
+    }
+
+    /**
+     * Takes a new snapshot for every product with movements since its latest snapshot.
+     * Runs periodically (inventory.stock-ledger.snapshot-cron) so ledger reads stay short.
+     * @return The number of snapshots written.
+     */
+    @Scheduled(cron = "${inventory.stock-ledger.snapshot-cron:0 0 * * * *}")
+    @Transactional
+    public int compactSnapshots() {
+        Timestamp asOf = Timestamp.valueOf(LocalDateTime.now().minusSeconds(snapshotSafetyLagSeconds));
+        int written = jdbcTemplate.update(
+                "INSERT INTO stock_snapshots (product_id, as_of, quantity) " +
+                        "SELECT m.product_id, ?, COALESCE(MAX(s.quantity), 0) + SUM(m.delta) " +
+                        "FROM stock_movements m " +
+                        "LEFT JOIN (SELECT product_id, MAX(as_of) AS as_of FROM stock_snapshots GROUP BY product_id) latest ON latest.product_id = m.product_id " +
+                        "LEFT JOIN stock_snapshots s ON s.product_id = latest.product_id AND s.as_of = latest.as_of " +
+                        "WHERE m.occurred_at < ? AND (latest.as_of IS NULL OR m.occurred_at >= latest.as_of) " +
+                        "GROUP BY m.product_id",
+                asOf, asOf);
+        if (written > 0) {
+            System.out.println("Stock ledger: wrote " + written + " snapshots as of " + asOf);
+        }
+        return written;
+    }
+
+    /**
+     * Compares every product's stored quantity with the quantity derived from the ledger.
+     * @return The products whose stored quantity differs from the ledger (empty if consistent).
+     */
+    @Transactional(readOnly = true)
+    public List<Discrepancy> verify() {
+        List<Discrepancy> discrepancies = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT p.id, p.name, p.quantity, " +
+                        "COALESCE(s.quantity, 0) + COALESCE((SELECT SUM(m.delta) FROM stock_movements m WHERE m.product_id = p.id " +
+                        "AND (s.as_of IS NULL OR m.occurred_at >= s.as_of)), 0) AS ledger_quantity " +
+                        "FROM products p " +
+                        "LEFT JOIN (SELECT product_id, MAX(as_of) AS as_of FROM stock_snapshots GROUP BY product_id) latest ON latest.product_id = p.id " +
+                        "LEFT JOIN stock_snapshots s ON s.product_id = latest.product_id AND s.as_of = latest.as_of",
+                rs -> {
+                    int stored = rs.getInt("quantity");
+                    int ledger = rs.getInt("ledger_quantity");
+                    if (stored != ledger) {
+                        discrepancies.add(new Discrepancy(rs.getLong("id"), rs.getString("name"), stored, ledger));
+                    }
+                });
+        return discrepancies;
+    }
+
+    /**
+     * A single ledger entry.
+     */
+    public static class StockMovement {
+        private final Long id;
+        private final Long productId;
+        private final int delta;
+        private final MovementType movementType;
+        private final Long referenceId;
+        private final LocalDateTime occurredAt;
+
+        public StockMovement(Long id, Long productId, int delta, MovementType movementType, Long referenceId, LocalDateTime occurredAt) {
+            this.id = id;
+            this.productId = productId;
+            this.delta = delta;
+            this.movementType = movementType;
+            this.referenceId = referenceId;
+            this.occurredAt = occurredAt;
+        }
+
+        public Long getId() { return id; }
+        public Long getProductId() { return productId; }
+        public int getDelta() { return delta; }
+        public MovementType getMovementType() { return movementType; }
+        public Long getReferenceId() { return referenceId; }
+        public LocalDateTime getOccurredAt() { return occurredAt; }
+    }
+
+    /**
+     * A product whose stored quantity does not match the ledger.
+     */
+    public static class Discrepancy {
+        private final Long productId;
+        private final String productName;
+        private final int storedQuantity;
+        private final int ledgerQuantity;
+
+        public Discrepancy(Long productId, String productName, int storedQuantity, int ledgerQuantity) {
+            this.productId = productId;
+            this.productName = productName;
+            this.storedQuantity = storedQuantity;
+            this.ledgerQuantity = ledgerQuantity;
+        }
+
+        public Long getProductId() { return productId; }
+        public String getProductName() { return productName; }
+        public int getStoredQuantity() { return storedQuantity; }
+        public int getLedgerQuantity() { return ledgerQuantity; }
+    }
+}
@@ -0,0 +1,143 @@
+package com.inventory.service;
+
+import com.inventory.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for revoking access tokens (JWTs) before they expire.
+ *
+ * Revoked token IDs (the jti claim) are persisted in revoked_tokens and held in memory as a Bloom filter
+ * in front of an exact set. JwtAuthenticationFilter checks every request against it: for a token that
+ * was not revoked the filter almost always answers "no" after a few hash probes, and only the rare
+ * positive (a revoked token or a false positive) is confirmed against the exact set.
+ * The in-memory state is rebuilt from the table every jwt.revocation.refresh-interval-ms, so revocations
+ * made by another instance take effect within one interval; revocations made here take effect on commit.
+ * Rows are deleted once the revoked token would have expired anyway.
+ */
+@Service
+public class TokenRevocationService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Target false-positive rate of the Bloom filter (a false positive only costs one set lookup)
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    // Minimum number of entries the filter is sized for, so local revocations between reloads stay cheap
+    @Value("${jwt.revocation.min-capacity:1024}")
+    private int minCapacity;
+
+    private volatile RevocationSet revoked;
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    /**
+     * Checks whether an access token has been revoked.
+     * @param tokenId The jti claim of the token.
+     * @return true if the token was revoked.
+     */
+    public boolean isRevoked(String tokenId) {
+        RevocationSet current = revoked;
+        return current.bloom.mightContain(tokenId) && current.exact.containsKey(tokenId);
+    }
+
+    /**
+     * Revokes an access token. If called inside a transaction, the token is rejected locally once it commits.
+     * @param tokenId The jti claim of the token.
+     * @param expiresAt When the token expires; the revocation is kept until then.
+     */
+    @Transactional
+    public void revoke(String tokenId, LocalDateTime expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(LocalDateTime.now())) {
+            return; // Nothing to revoke, or the token has already expired
+        }
+        jdbcTemplate.update("MERGE INTO revoked_tokens (token_id, expires_at, revoked_at) KEY (token_id) VALUES (?, ?, ?)",
+                tokenId, Timestamp.valueOf(expiresAt), Timestamp.valueOf(LocalDateTime.now()));
+
+        long expiresAtMillis = Timestamp.valueOf(expiresAt).getTime();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revoked.add(tokenId, expiresAtMillis);
+                }
+            });
+        } else {
+            revoked.add(tokenId, expiresAtMillis);
+        }
+    }
+
+    /**
+     * Rebuilds the in-memory revocation set from the table and deletes rows of expired tokens.
+     * The filter is resized to the current number of revocations on every reload.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}",
+            initialDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void reload() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int purged = jdbcTemplate.update("DELETE FROM revoked_tokens WHERE expires_at <= ?", now);
+        Map<String, Long> tokenIds = new HashMap<>();
+        jdbcTemplate.query("SELECT token_id, expires_at FROM revoked_tokens",
+                rs -> { tokenIds.put(rs.getString(1), rs.getTimestamp(2).getTime()); });
+
+        RevocationSet next = new RevocationSet(Math.max(minCapacity, tokenIds.size() * 2), falsePositiveRate);
+        tokenIds.forEach(next::add);
+        RevocationSet previous = revoked;
+        if (previous != null) {
+            // Carry over local revocations that committed after the table was read (expired ones are dropped)
+            long nowMillis = now.getTime();
+            previous.exact.forEach((tokenId, expiresAtMillis) -> {
+                if (expiresAtMillis > nowMillis) {
+                    next.add(tokenId, expiresAtMillis);
+                }
+            });
+        }
+        revoked = next;
+        if (purged > 0) {
+            System.out.println("Token revocation: purged " + purged + " expired entries, " + tokenIds.size() + " active.");
+        }
+    }
+
+    /**
+     * @return Number of revoked tokens currently held in memory.
+     */
+    public int getRevokedCount() {
+        return revoked.exact.size();
+    }
+
+    /**
+     * Bloom filter plus the exact set of revoked token IDs. Both are safe for concurrent reads and adds.
+     */
+    private static class RevocationSet {
+        private final BloomFilter bloom;
+        private final Map<String, Long> exact = new ConcurrentHashMap<>(); // Token ID -> expiry (epoch millis)
+
+        RevocationSet(int capacity, double falsePositiveRate) {
+            this.bloom = new BloomFilter(capacity, falsePositiveRate);
+        }
+
+        void add(String tokenId, long expiresAtMillis) {
+            // Exact set first: a concurrent reader that sees the Bloom bits must also find the entry
+            exact.put(tokenId, expiresAtMillis);
+            bloom.add(tokenId);
+        }
+    }
+}
@@ -2,21 +2,33 @@ package com.inventory.service;
 
 import com.inventory.model.User;
 import com.inventory.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional; // Import for transactional operations
 
 import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Custom implementation of Spring Security's UserDetailsService.
  * This service is responsible for loading user-specific data during the authentication process.
+ *
+ * Loaded users are cached for inventory.security.user-cache.ttl-seconds, so repeated logins and token
+ * refreshes do not query app_users and user_roles every time. UserService evicts a user whenever it
+ * changes them; the TTL bounds staleness for changes made on another instance.
+ * Callers always receive a copy, because Spring Security erases the password of the returned object
+ * after authentication. The method is not transactional (roles are fetched eagerly by findByUsername),
+ * so a cache hit does not open a transaction or borrow a connection.
+ * Lookups are counted as cache.gets (cache = user-details, result = hit or miss).
  */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -24,6 +36,27 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    // How long a loaded user is reused (0 disables the cache)
+    @Value("${inventory.security.user-cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // Upper bound on cached users; the cache is cleared when it is exceeded
+    @Value("${inventory.security.user-cache.max-entries:1000}")
+    private int cacheMaxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, CachedUser> cache = new ConcurrentHashMap<>();
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    public void init() {
+        cacheHits = meterRegistry.counter("cache.gets", "cache", "user-details", "result", "hit");
+        cacheMisses = meterRegistry.counter("cache.gets", "cache", "user-details", "result", "miss");
+    }
+
     /**
      * Locates the user based on the username.
      * @param username The username identifying the user whose data is required.
@@ -31,8 +64,14 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * @throws UsernameNotFoundException if the user could not be found or the user has no GrantedAuthority.
      */
     @Override
-    @Transactional(readOnly = true) // Read-only transaction for fetching user details
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    public InventoryUserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        CachedUser cached = cache.get(username);
+        if (cached != null && cached.expiresAtMillis > System.currentTimeMillis()) {
+            cacheHits.increment();
+            return cached.details.copy();
+        }
+        cacheMisses.increment();
+
         // Find the user by username in the database
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
@@ -43,10 +82,59 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .collect(Collectors.toList());
 
         // Return a Spring Security User object
-        return new org.springframework.security.core.userdetails.User(
+        InventoryUserDetails details = new InventoryUserDetails(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(), // This is the HASHED password from the database
                 authorities
         );
+        if (cacheTtlSeconds > 0) {
+            if (cache.size() >= cacheMaxEntries) {
+                cache.clear();
+            }
+            cache.put(username, new CachedUser(details, System.currentTimeMillis() + cacheTtlSeconds * 1000));
+        }
+        return details.copy();
+    }
+
+    /**
+     * Removes a user from the cache. Must be called after the user's password, roles or username change.
+     * @param username The username (the old one, when the username changes).
+     */
+    public void evict(String username) {
+        if (username != null) {
+            cache.remove(username);
+        }
+    }
+
+    /**
+     * A Spring Security user that also carries the ID of the application user,
+     * so callers can reference the User entity without loading it again.
+     */
+    public static class InventoryUserDetails extends org.springframework.security.core.userdetails.User {
+        private final Long id;
+
+        public InventoryUserDetails(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+            super(username, password, authorities);
+            this.id = id;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        InventoryUserDetails copy() {
+            return new InventoryUserDetails(id, getUsername(), getPassword(), getAuthorities());
+        }
+    }
+
+    private static class CachedUser {
+        private final InventoryUserDetails details;
+        private final long expiresAtMillis;
+
+        CachedUser(InventoryUserDetails details, long expiresAtMillis) {
+            this.details = details;
+            this.expiresAtMillis = expiresAtMillis;
+        }
     }
 }
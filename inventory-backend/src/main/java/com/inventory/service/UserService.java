@@ -7,8 +7,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
@@ -24,6 +27,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
     /**
      * Retrieves all users from the database.
      * @return A list of all User entities.
@@ -55,6 +64,7 @@ public class UserService {
             throw new IllegalArgumentException("Username already exists: " + user.getUsername());
         }
         user.setPassword(passwordEncoder.encode(user.getPassword())); // Encode password before saving
+        evictCachedUserAfterCommit(user.getUsername());
         return userRepository.save(user);
     }
 
@@ -70,6 +80,7 @@ public class UserService {
     public User updateUser(Long id, User updatedUser) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + id));
+        evictCachedUserAfterCommit(existingUser.getUsername());
 
         // Allow updating password only if provided and not empty
         if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
@@ -80,6 +91,10 @@ public class UserService {
             // For now, if provided as null and existing is null, we can skip, but often it indicates an issue
         }
 
+        // Tokens carry the username and roles, so a change to either ends the user's sessions
+        boolean claimsChanged = !existingUser.getUsername().equals(updatedUser.getUsername())
+                || !Objects.equals(existingUser.getRoles(), updatedUser.getRoles());
+
         // Check if username is being changed to an existing one
         if (!existingUser.getUsername().equals(updatedUser.getUsername())) {
             if (userRepository.findByUsername(updatedUser.getUsername()).isPresent()) {
@@ -91,6 +106,9 @@ public class UserService {
         // CORRECTED: Use getRoles() and setRoles() for the Set<Role>
         existingUser.setRoles(updatedUser.getRoles());
 
+        if (claimsChanged) {
+            refreshTokenService.revokeAllForUser(id);
+        }
         return userRepository.save(existingUser);
     }
 
@@ -101,9 +119,26 @@ public class UserService {
      */
     @Transactional
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new EntityNotFoundException("User not found with ID: " + id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + id));
+        evictCachedUserAfterCommit(user.getUsername());
+        refreshTokenService.deleteAllForUser(id); // Also revokes the user's outstanding access tokens
+        userRepository.delete(user);
+    }
+
+    /**
+     * Evicts a user from the UserDetails cache once the current transaction commits
+     * (evicting earlier would let a concurrent login cache the old row again).
+     */
+    private void evictCachedUserAfterCommit(String username) {
+        userDetailsService.evict(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userDetailsService.evict(username);
+                }
+            });
         }
-        userRepository.deleteById(id);
     }
 }
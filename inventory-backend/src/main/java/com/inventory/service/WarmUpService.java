@@ -0,0 +1,204 @@
+package com.inventory.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.dto.ProductDto;
+import com.inventory.dto.ReceiptDto;
+import com.inventory.filter.RequestClass;
+import com.inventory.model.Product;
+import com.inventory.model.Receipt;
+import com.inventory.model.User;
+import com.inventory.model.User.Role;
+import com.inventory.repository.ProductRepository;
+import com.inventory.repository.UserRepository;
+import com.inventory.util.JwtUtil;
+import com.inventory.util.VerifiedTokenCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms up the JIT on the hot paths after a restart, before the backend reports itself ready: checkout
+ * (ReceiptService.recordBatchSale, with the JSON of its request and response), the catalog listing (products
+ * with their categories, written as JSON) and JWT signing and verification.
+ *
+ * Nothing is kept: each checkout creates a scratch cashier and product and runs in a transaction that is
+ * rolled back, so receipts, stock and the stock ledger are unchanged (only ID sequence values are used up).
+ * Each transaction runs on the pool of its request class (see RequestClass), so those pools are warmed too.
+ *
+ * Runs as an ApplicationRunner, and Spring Boot only sets the readiness state to ACCEPTING_TRAFFIC after
+ * the runners have finished, so the readiness probe (/readyz on the server port, /actuator/health/readiness
+ * on the management port) answers 503 until warm-up is done. The server port is already open meanwhile;
+ * a till or load balancer that waits for readiness gets the warmed-up paths.
+ *
+ * The warm-up checkouts are recorded in the inventory.checkout.phase and inventory.jwt.verification metrics.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpService implements ApplicationRunner {
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Rounds of checkout, listing and token verification
+    @Value("${inventory.warmup.iterations:300}")
+    private int iterations;
+
+    // Warm-up stops after this long even if not all rounds have run
+    @Value("${inventory.warmup.max-duration-ms:15000}")
+    private long maxDurationMs;
+
+    // Products listed per round
+    @Value("${inventory.warmup.listing-size:50}")
+    private int listingSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Runs the warm-up rounds until all have run or the time is up. A failing round is logged and ends the
+     * warm-up; the backend then starts cold rather than not at all.
+     * @return The rounds run and the time taken.
+     */
+    public WarmUpResult warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+        WarmUpResult result = new WarmUpResult();
+        try {
+            while (result.iterations < iterations && System.nanoTime() < deadline) {
+                checkout();
+                listProducts();
+                verifyToken();
+                result.iterations++;
+            }
+        } catch (RuntimeException e) {
+            result.error = e.getClass().getSimpleName() + ": " + e.getMessage();
+            System.err.println("Warm-up stopped after " + result.iterations + " rounds: " + result.error);
+        }
+        result.durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println("Warm-up finished: " + result);
+        return result;
+    }
+
+    /**
+     * Records a one-line sale of a scratch product by a scratch cashier and rolls it back.
+     */
+    private void checkout() {
+        RequestClass.bind(RequestClass.CHECKOUT);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                String suffix = UUID.randomUUID().toString().substring(0, 8);
+                User cashier = userRepository.save(new User("warm-up-" + suffix, "-", Set.of(Role.CASHIER)));
+                Product product = productRepository.save(new Product("Warm-up " + suffix, null, 1.0, 10, 0, null));
+
+                ReceiptService.RecordSaleItem item = new ReceiptService.RecordSaleItem();
+                item.setProductId(product.getId());
+                item.setQuantity(1);
+                ReceiptService.RecordReceiptRequest request = new ReceiptService.RecordReceiptRequest();
+                request.setSaleItems(List.of(item));
+                request.setPaymentMethod(Receipt.PaymentMethod.CASH);
+                request.setCashAmount(1.0);
+                request.setTotalAmount(1.0);
+                request = fromJson(toJson(request), ReceiptService.RecordReceiptRequest.class);
+
+                Receipt receipt = receiptService.recordBatchSale(request, cashier.getUsername());
+                toJson(ReceiptDto.from(receipt));
+            });
+        } finally {
+            RequestClass.unbind();
+        }
+    }
+
+    private void listProducts() {
+        RequestClass.bind(RequestClass.CATALOG);
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            List<ProductDto> products = transaction.execute(status ->
+                    ProductDto.fromAll(productRepository.findAllByOrderByIdAsc(PageRequest.of(0, listingSize))));
+            toJson(products);
+        } finally {
+            RequestClass.unbind();
+        }
+    }
+
+    /**
+     * Signs a new token (so it is not in the verified-token cache) and verifies it.
+     */
+    private void verifyToken() {
+        UserDetails user = org.springframework.security.core.userdetails.User.withUsername("warm-up")
+                .password("-")
+                .authorities("ROLE_CASHIER")
+                .build();
+        VerifiedTokenCache.VerifiedToken verified = jwtUtil.verify(jwtUtil.generateToken(user));
+        if (verified == null) {
+            throw new IllegalStateException("A freshly signed token did not verify");
+        }
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T fromJson(byte[] json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Outcome of the warm-up.
+     */
+    public static class WarmUpResult {
+        private int iterations;
+        private long durationMs;
+        private String error;
+
+        public int getIterations() { return iterations; }
+        public long getDurationMs() { return durationMs; }
+        public String getError() { return error; }
+
+        @Override
+        public String toString() {
+            return "WarmUpResult{iterations=" + iterations + ", durationMs=" + durationMs
+                    + (error != null ? ", error=" + error : "") + '}';
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.inventory.service.exception;
+
+/**
+ * Custom exception to indicate that a refresh token is unknown, expired or revoked.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+
+    public InvalidRefreshTokenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
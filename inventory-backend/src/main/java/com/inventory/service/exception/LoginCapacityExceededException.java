@@ -0,0 +1,15 @@
+package com.inventory.service.exception;
+
+/**
+ * Custom exception to indicate that a login was rejected because the password verification pool is saturated.
+ * The client should retry after a short delay.
+ */
+public class LoginCapacityExceededException extends RuntimeException {
+    public LoginCapacityExceededException(String message) {
+        super(message);
+    }
+
+    public LoginCapacityExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,88 @@
+package com.inventory.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter for strings.
+ *
+ * mightContain() never returns false for an added value; it returns true for a value that was
+ * never added with (roughly) the false-positive rate the filter was sized for, as long as no more
+ * than the expected number of values is added. Bits live in an AtomicLongArray, so add() and
+ * mightContain() may be called concurrently without locking.
+ * Uses double hashing (Kirsch/Mitzenmacher): probe i is h1 + i * h2 over two 64-bit hashes.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries Number of values the filter is sized for (at least 1).
+     * @param falsePositiveRate Target false-positive rate at that size, e.g. 0.001.
+     */
+    public BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int n = Math.max(1, expectedEntries);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, m);
+        int words = (int) ((m + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void add(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * @return false if the value was definitely never added, true if it may have been.
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value, 0x9E3779B97F4A7C15L);
+        long h2 = hash(value, 0xC2B2AE3D27D4EB4FL) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Seeded FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 64-bit mixer.
+     */
+    private static long hash(String value, long seed) {
+        long h = seed ^ 0xCBF29CE484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
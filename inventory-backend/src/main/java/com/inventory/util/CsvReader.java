@@ -0,0 +1,104 @@
+package com.inventory.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal incremental CSV reader (RFC 4180 style).
+ * Reads one record at a time from the underlying Reader, so arbitrarily large files
+ * can be processed with memory bounded by the size of a single record.
+ * Supports quoted fields, escaped quotes ("") and line breaks inside quoted fields.
+ */
+public class CsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final char separator;
+    private long lineNumber = 0; // Physical line on which the last returned record started
+    private long nextLineNumber = 1;
+
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvReader(Reader reader, char separator) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024);
+        this.separator = separator;
+    }
+
+    /**
+     * Reads the next record.
+     * @return The fields of the next record, or null at end of input.
+     * @throws IOException If reading fails or a quoted field is not terminated.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        lineNumber = nextLineNumber;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+
+        while (true) {
+            if (inQuotes) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field starting on line " + lineNumber);
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"'); // Escaped quote
+                    } else {
+                        inQuotes = false;
+                        reader.reset();
+                    }
+                } else {
+                    if (c == '\n') {
+                        nextLineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == -1 || c == '\n') {
+                nextLineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c == '\r') {
+                // Swallow CR of CRLF; a lone CR is treated as a line break as well
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                nextLineNumber++;
+                fields.add(field.toString());
+                return fields;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * @return The (1-based) physical line number on which the last returned record started.
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -1,24 +1,40 @@
 package com.inventory.util;
 
+import com.inventory.metrics.JwtVerificationEvent;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails; // Keep for generateToken
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Utility class for JSON Web Token (JWT) operations.
  * Handles generation, parsing, and validation of JWTs.
+ * Tokens are parsed with a single JwtParser built once at startup; successfully verified tokens
+ * are kept in a bounded cache so repeat requests with the same token skip signature verification.
+ * Verification time is recorded as inventory.jwt.verification (result = cached, verified or rejected)
+ * and cache lookups as cache.gets (cache = jwt-verified, result = hit or miss).
  */
 @Component
 public class JwtUtil {
@@ -50,6 +66,86 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private long expiration; // Loaded from application.properties
 
+    // Maximum number of verified tokens kept in memory (0 disables the cache)
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JwtParser parser;
+    private VerifiedTokenCache verifiedTokens;
+    private Timer cachedVerifications;
+    private Timer signatureVerifications;
+    private Timer rejectedVerifications;
+    private Counter cacheHits;
+    private Counter cacheMisses;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parser().verifyWith(getSigningKey()).build();
+        verifiedTokens = new VerifiedTokenCache(verifiedCacheMaxEntries);
+        cachedVerifications = verificationTimer("cached");
+        signatureVerifications = verificationTimer("verified");
+        rejectedVerifications = verificationTimer("rejected");
+        cacheHits = meterRegistry.counter("cache.gets", "cache", "jwt-verified", "result", "hit");
+        cacheMisses = meterRegistry.counter("cache.gets", "cache", "jwt-verified", "result", "miss");
+    }
+
+    private Timer verificationTimer(String result) {
+        return Timer.builder("inventory.jwt.verification")
+                .description("Time to verify the JWT of a request")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies a JWT and returns the claims needed for authentication.
+     * Parses (and checks the signature of) a token at most once while it is cached.
+     * @param token The JWT string.
+     * @return The verified token, or null if the token is malformed, has an invalid signature or is expired.
+     */
+    public VerifiedTokenCache.VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        String digest = VerifiedTokenCache.digest(token);
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokens.get(digest);
+        if (verified != null) {
+            cacheHits.increment();
+            cachedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            commitEvent(event, "cached", verified);
+            return verified;
+        }
+        cacheMisses.increment();
+        try {
+            Claims claims = extractAllClaims(token); // Also rejects expired tokens
+            @SuppressWarnings("unchecked")
+            List<String> roles = claims.get("roles", List.class);
+            verified = new VerifiedTokenCache.VerifiedToken(claims.getSubject(), claims.getId(),
+                    roles != null ? List.copyOf(roles) : Collections.emptyList(),
+                    claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            System.err.println("Token validation failed: " + e.getMessage());
+            rejectedVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            commitEvent(event, "rejected", null);
+            return null;
+        }
+        verifiedTokens.put(digest, verified);
+        signatureVerifications.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        commitEvent(event, "verified", verified);
+        return verified;
+    }
+
+    private static void commitEvent(JwtVerificationEvent event, String result, VerifiedTokenCache.VerifiedToken verified) {
+        if (event.shouldCommit()) {
+            event.result = result;
+            event.username = verified != null ? verified.getUsername() : "";
+            event.commit();
+        }
+    }
+
     /**
      * Extracts the username (subject) from a JWT.
      * @param token The JWT string.
@@ -87,47 +183,53 @@ public class JwtUtil {
      * @return All claims.
      */
     public Claims extractAllClaims(String token) { // MODIFIED: Made public
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * Checks if the token has expired.
-     * @param token The JWT string.
-     * @return true if the token is expired, false otherwise.
+     * @return Access token validity in milliseconds.
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public long getExpiration() {
+        return expiration;
     }
 
     /**
-     * Generates a JWT for a given UserDetails.
+     * Generates a JWT for a given UserDetails, with a random token ID.
      * @param userDetails The UserDetails object.
      * @return The generated JWT string.
      */
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Generates a JWT for a given UserDetails.
+     * @param userDetails The UserDetails object.
+     * @param tokenId The token ID (jti claim), used to revoke the token before it expires.
+     * @return The generated JWT string.
+     */
+    public String generateToken(UserDetails userDetails, String tokenId) {
         Map<String, Object> claims = new HashMap<>();
         // Add roles as claims. These will be "ROLE_OWNER", "ROLE_CASHIER" etc.
         claims.put("roles", userDetails.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority) // Get the string representation (e.g., "ROLE_OWNER")
                 .collect(Collectors.toList()));
 
-        return createToken(claims, userDetails.getUsername());
+        return createToken(claims, userDetails.getUsername(), tokenId);
     }
 
     /**
      * Creates the JWT.
      * @param claims Custom claims for the token.
      * @param subject The subject of the token (typically username).
+     * @param tokenId The token ID (jti claim).
      * @return The JWT string.
      */
-    private String createToken(Map<String, Object> claims, String subject) {
+    private String createToken(Map<String, Object> claims, String subject, String tokenId) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(tokenId)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
@@ -142,12 +244,6 @@ public class JwtUtil {
      * @return true if the token is valid (not expired and parsable), false otherwise.
      */
     public Boolean validateToken(String token) { // MODIFIED: Simplified to only take token
-        try {
-            extractAllClaims(token); // Attempt to parse to check signature and validity
-            return !isTokenExpired(token); // Check if expired
-        } catch (Exception e) {
-            System.err.println("Token validation failed during parsing/expiration check: " + e.getMessage());
-            return false;
-        }
+        return verify(token) != null;
     }
 }
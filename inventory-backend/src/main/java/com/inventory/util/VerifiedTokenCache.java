@@ -0,0 +1,110 @@
+package com.inventory.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of JWTs whose signature has already been verified.
+ *
+ * Entries are keyed by the SHA-256 digest of the token (raw tokens are never kept in memory)
+ * and expire together with the token, so a cached entry can never outlive the token's own validity.
+ * When the cache is full, the least recently used entry is evicted.
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final Map<String, VerifiedToken> entries;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > VerifiedTokenCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param digest The token digest (see digest(String)).
+     * @return The cached verification result, or null if absent or expired.
+     */
+    public VerifiedToken get(String digest) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        synchronized (entries) {
+            VerifiedToken token = entries.get(digest);
+            if (token != null && token.isExpired()) {
+                entries.remove(digest);
+                return null;
+            }
+            return token;
+        }
+    }
+
+    public void put(String digest, VerifiedToken token) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(digest, token);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @param token A JWT.
+     * @return The Base64 encoded SHA-256 digest of the token.
+     */
+    public static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * The claims the application needs from a verified token.
+     */
+    public static class VerifiedToken {
+        private final String username;
+        private final String tokenId;
+        private final List<String> roles;
+        private final long expiresAtMillis;
+
+        public VerifiedToken(String username, String tokenId, List<String> roles, long expiresAtMillis) {
+            this.username = username;
+            this.tokenId = tokenId;
+            this.roles = roles;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getUsername() { return username; }
+        public String getTokenId() { return tokenId; } // jti claim; null for tokens issued before revocation support
+        public List<String> getRoles() { return roles; }
+        public long getExpiresAtMillis() { return expiresAtMillis; }
+
+        public boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAtMillis;
+        }
+    }
+}
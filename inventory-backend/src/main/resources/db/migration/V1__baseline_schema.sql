@@ -0,0 +1,84 @@
+-- Baseline schema, matching what Hibernate generated from the entities before migrations were introduced.
+-- Uses IF NOT EXISTS so that it is a no-op on databases created earlier by spring.jpa.hibernate.ddl-auto=update
+-- (those are baselined at version 0, see spring.flyway.baseline-version).
+
+CREATE TABLE IF NOT EXISTS app_users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    password VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS user_roles (
+    user_id BIGINT NOT NULL,
+    role_name ENUM ('CASHIER','OWNER') NOT NULL,
+    PRIMARY KEY (user_id, role_name)
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    description VARCHAR(255),
+    name VARCHAR(255) NOT NULL UNIQUE,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    min_stock_level INTEGER,
+    price FLOAT(53) NOT NULL,
+    quantity INTEGER NOT NULL,
+    category_id BIGINT,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    description VARCHAR(255),
+    name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS receipts (
+    cash_amount FLOAT(53) NOT NULL,
+    mpesa_amount FLOAT(53) NOT NULL,
+    total_amount FLOAT(53) NOT NULL,
+    cashier_id BIGINT NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    transaction_date TIMESTAMP(6) NOT NULL,
+    mpesa_transaction_id VARCHAR(255),
+    receipt_number VARCHAR(255) NOT NULL UNIQUE,
+    payment_method ENUM ('CASH','MIXED','MPESA') NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS sales (
+    quantity INTEGER NOT NULL,
+    total_amount FLOAT(53) NOT NULL,
+    unit_price FLOAT(53) NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id BIGINT NOT NULL,
+    receipt_id BIGINT NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS stock_adjustments (
+    quantity_change INTEGER NOT NULL,
+    adjusted_by_user_id BIGINT NOT NULL,
+    adjustment_date TIMESTAMP(6) NOT NULL,
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    product_id BIGINT NOT NULL,
+    reason VARCHAR(500) NOT NULL,
+    adjustment_type ENUM ('ADDITION','CORRECTION','SUBTRACTION') NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Foreign keys keep the names Hibernate generated, so existing databases are left untouched
+ALTER TABLE user_roles ADD CONSTRAINT IF NOT EXISTS FKaf154i5th4vvgbahf8b8pa688
+    FOREIGN KEY (user_id) REFERENCES app_users;
+ALTER TABLE products ADD CONSTRAINT IF NOT EXISTS FKog2rp4qthbtt2lfyhfo32lsw9
+    FOREIGN KEY (category_id) REFERENCES categories;
+ALTER TABLE receipts ADD CONSTRAINT IF NOT EXISTS FKtokwhomp0xaugo8iprb3p5q5t
+    FOREIGN KEY (cashier_id) REFERENCES app_users;
+ALTER TABLE sales ADD CONSTRAINT IF NOT EXISTS FKkxc13g7l4ioljxqyoo15nh051
+    FOREIGN KEY (product_id) REFERENCES products;
+ALTER TABLE sales ADD CONSTRAINT IF NOT EXISTS FKgerysqvf5ah0yr6oblcah3xtx
+    FOREIGN KEY (receipt_id) REFERENCES receipts;
+ALTER TABLE stock_adjustments ADD CONSTRAINT IF NOT EXISTS FKk8a3a50j8dxxmt2olxjmmwaha
+    FOREIGN KEY (adjusted_by_user_id) REFERENCES app_users;
+ALTER TABLE stock_adjustments ADD CONSTRAINT IF NOT EXISTS FKh0emjv0ifyv4bpghf1pfcaue4
+    FOREIGN KEY (product_id) REFERENCES products;
@@ -0,0 +1,12 @@
+-- Indexes for the receipt history filters (ReceiptRepository.findFilteredReceipts),
+-- the receipt -> sales join, product sales lookups and the stock adjustment history.
+
+CREATE INDEX IF NOT EXISTS idx_receipts_transaction_date ON receipts (transaction_date);
+CREATE INDEX IF NOT EXISTS idx_receipts_cashier_id ON receipts (cashier_id, transaction_date);
+CREATE INDEX IF NOT EXISTS idx_receipts_payment_method ON receipts (payment_method, transaction_date);
+
+CREATE INDEX IF NOT EXISTS idx_sales_receipt_id ON sales (receipt_id);
+CREATE INDEX IF NOT EXISTS idx_sales_product_id ON sales (product_id);
+
+-- History is always read newest first, so the index is stored descending
+CREATE INDEX IF NOT EXISTS idx_stock_adjustments_adjustment_date ON stock_adjustments (adjustment_date DESC);
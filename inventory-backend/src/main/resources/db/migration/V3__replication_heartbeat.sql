@@ -0,0 +1,8 @@
+-- Heartbeat row written on the primary by ReplicaLagMonitor and read back on the read replica
+-- to measure replication lag (see inventory.datasource.replica.* in application.properties).
+CREATE TABLE IF NOT EXISTS replication_heartbeat (
+    id INTEGER NOT NULL PRIMARY KEY,
+    beat_at TIMESTAMP(6)
+);
+
+MERGE INTO replication_heartbeat (id, beat_at) KEY (id) VALUES (1, NULL);
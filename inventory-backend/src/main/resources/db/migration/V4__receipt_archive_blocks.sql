@@ -0,0 +1,17 @@
+-- Sparse index over the compressed receipt archive (see ReceiptArchiveService).
+-- One row per gzip block in an archive segment file, with the block's date and receipt ID ranges.
+CREATE TABLE IF NOT EXISTS receipt_archive_blocks (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    segment_file VARCHAR(255) NOT NULL,
+    block_offset BIGINT NOT NULL,
+    block_length INTEGER NOT NULL,
+    receipt_count INTEGER NOT NULL,
+    min_transaction_date TIMESTAMP(6) NOT NULL,
+    max_transaction_date TIMESTAMP(6) NOT NULL,
+    min_receipt_id BIGINT NOT NULL,
+    max_receipt_id BIGINT NOT NULL,
+    archived_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_receipt_archive_blocks_dates ON receipt_archive_blocks (max_transaction_date, min_transaction_date);
+CREATE INDEX IF NOT EXISTS idx_receipt_archive_blocks_ids ON receipt_archive_blocks (min_receipt_id, max_receipt_id);
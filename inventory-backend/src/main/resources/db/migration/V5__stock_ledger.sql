@@ -0,0 +1,27 @@
+-- Append-only stock ledger (see StockLedgerService).
+-- Every stock change is one signed delta; rows are never updated or deleted.
+CREATE TABLE IF NOT EXISTS stock_movements (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    delta INTEGER NOT NULL,
+    movement_type VARCHAR(20) NOT NULL,
+    reference_id BIGINT,
+    occurred_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_movements_product_occurred ON stock_movements (product_id, occurred_at);
+
+-- Periodic per-product snapshots: quantity = sum of all movements that occurred before as_of.
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    product_id BIGINT NOT NULL,
+    as_of TIMESTAMP(6) NOT NULL,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (product_id, as_of)
+);
+
+-- Opening balance for stock that existed before the ledger was introduced
+INSERT INTO stock_movements (product_id, delta, movement_type, reference_id, occurred_at)
+SELECT p.id, p.quantity, 'OPENING', NULL, CURRENT_TIMESTAMP
+FROM products p
+WHERE p.quantity <> 0
+  AND NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = p.id);
@@ -0,0 +1,12 @@
+-- Access token revocation (see TokenRevocationService). Rows are kept until the revoked token would have expired.
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id VARCHAR(36) NOT NULL PRIMARY KEY,
+    expires_at TIMESTAMP(6) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+-- The access token (jti) issued together with each refresh token, so a user's outstanding access tokens can be revoked
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS access_token_id VARCHAR(36);
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS access_expires_at TIMESTAMP(6);
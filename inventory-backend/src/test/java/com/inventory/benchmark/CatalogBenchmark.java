@@ -0,0 +1,112 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.Category;
+import com.inventory.model.Product;
+import com.inventory.model.StockAdjustment;
+import com.inventory.model.StockAdjustment.AdjustmentType;
+import com.inventory.service.ProductService;
+import com.inventory.service.StockAdjustmentService;
+import com.inventory.service.StockAdjustmentService.StockAdjustmentRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the owner's catalog writes against the full application context on an in-memory H2 database
+ * seeded with {@code products} products (see ServiceBenchmarkContext).
+ *
+ * createProduct:  ProductService.saveProduct for a new product (POST /api/products)
+ * updateProduct:  ProductService.saveProduct for an existing product with a new price and quantity (PUT /api/products/{id})
+ * adjustStock:    StockAdjustmentService.adjustStock, an ADDITION of one unit (POST /api/stock-adjustments)
+ *
+ * saveProduct checks the name against every product containing it, so its cost grows with the catalog.
+ * The catalog also grows by one product per createProduct call over the run.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=CatalogBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+
+    @Param({"1000", "10000"})
+    public int products;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private StockAdjustmentService stockAdjustmentService;
+    private int nextProduct;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServiceBenchmarkContext.start();
+        ServiceBenchmarkContext.seedCatalog(context.getBean(JdbcTemplate.class), products, 1_000);
+        productService = context.getBean(ProductService.class);
+        stockAdjustmentService = context.getBean(StockAdjustmentService.class);
+        nextProduct = products + 1;
+
+        // adjustStock records the authenticated user; the benchmark threads all act as the owner
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                ServiceBenchmarkContext.OWNER, null, AuthorityUtils.createAuthorityList("ROLE_OWNER")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Product createProduct() {
+        Product product = new Product(ServiceBenchmarkContext.productName(nextProduct++), "Created by the benchmark",
+                25.0, 100, 5, category(1 + nextProduct % ServiceBenchmarkContext.CATEGORIES));
+        return productService.saveProduct(product);
+    }
+
+    @Benchmark
+    public Product updateProduct() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int id = random.nextInt(1, products + 1);
+        Product product = new Product(ServiceBenchmarkContext.productName(id), null,
+                10.0 + random.nextInt(90), 1_000 + random.nextInt(10), 5, category(1 + id % ServiceBenchmarkContext.CATEGORIES));
+        product.setId((long) id);
+        return productService.saveProduct(product);
+    }
+
+    @Benchmark
+    public StockAdjustment adjustStock() {
+        StockAdjustmentRequest request = new StockAdjustmentRequest();
+        request.setProductId((long) ThreadLocalRandom.current().nextInt(1, products + 1));
+        request.setQuantityChange(1);
+        request.setAdjustmentType(AdjustmentType.ADDITION);
+        request.setReason("Benchmark delivery");
+        return stockAdjustmentService.adjustStock(request);
+    }
+
+    private static Category category(long id) {
+        Category category = new Category();
+        category.setId(id);
+        return category;
+    }
+}
@@ -0,0 +1,115 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.Receipt;
+import com.inventory.service.ReceiptService;
+import com.inventory.service.ReceiptService.RecordReceiptRequest;
+import com.inventory.service.ReceiptService.RecordSaleItem;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ReceiptService.recordBatchSale (POST /api/sales/receipts) against the full application
+ * context on an in-memory H2 database seeded with 1,000 products (see ServiceBenchmarkContext).
+ *
+ * checkout:           one cashier at a time
+ * checkoutContended:  four concurrent checkouts
+ *
+ * cartSize is the number of line items per receipt. productPool is how many products the carts draw from:
+ * with 10 the concurrent checkouts keep updating the same product rows and wait on each other's row locks,
+ * with 1000 they rarely meet. Receipts accumulate over the run, as they do in the shop.
+ * A contended checkout that H2 rolls back as a deadlock victim (carts updating the same products in a
+ * different order) is counted in the "deadlocks" column instead of failing the run.
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=CheckoutBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+
+    @Param({"1", "5", "20"})
+    public int cartSize;
+
+    @Param({"10", "1000"})
+    public int productPool;
+
+    private ConfigurableApplicationContext context;
+    private ReceiptService receiptService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServiceBenchmarkContext.start();
+        ServiceBenchmarkContext.seedCatalog(context.getBean(JdbcTemplate.class), PRODUCTS, 1_000_000_000);
+        receiptService = context.getBean(ReceiptService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Receipt checkout() throws Exception {
+        return receiptService.recordBatchSale(cart(), ServiceBenchmarkContext.CASHIER);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Receipt checkoutContended(Failures failures) throws Exception {
+        try {
+            return receiptService.recordBatchSale(cart(), ServiceBenchmarkContext.CASHIER);
+        } catch (ConcurrencyFailureException e) {
+            failures.deadlocks++;
+            return null;
+        }
+    }
+
+    /**
+     * Checkouts rolled back by the database, reported next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public long deadlocks;
+    }
+
+    private RecordReceiptRequest cart() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<RecordSaleItem> items = new ArrayList<>(cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            RecordSaleItem item = new RecordSaleItem();
+            item.setProductId((long) random.nextInt(1, productPool + 1));
+            item.setQuantity(random.nextInt(1, 4));
+            items.add(item);
+        }
+        RecordReceiptRequest request = new RecordReceiptRequest();
+        request.setSaleItems(items);
+        request.setPaymentMethod(Receipt.PaymentMethod.CASH);
+        return request;
+    }
+}
@@ -0,0 +1,165 @@
+package com.inventory.benchmark;
+
+import com.inventory.filter.JwtAuthenticationFilter;
+import com.inventory.service.TokenRevocationService;
+import com.inventory.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the JWT authentication filter per request.
+ *
+ * repeatToken:  the same token on every request (typical client session, served from the verified-token cache)
+ * distinctToken: a different token on every request with the cache disabled (one full parse per request)
+ * legacyFourParses: the previous filter logic, which parsed and verified the token four times per request
+ *
+ * Every filter checks the token against a revocation list holding revokedTokens other token IDs,
+ * so the Bloom filter fast path is part of the repeatToken and distinctToken numbers.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=JwtAuthenticationFilterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmarkSecretKeyThatIsAtLeastSixtyFourBytesLongForTheHS512SignatureAlgorithm!!";
+    private static final int DISTINCT_TOKENS = 1024;
+
+    @Param({"10000"})
+    private int cacheSize;
+
+    @Param({"0", "10000"})
+    private int revokedTokens;
+
+    private JwtAuthenticationFilter cachedFilter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private SecretKey key;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtUtil cachedJwtUtil = jwtUtil(cacheSize);
+        JwtUtil uncachedJwtUtil = jwtUtil(0);
+        TokenRevocationService revocations = tokenRevocationService(revokedTokens);
+        cachedFilter = filter(cachedJwtUtil, revocations);
+        uncachedFilter = filter(uncachedJwtUtil, revocations);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+        token = cachedJwtUtil.generateToken(owner("owner"));
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = cachedJwtUtil.generateToken(owner("user" + i));
+        }
+    }
+
+    @Benchmark
+    public Authentication repeatToken() throws Exception {
+        return authenticate(cachedFilter, token);
+    }
+
+    @Benchmark
+    public Authentication distinctToken() throws Exception {
+        String current = distinctTokens[next];
+        next = (next + 1) % DISTINCT_TOKENS;
+        return authenticate(uncachedFilter, current);
+    }
+
+    @Benchmark
+    public void legacyFourParses(Blackhole blackhole) {
+        // extractUsername, validateToken (extractAllClaims + extractExpiration), extractAllClaims
+        String username = legacyParse(token).getSubject();
+        legacyParse(token);
+        boolean expired = legacyParse(token).getExpiration().before(new java.util.Date());
+        Claims claims = legacyParse(token);
+        blackhole.consume(username);
+        blackhole.consume(expired);
+        blackhole.consume(claims.get("roles", List.class));
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(jwt).getPayload();
+    }
+
+    private Authentication authenticate(JwtAuthenticationFilter filter, String jwt) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + jwt);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static JwtUtil jwtUtil(int cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxEntries", cacheSize);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    private static TokenRevocationService tokenRevocationService(int revoked) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:revocations-" + revoked + ";DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS revoked_tokens (token_id VARCHAR(36) PRIMARY KEY, " +
+                "expires_at TIMESTAMP(6) NOT NULL, revoked_at TIMESTAMP(6) NOT NULL)");
+        TokenRevocationService service = new TokenRevocationService();
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(service, "minCapacity", 1024);
+        service.init();
+        for (int i = 0; i < revoked; i++) {
+            service.revoke(UUID.randomUUID().toString(), LocalDateTime.now().plusHours(1));
+        }
+        service.reload();
+        return service;
+    }
+
+    private static JwtAuthenticationFilter filter(JwtUtil jwtUtil, TokenRevocationService revocations) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "tokenRevocationService", revocations);
+        return filter;
+    }
+
+    private static User owner(String username) {
+        return new User(username, "x", List.of(new SimpleGrantedAuthority("ROLE_OWNER")));
+    }
+}
@@ -0,0 +1,127 @@
+package com.inventory.benchmark;
+
+import com.inventory.model.Receipt;
+import com.inventory.service.ReceiptService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks ReceiptService.getFilteredReceipts (GET /api/sales/receipts) over a synthetic sales history:
+ * {@code receipts} receipts of 3 line items each, spread evenly over the last 365 days and split between
+ * the owner and the cashier, against the full application context on an in-memory H2 database.
+ *
+ * lastDay:             the sales screen's default range
+ * cashierLastWeek:     one cashier's receipts for the last 7 days
+ * productLastMonth:    receipts containing one product over the last 30 days
+ *
+ * The history is inserted with JdbcTemplate batches at setup (seeded Random, so every run sees the same data).
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=ReceiptQueryBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptQueryBenchmark {
+
+    private static final int PRODUCTS = 1_000;
+    private static final int SALES_PER_RECEIPT = 3;
+    private static final int DAYS = 365;
+
+    @Param({"10000", "100000"})
+    public int receipts;
+
+    private ConfigurableApplicationContext context;
+    private ReceiptService receiptService;
+    private long cashierId;
+    private String productName;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = ServiceBenchmarkContext.start();
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        ServiceBenchmarkContext.seedCatalog(jdbcTemplate, PRODUCTS, 1_000_000);
+        long ownerId = ServiceBenchmarkContext.userId(jdbcTemplate, ServiceBenchmarkContext.OWNER);
+        cashierId = ServiceBenchmarkContext.userId(jdbcTemplate, ServiceBenchmarkContext.CASHIER);
+        productName = ServiceBenchmarkContext.productName(42);
+        seedHistory(jdbcTemplate, ownerId);
+        receiptService = context.getBean(ReceiptService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Receipt> lastDay() {
+        LocalDateTime now = LocalDateTime.now();
+        return receiptService.getFilteredReceipts(now.minusDays(1), now, null, null, null);
+    }
+
+    @Benchmark
+    public List<Receipt> cashierLastWeek() {
+        LocalDateTime now = LocalDateTime.now();
+        return receiptService.getFilteredReceipts(now.minusDays(7), now, cashierId, null, null);
+    }
+
+    @Benchmark
+    public List<Receipt> productLastMonth() {
+        LocalDateTime now = LocalDateTime.now();
+        return receiptService.getFilteredReceipts(now.minusDays(30), now, null, null, productName);
+    }
+
+    private void seedHistory(JdbcTemplate jdbcTemplate, long ownerId) {
+        Random random = new Random(42);
+        LocalDateTime end = LocalDateTime.now().minusMinutes(1);
+        long spacingSeconds = DAYS * 24L * 3600 / receipts;
+        List<Object[]> receiptRows = new ArrayList<>();
+        List<Object[]> saleRows = new ArrayList<>();
+        for (int id = 1; id <= receipts; id++) {
+            double total = 0;
+            for (int s = 0; s < SALES_PER_RECEIPT; s++) {
+                int productId = 1 + random.nextInt(PRODUCTS);
+                int quantity = 1 + random.nextInt(3);
+                double unitPrice = 10.0 + productId % 90;
+                total += unitPrice * quantity;
+                saleRows.add(new Object[] {id, productId, quantity, unitPrice, unitPrice * quantity});
+            }
+            receiptRows.add(new Object[] {id, "BENCH" + id, id % 2 == 0 ? cashierId : ownerId,
+                    Timestamp.valueOf(end.minusSeconds((receipts - id) * spacingSeconds)), total, total});
+            if (receiptRows.size() == 5_000) {
+                insertHistory(jdbcTemplate, receiptRows, saleRows);
+            }
+        }
+        insertHistory(jdbcTemplate, receiptRows, saleRows);
+        jdbcTemplate.update("ALTER TABLE receipts ALTER COLUMN id RESTART WITH " + (receipts + 1));
+    }
+
+    private static void insertHistory(JdbcTemplate jdbcTemplate, List<Object[]> receiptRows, List<Object[]> saleRows) {
+        jdbcTemplate.batchUpdate("INSERT INTO receipts (id, receipt_number, cashier_id, transaction_date, total_amount, cash_amount, mpesa_amount, payment_method) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, 'CASH')", receiptRows);
+        jdbcTemplate.batchUpdate("INSERT INTO sales (receipt_id, product_id, quantity, unit_price, total_amount) VALUES (?, ?, ?, ?, ?)", saleRows);
+        receiptRows.clear();
+        saleRows.clear();
+    }
+}
@@ -0,0 +1,164 @@
+package com.inventory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.hibernate5.jakarta.Hibernate5JakartaModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.inventory.config.JacksonConfig;
+import com.inventory.dto.ReceiptDto;
+import com.inventory.model.Category;
+import com.inventory.model.Product;
+import com.inventory.model.Receipt;
+import com.inventory.model.Sale;
+import com.inventory.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks serializing one page of 1,000 receipts (3 line items each) for GET /api/sales/receipts.
+ *
+ * entities:         the previous response, Receipt entities through the Hibernate module (reflective, proxy-aware)
+ * dtoReflective:    ReceiptDto records (mapping included) with a plain mapper
+ * dtoBlackbird:     ReceiptDto records (mapping included) with the application mapper (JacksonConfig, Blackbird)
+ * dtoCbor:          the same as dtoBlackbird, written as CBOR (Accept: application/cbor)
+ *
+ * Responses are written to a stream, as the message converter does. Payload sizes are printed at setup.
+ * For allocated bytes per operation add the GC profiler:
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.include=ReceiptSerializationBenchmark -Dbenchmark.args="-prof gc"
+ * (see gc.alloc.rate.norm in the results).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptSerializationBenchmark {
+
+    private static final int RECEIPTS = 1_000;
+    private static final int SALES_PER_RECEIPT = 3;
+
+    private List<Receipt> receipts;
+    private ObjectMapper entityMapper;
+    private ObjectMapper reflectiveMapper;
+    private ObjectMapper blackbirdMapper;
+    private ObjectMapper cborMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        receipts = receiptPage();
+
+        // The mapper as configured before the DTO change
+        entityMapper = JsonMapper.builder()
+                .addModule(new Hibernate5JakartaModule())
+                .addModule(new JavaTimeModule())
+                .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+                .configure(SerializationFeature.FAIL_ON_SELF_REFERENCES, false)
+                .build();
+        reflectiveMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+                .build();
+        blackbirdMapper = new JacksonConfig().objectMapper();
+        cborMapper = new JacksonConfig().cborMapper();
+
+        System.out.println("Payload bytes: entities=" + entities() + ", dto=" + dtoBlackbird() + ", dtoCbor=" + dtoCbor());
+    }
+
+    @Benchmark
+    public long entities() throws Exception {
+        return write(entityMapper, receipts);
+    }
+
+    @Benchmark
+    public long dtoReflective() throws Exception {
+        return write(reflectiveMapper, ReceiptDto.fromAll(receipts));
+    }
+
+    @Benchmark
+    public long dtoBlackbird() throws Exception {
+        return write(blackbirdMapper, ReceiptDto.fromAll(receipts));
+    }
+
+    @Benchmark
+    public long dtoCbor() throws Exception {
+        return write(cborMapper, ReceiptDto.fromAll(receipts));
+    }
+
+    /**
+     * Serializes to a stream, as the message converter does with the response body, and returns the payload size.
+     */
+    private static long write(ObjectMapper mapper, Object value) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        mapper.writeValue(out, value);
+        return out.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    private static List<Receipt> receiptPage() {
+        List<Category> categories = List.of(new Category("Drinks", "Soft drinks"), new Category("Snacks", null));
+        for (int i = 0; i < categories.size(); i++) {
+            categories.get(i).setId((long) i + 1);
+        }
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            Product product = new Product("Product " + i, "Description of product " + i, 10.0 + i, 100, 5, categories.get(i % 2));
+            product.setId((long) i);
+            products.add(product);
+        }
+        User cashier = new User("cashier", "$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0", Set.of(User.Role.CASHIER));
+        cashier.setId(2L);
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 8, 0);
+        List<Receipt> page = new ArrayList<>(RECEIPTS);
+        long saleId = 1;
+        for (int i = 1; i <= RECEIPTS; i++) {
+            Receipt receipt = new Receipt("R-" + (100000 + i), cashier, 0, Receipt.PaymentMethod.CASH, 0, 0, null);
+            receipt.setId((long) i);
+            receipt.setTransactionDate(start.plusMinutes(i * 7L));
+            double total = 0;
+            for (int j = 0; j < SALES_PER_RECEIPT; j++) {
+                Product product = products.get((i * 7 + j) % products.size());
+                Sale sale = new Sale(product, j + 1, product.getPrice());
+                sale.setId(saleId++);
+                receipt.addSale(sale);
+                total += sale.getTotalAmount();
+            }
+            receipt.setTotalAmount(total);
+            receipt.setCashAmount(total);
+            page.add(receipt);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,92 @@
+package com.inventory.benchmark;
+
+import com.inventory.InventoryApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application context on a private in-memory H2 database for the service-layer benchmarks,
+ * and seeds it with categories and products in place of the sample catalog. The default owner and
+ * cashier accounts are created by AuthController as on a fresh installation. The web server listens on a random port because the
+ * security configuration needs Spring MVC; the benchmarks call the services directly.
+ *
+ * The schema comes from the Flyway migrations, so the benchmarks run against the same tables and indexes
+ * as the application. Seeding uses JdbcTemplate batches and records an OPENING movement per product,
+ * so the stock ledger agrees with Product.quantity.
+ */
+final class ServiceBenchmarkContext {
+
+    static final String OWNER = "owner";
+    static final String CASHIER = "cashier";
+    static final int CATEGORIES = 10;
+
+    private ServiceBenchmarkContext() {
+    }
+
+    /**
+     * Starts a context on a new in-memory database.
+     * @return The running context; close it in the trial tear-down.
+     */
+    static ConfigurableApplicationContext start() {
+        String database = "bench-" + UUID.randomUUID();
+        // Passed as arguments: builder properties are defaults that application.properties would override
+        return new SpringApplicationBuilder(InventoryApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--management.server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                        "--logging.level.org.springframework.beans.factory.support.DisposableBeanAdapter=ERROR",
+                        "--logging.level.org.springframework.web.servlet.mvc.method.annotation=WARN",
+                        "--logging.level.org.springframework.web.servlet.DispatcherServlet=WARN");
+    }
+
+    /**
+     * Replaces the sample catalog with the benchmark categories and {@code count} products.
+     * Product names are fixed-length ("Bench product 000042") so no name contains another one,
+     * which keeps ProductService's duplicate-name check from rejecting updates.
+     * @param jdbcTemplate Template on the benchmark database.
+     * @param count Number of products (IDs 1..count).
+     * @param quantity Starting stock of every product.
+     */
+    static void seedCatalog(JdbcTemplate jdbcTemplate, int count, int quantity) {
+        jdbcTemplate.update("DELETE FROM sales");
+        jdbcTemplate.update("DELETE FROM receipts");
+        jdbcTemplate.update("DELETE FROM stock_adjustments");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 1; i <= CATEGORIES; i++) {
+            categories.add(new Object[] {i, "Bench category " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO categories (id, name) VALUES (?, ?)", categories);
+        jdbcTemplate.update("ALTER TABLE categories ALTER COLUMN id RESTART WITH " + (CATEGORIES + 1));
+
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            products.add(new Object[] {i, productName(i), 10.0 + i % 90, quantity, 5, 1 + i % CATEGORIES});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES (?, ?, ?, ?, ?, ?)", products);
+        jdbcTemplate.update("ALTER TABLE products ALTER COLUMN id RESTART WITH " + (count + 1));
+        jdbcTemplate.update("INSERT INTO stock_movements (product_id, delta, movement_type, reference_id, occurred_at) "
+                + "SELECT id, quantity, 'OPENING', NULL, CURRENT_TIMESTAMP FROM products");
+    }
+
+    static long userId(JdbcTemplate jdbcTemplate, String username) {
+        return jdbcTemplate.queryForObject("SELECT id FROM app_users WHERE username = ?", Long.class, username);
+    }
+
+    static String productName(int id) {
+        return String.format("Bench product %06d", id);
+    }
+}
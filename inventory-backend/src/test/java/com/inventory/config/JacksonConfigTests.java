@@ -0,0 +1,147 @@
+package com.inventory.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.metrics.RequestTiming;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The message converters of JacksonConfig: JSON and CBOR carry the same content, and writing a body
+ * is recorded as inventory.serialization by format and URI pattern, and as the ser phase of Server-Timing,
+ * also when the write fails.
+ */
+class JacksonConfigTests {
+
+    private final JacksonConfig jacksonConfig = new JacksonConfig();
+    private final ObjectMapper objectMapper = jacksonConfig.objectMapper();
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sales/receipts/7");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/sales/receipts/{id}");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        RequestTiming.end();
+    }
+
+    @Test
+    void jsonWritesAreTimedByUriPattern() throws Exception {
+        MappingJackson2HttpMessageConverter json = jacksonConfig.mappingJackson2HttpMessageConverter(objectMapper, meterRegistry);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        json.write(written(), MediaType.APPLICATION_JSON, output);
+
+        assertEquals(body(), objectMapper.readValue(output.getBodyAsBytes(), Map.class));
+        assertTrue(output.getBodyAsString().contains("\"2024-03-01T09:30:00\""), "dates are ISO strings: " + output.getBodyAsString());
+        Timer timer = meterRegistry.get("inventory.serialization").tag("format", "json").tag("uri", "/api/sales/receipts/{id}").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void cborCarriesTheSameContentAsJson() throws Exception {
+        MappingJackson2CborHttpMessageConverter cbor = jacksonConfig.cborHttpMessageConverter(meterRegistry);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        cbor.write(written(), MediaType.APPLICATION_CBOR, output);
+
+        assertEquals(body(), jacksonConfig.cborMapper().readValue(output.getBodyAsBytes(), Map.class));
+        Timer timer = meterRegistry.get("inventory.serialization").tag("format", "cbor").tag("uri", "/api/sales/receipts/{id}").timer();
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void writesOutsideARequestAreTaggedUnknown() throws Exception {
+        RequestContextHolder.resetRequestAttributes();
+        jacksonConfig.mappingJackson2HttpMessageConverter(objectMapper, meterRegistry)
+                .write(written(), MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+
+        assertEquals(1, meterRegistry.get("inventory.serialization").tag("format", "json").tag("uri", "UNKNOWN").timer().count());
+    }
+
+    @Test
+    void serializationTimeIsReportedInServerTiming() throws Exception {
+        RequestTiming timing = RequestTiming.start("trace");
+        Map<String, Object> large = new LinkedHashMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            large.put("field" + i, "value " + i);
+        }
+        jacksonConfig.mappingJackson2HttpMessageConverter(objectMapper, meterRegistry)
+                .write(large, MediaType.APPLICATION_JSON, new MockHttpOutputMessage());
+
+        double ser = Double.parseDouble(timing.toServerTiming().replaceAll(".*ser;dur=([0-9.]+).*", "$1"));
+        assertTrue(ser > 0, timing.toServerTiming());
+    }
+
+    @Test
+    void failedWritesAreRecordedAndEndTheSerPhase() {
+        RequestTiming timing = RequestTiming.start("trace");
+        MockHttpOutputMessage failing = new MockHttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        throw new IOException("Broken pipe");
+                    }
+                };
+            }
+        };
+        Map<String, Object> large = new LinkedHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            large.put("field" + i, "value " + i); // More than Jackson buffers, so the write reaches the stream
+        }
+
+        assertThrows(IOException.class, () -> jacksonConfig.mappingJackson2HttpMessageConverter(objectMapper, meterRegistry)
+                .write(large, MediaType.APPLICATION_JSON, failing));
+        assertEquals(1, meterRegistry.get("inventory.serialization").tag("format", "json").timer().count());
+        // The ser phase is closed, so the time after the failure is not counted as serialization
+        String before = timing.toServerTiming().replaceAll(".*ser;dur=([0-9.]+).*", "$1");
+        long end = System.nanoTime() + 20_000_000;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+        assertEquals(before, timing.toServerTiming().replaceAll(".*ser;dur=([0-9.]+).*", "$1"));
+    }
+
+    private static Map<String, Object> written() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("receiptNumber", "R1");
+        body.put("totalAmount", 150.5);
+        body.put("transactionDate", LocalDateTime.of(2024, 3, 1, 9, 30));
+        return body;
+    }
+
+    // What written() reads back as: the date becomes its ISO string
+    private static Map<String, Object> body() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("receiptNumber", "R1");
+        body.put("totalAmount", 150.5);
+        body.put("transactionDate", "2024-03-01T09:30:00");
+        return body;
+    }
+}
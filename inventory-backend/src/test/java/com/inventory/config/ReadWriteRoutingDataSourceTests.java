@@ -0,0 +1,117 @@
+package com.inventory.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing tests for ReadWriteRoutingDataSource against two in-memory H2 databases:
+ * read-only transactions go to the replica while it is usable, everything else goes to the primary.
+ */
+class ReadWriteRoutingDataSourceTests {
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private Connection primaryKeepAlive;
+    private Connection replicaKeepAlive;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        primary = h2("routing_primary");
+        replica = h2("routing_replica");
+        primaryKeepAlive = primary.getConnection();
+        replicaKeepAlive = replica.getConnection();
+        for (DataSource dataSource : new DataSource[]{primary, replica}) {
+            JdbcTemplate template = new JdbcTemplate(dataSource);
+            template.execute("CREATE TABLE replication_heartbeat (id INTEGER PRIMARY KEY, beat_at TIMESTAMP(6))");
+            template.execute("CREATE TABLE origin (name VARCHAR(20))");
+        }
+        new JdbcTemplate(primary).update("INSERT INTO replication_heartbeat VALUES (1, NULL)");
+        new JdbcTemplate(primary).update("INSERT INTO origin VALUES ('primary')");
+        new JdbcTemplate(replica).update("INSERT INTO origin VALUES ('replica')");
+
+        lagMonitor = new ReplicaLagMonitor(primary, replica, 5000);
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, lagMonitor));
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        primaryKeepAlive.close();
+        replicaKeepAlive.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaWhenInSync() {
+        replicateHeartbeat(System.currentTimeMillis());
+        lagMonitor.checkReplica();
+
+        assertTrue(lagMonitor.isReplicaUsable());
+        assertEquals("replica", readOnly.execute(status -> origin()));
+        assertEquals("primary", readWrite.execute(status -> origin()));
+        assertEquals("primary", origin()); // No transaction
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicaLags() {
+        replicateHeartbeat(System.currentTimeMillis() - 60_000);
+        lagMonitor.checkReplica();
+
+        assertFalse(lagMonitor.isReplicaUsable());
+        assertEquals("primary", readOnly.execute(status -> origin()));
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicaIsDown() throws Exception {
+        replicateHeartbeat(System.currentTimeMillis());
+        lagMonitor.checkReplica();
+        assertTrue(lagMonitor.isReplicaUsable());
+
+        replica.setURL("jdbc:h2:file:./target/no-such-replica;IFEXISTS=TRUE"); // Simulates an unreachable replica
+        assertEquals("primary", readOnly.execute(status -> origin()));
+        assertFalse(lagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void heartbeatIsWrittenOnPrimary() {
+        lagMonitor.writeHeartbeat();
+        Timestamp beat = new JdbcTemplate(primary).queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1", Timestamp.class);
+        assertTrue(beat != null && System.currentTimeMillis() - beat.getTime() < 5000);
+    }
+
+    private String origin() {
+        return jdbcTemplate.queryForObject("SELECT name FROM origin", String.class);
+    }
+
+    private void replicateHeartbeat(long millis) {
+        new JdbcTemplate(replica).update("MERGE INTO replication_heartbeat KEY (id) VALUES (1, ?)", new Timestamp(millis));
+    }
+
+    private static JdbcDataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + System.nanoTime() + ";DB_CLOSE_DELAY=0");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
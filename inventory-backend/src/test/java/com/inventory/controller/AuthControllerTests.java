@@ -0,0 +1,104 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Tests for the refresh flow of AuthController: a refresh token is single-use, reusing one logs the whole
+ * session out with 401, and an expired one is answered with 401.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:auth-controller;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "inventory.ratelimit.enabled=false",
+        "inventory.warmup.enabled=false"
+})
+class AuthControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void refreshRotatesTheToken() throws Exception {
+        Map<?, ?> login = login();
+        MvcResult refreshed = refresh((String) login.get("refreshToken"));
+        assertEquals(200, refreshed.getResponse().getStatus());
+
+        Map<?, ?> tokens = body(refreshed);
+        assertNotEquals(login.get("refreshToken"), tokens.get("refreshToken"));
+        assertEquals(200, products((String) tokens.get("jwt")));
+        assertEquals(200, refresh((String) tokens.get("refreshToken")).getResponse().getStatus());
+    }
+
+    @Test
+    void reusedTokenIsRejectedAndEndsTheSession() throws Exception {
+        String first = (String) login().get("refreshToken");
+        Map<?, ?> rotated = body(refresh(first));
+
+        MvcResult reuse = refresh(first);
+        assertEquals(401, reuse.getResponse().getStatus());
+        assertEquals("Refresh token has already been used.", reuse.getResponse().getContentAsString());
+
+        // The tokens issued by the rotation are revoked as well (requests without a valid access token get 403)
+        assertEquals(401, refresh((String) rotated.get("refreshToken")).getResponse().getStatus());
+        assertEquals(403, products((String) rotated.get("jwt")));
+    }
+
+    @Test
+    void expiredTokenIsRejected() throws Exception {
+        String refreshToken = (String) login().get("refreshToken");
+        jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = ? WHERE revoked_at IS NULL",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+
+        MvcResult expired = refresh(refreshToken);
+        assertEquals(401, expired.getResponse().getStatus());
+        assertEquals("Refresh token has expired.", expired.getResponse().getContentAsString());
+    }
+
+    private Map<?, ?> login() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("username", "owner", "password", "password")))).andReturn();
+        assertEquals(200, result.getResponse().getStatus(), result.getResponse().getContentAsString());
+        return body(result);
+    }
+
+    private MvcResult refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken)))).andReturn();
+    }
+
+    private int products(String accessToken) throws Exception {
+        return mockMvc.perform(get("/api/products").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private Map<?, ?> body(MvcResult result) throws Exception {
+        return objectMapper.readValue(result.getResponse().getContentAsString(), Map.class);
+    }
+}
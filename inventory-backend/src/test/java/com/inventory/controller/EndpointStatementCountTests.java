@@ -0,0 +1,486 @@
+package com.inventory.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inventory.service.TokenRevocationService;
+import com.inventory.service.UserDetailsServiceImpl;
+import com.inventory.support.StatementCounting;
+import com.inventory.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * N+1 guard for every controller endpoint: counts the SQL statements of one request (see StatementCounting)
+ * with a small dataset, grows every table, and counts the same request again. The count must not change with
+ * the amount of data, and must stay within the endpoint's budget, which is what it runs today.
+ *
+ * When a budget fails, look at the statements (spring.jpa.show-sql) before raising it; when the two counts
+ * differ, a query runs once per row (lazy or eager associations loaded one at a time, a lookup in a loop).
+ * Writes that touch a fixed number of rows are held to the same rule, so each run targets a fresh row.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCounting.class)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-counts;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false",
+        "inventory.ratelimit.enabled=false", // Hundreds of requests as one user within seconds
+        "inventory.dashboard.query-timeout-ms=10000", // Every overview query must be counted, however slow
+        "inventory.warmup.iterations=20",
+        "logging.level.org.springframework.web=INFO"
+})
+class EndpointStatementCountTests {
+
+    // Rows added to every table before the first and before the second request
+    private static final int SMALL = 3;
+    private static final int GROWTH = 20;
+    // Seeded rows get IDs from here on, clear of the rows created at startup and through the API
+    private static final long FIRST_ID = 100_000;
+    private static final LocalDateTime FIRST_SALE = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @TempDir
+    static Path archiveDir;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.archive.directory", () -> archiveDir.toString());
+        registry.add("inventory.jfr.directory", () -> archiveDir.resolve("recordings").toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private String ownerToken;
+    private long nextId;
+    private long categoryId;
+
+    /**
+     * The newest rows of the last seeding round. The spare rows are referenced by nothing, so they can be deleted.
+     */
+    private record Seeded(long productId, long spareProductId, long receiptId, long saleId, long userId,
+                          long spareUserId, long spareCategoryId, String productName) {
+    }
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM receipt_archive_blocks");
+        jdbcTemplate.update("DELETE FROM stock_snapshots");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM stock_adjustments");
+        jdbcTemplate.update("DELETE FROM sales");
+        jdbcTemplate.update("DELETE FROM receipts");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM app_users WHERE id >= ?", FIRST_ID);
+        jdbcTemplate.update("DELETE FROM categories WHERE id >= ?", FIRST_ID);
+        nextId = FIRST_ID;
+        categoryId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM categories", Long.class);
+        ownerToken = jwtUtil.generateToken(userDetailsService.loadUserByUsername("owner"), UUID.randomUUID().toString());
+    }
+
+    // Products
+
+    @Test
+    void listProducts() throws Exception {
+        assertFlat("GET /api/products", 1, seeded -> get("/api/products"));
+    }
+
+    @Test
+    void searchProducts() throws Exception {
+        assertFlat("GET /api/products?name=", 1, seeded -> get("/api/products").param("name", "Counted"));
+    }
+
+    @Test
+    void getProduct() throws Exception {
+        assertFlat("GET /api/products/{id}", 1, seeded -> get("/api/products/" + seeded.productId()));
+    }
+
+    @Test
+    void lowStockProducts() throws Exception {
+        assertFlat("GET /api/products/low-stock", 1, seeded -> get("/api/products/low-stock"));
+    }
+
+    @Test
+    void createProduct() throws Exception {
+        assertFlat("POST /api/products", 4, seeded -> post("/api/products").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "New " + seeded.productName(), "price", 12.5, "quantity", 4,
+                        "minStockLevel", 1, "category", Map.of("id", categoryId)))));
+    }
+
+    @Test
+    void updateProduct() throws Exception {
+        // Includes locking the product row (SELECT ... FOR UPDATE) before the quantity is compared with the ledger
+        assertFlat("PUT /api/products/{id}", 6, seeded -> put("/api/products/" + seeded.productId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", seeded.productName(), "price", 99.0, "quantity", 40,
+                        "minStockLevel", 1, "category", Map.of("id", categoryId)))));
+    }
+
+    @Test
+    void deleteProduct() throws Exception {
+        assertFlat("DELETE /api/products/{id}", 2, seeded -> delete("/api/products/" + seeded.spareProductId()));
+    }
+
+    @Test
+    void importProducts() throws Exception {
+        // Same file size every time; the import's batches grow with the file, not with the database
+        assertFlat("POST /api/products/import", 5, seeded -> post("/api/products/import").contentType("text/csv")
+                .content("name,price,quantity,category\n"
+                        + "Imported A " + seeded.productName() + ",10,5," + categoryId + "\n"
+                        + "Imported B " + seeded.productName() + ",11,5," + categoryId + "\n"));
+    }
+
+    // Categories
+
+    @Test
+    void listCategories() throws Exception {
+        assertFlat("GET /api/categories", 1, seeded -> get("/api/categories"));
+    }
+
+    @Test
+    void getCategory() throws Exception {
+        assertFlat("GET /api/categories/{id}", 1, seeded -> get("/api/categories/" + categoryId));
+    }
+
+    @Test
+    void createCategory() throws Exception {
+        assertFlat("POST /api/categories", 2, seeded -> post("/api/categories").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "New category " + seeded.spareCategoryId()))));
+    }
+
+    @Test
+    void updateCategory() throws Exception {
+        assertFlat("PUT /api/categories/{id}", 3, seeded -> put("/api/categories/" + seeded.spareCategoryId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("name", "Renamed category " + seeded.spareCategoryId(), "description", "Renamed"))));
+    }
+
+    @Test
+    void deleteCategory() throws Exception {
+        assertFlat("DELETE /api/categories/{id}", 3, seeded -> delete("/api/categories/" + seeded.spareCategoryId()));
+    }
+
+    // Dashboard
+
+    @Test
+    void dashboardLowStock() throws Exception {
+        assertFlat("GET /api/dashboard/low-stock", 1, seeded -> get("/api/dashboard/low-stock"));
+    }
+
+    @Test
+    void dashboardSummary() throws Exception {
+        assertFlat("GET /api/dashboard/summary", 2, seeded -> get("/api/dashboard/summary"));
+    }
+
+    @Test
+    void dashboardOverview() throws Exception {
+        assertFlat("GET /api/dashboard/overview", 5, seeded -> get("/api/dashboard/overview"));
+    }
+
+    // Receipts and sales
+
+    @Test
+    void recordReceipt() throws Exception {
+        // Grows with the cart (a product lookup, stock update and ledger entry per line), not with the database
+        assertFlat("POST /api/sales/receipts/batch", 11, seeded -> post("/api/sales/receipts/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("paymentMethod", "CASH", "cashAmount", 1_000.0, "saleItems", List.of(
+                        Map.of("productId", seeded.productId(), "quantity", 1),
+                        Map.of("productId", seeded.productId() - 1, "quantity", 1))))));
+    }
+
+    @Test
+    void listReceipts() throws Exception {
+        assertFlat("GET /api/sales/receipts", 2, seeded -> get("/api/sales/receipts"));
+    }
+
+    @Test
+    void filterReceipts() throws Exception {
+        assertFlat("GET /api/sales/receipts (filtered)", 1, seeded -> get("/api/sales/receipts")
+                .param("startDate", FIRST_SALE.toString())
+                .param("endDate", FIRST_SALE.plusYears(1).toString())
+                .param("cashierId", String.valueOf(seeded.userId()))
+                .param("paymentMethod", "CASH")
+                .param("productName", "Counted"));
+    }
+
+    @Test
+    void getReceipt() throws Exception {
+        assertFlat("GET /api/sales/receipts/{id}", 1, seeded -> get("/api/sales/receipts/" + seeded.receiptId()));
+    }
+
+    @Test
+    void deleteReceipt() throws Exception {
+        // Includes locking the products of the receipt, in one statement however many lines it has
+        assertFlat("DELETE /api/sales/receipts/{id}", 9, seeded -> delete("/api/sales/receipts/" + seeded.receiptId()));
+    }
+
+    @Test
+    void archiveReceipts() throws Exception {
+        // Archives every receipt there is; both runs fit in one block (inventory.archive.block-size)
+        assertFlat("POST /api/sales/receipts/archive", 7, seeded -> post("/api/sales/receipts/archive")
+                .param("before", FIRST_SALE.plusYears(10).toString()));
+    }
+
+    @Test
+    void listSales() throws Exception {
+        assertFlat("GET /api/sales", 1, seeded -> get("/api/sales"));
+    }
+
+    @Test
+    void deleteSale() throws Exception {
+        // Includes locking the product row
+        assertFlat("DELETE /api/sales/{id}", 5, seeded -> delete("/api/sales/" + seeded.saleId()));
+    }
+
+    // Stock
+
+    @Test
+    void adjustStock() throws Exception {
+        assertFlat("POST /api/stock/adjustments", 6, seeded -> post("/api/stock/adjustments").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("productId", seeded.productId(), "quantityChange", 5,
+                        "adjustmentType", "ADDITION", "reason", "Delivery"))));
+    }
+
+    @Test
+    void stockAdjustmentHistory() throws Exception {
+        assertFlat("GET /api/stock/adjustments/history", 1, seeded -> get("/api/stock/adjustments/history"));
+    }
+
+    @Test
+    void ledgerQuantity() throws Exception {
+        assertFlat("GET /api/stock/ledger/{productId}", 2, seeded -> get("/api/stock/ledger/" + seeded.productId()));
+    }
+
+    @Test
+    void ledgerMovements() throws Exception {
+        assertFlat("GET /api/stock/ledger/{productId}/movements", 1, seeded -> get("/api/stock/ledger/" + seeded.productId() + "/movements"));
+    }
+
+    @Test
+    void verifyLedger() throws Exception {
+        assertFlat("GET /api/stock/ledger/verify", 1, seeded -> get("/api/stock/ledger/verify"));
+    }
+
+    @Test
+    void compactLedger() throws Exception {
+        assertFlat("POST /api/stock/ledger/snapshots", 1, seeded -> post("/api/stock/ledger/snapshots"));
+    }
+
+    // Users
+
+    @Test
+    void listUsers() throws Exception {
+        assertFlat("GET /api/users", 1, seeded -> get("/api/users"));
+    }
+
+    @Test
+    void getUser() throws Exception {
+        assertFlat("GET /api/users/{id}", 1, seeded -> get("/api/users/" + seeded.userId()));
+    }
+
+    @Test
+    void createUser() throws Exception {
+        assertFlat("POST /api/users", 3, seeded -> post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("username", "new-user-" + seeded.spareUserId(), "password", "secret", "roles", List.of("CASHIER")))));
+    }
+
+    @Test
+    void updateUser() throws Exception {
+        assertFlat("PUT /api/users/{id}", 7, seeded -> put("/api/users/" + seeded.spareUserId()).contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("username", "renamed-user-" + seeded.spareUserId(), "roles", List.of("CASHIER")))));
+    }
+
+    @Test
+    void deleteUser() throws Exception {
+        assertFlat("DELETE /api/users/{id}", 5, seeded -> delete("/api/users/" + seeded.spareUserId()));
+    }
+
+    // Admin
+
+    @Test
+    void recordingStatus() throws Exception {
+        assertFlat("GET /api/admin/recording", 0, seeded -> get("/api/admin/recording"));
+    }
+
+    @Test
+    void flightRecording() throws Exception {
+        seed(SMALL);
+        assertEquals(0, countRequest("POST /api/admin/recording/start", post("/api/admin/recording/start").param("maxAgeMinutes", "1")));
+        assertEquals(0, countRequest("POST /api/admin/recording/dump", post("/api/admin/recording/dump")));
+        assertEquals(0, countRequest("POST /api/admin/recording/stop", post("/api/admin/recording/stop")));
+    }
+
+    // Authentication (no access token; the counts include the refresh token and revocation bookkeeping)
+
+    @Test
+    void login() throws Exception {
+        assertFlat("POST /api/auth/login", 1, seeded -> loginRequest());
+    }
+
+    @Test
+    void refresh() throws Exception {
+        assertFlat("POST /api/auth/refresh", 4, seeded -> post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("refreshToken", refreshToken()))));
+    }
+
+    @Test
+    void logout() throws Exception {
+        assertFlat("POST /api/auth/logout", 5, seeded -> post("/api/auth/logout").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("refreshToken", refreshToken()))));
+    }
+
+    // Scheduled jobs
+
+    @Test
+    void scheduledJobsAreNotCounted() throws Exception {
+        assertEquals(0, StatementCounting.count(() -> taskScheduler.schedule(tokenRevocationService::reload, Instant.now()).get()),
+                "statements of a job on the scheduler threads were counted, so a job running during a request changes its count");
+    }
+
+    /**
+     * Counts the request after seeding SMALL rows and again after seeding GROWTH more,
+     * and fails if the counts differ or exceed the budget.
+     */
+    private void assertFlat(String endpoint, int budget, Function<Seeded, MockHttpServletRequestBuilder> request) throws Exception {
+        Seeded seeded = seed(SMALL);
+        int small = countRequest(endpoint, request.apply(seeded));
+        seeded = seed(GROWTH);
+        int large = countRequest(endpoint, request.apply(seeded));
+        assertEquals(small, large, endpoint + " ran " + small + " SQL statements with " + SMALL + " rows per table and "
+                + large + " with " + (SMALL + GROWTH) + ": a query runs once per row");
+        assertTrue(large <= budget, endpoint + " ran " + large + " SQL statements, the budget is " + budget);
+    }
+
+    private int countRequest(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+        if (!endpoint.startsWith("POST /api/auth/")) {
+            request.header(HttpHeaders.AUTHORIZATION, "Bearer " + ownerToken);
+        }
+        MvcResult[] result = new MvcResult[1];
+        int statements = StatementCounting.count(() -> result[0] = mockMvc.perform(request).andReturn());
+        int status = result[0].getResponse().getStatus();
+        assertTrue(status < 300, endpoint + " returned " + status + ": " + result[0].getResponse().getContentAsString());
+        return statements;
+    }
+
+    private MockHttpServletRequestBuilder loginRequest() {
+        return post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content(json(Map.of("username", "owner", "password", "password")));
+    }
+
+    // Logs in outside the count, for a fresh refresh token
+    private String refreshToken() {
+        try {
+            String body = mockMvc.perform(loginRequest()).andReturn().getResponse().getContentAsString();
+            return (String) objectMapper.readValue(body, Map.class).get("refreshToken");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds count rows to every table: products (half of them below their minimum stock) with their opening
+     * stock movements, cashiers, receipts of two sales lines each, stock adjustments, plus one spare product,
+     * user and category that nothing references.
+     */
+    private Seeded seed(int count) {
+        long first = nextId;
+        nextId += count + 1;
+        long spare = first + count;
+        List<Object[]> products = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> receipts = new ArrayList<>();
+        List<Object[]> sales = new ArrayList<>();
+        List<Object[]> adjustments = new ArrayList<>();
+        List<Object[]> movements = new ArrayList<>();
+        for (long id = first; id <= spare; id++) {
+            products.add(new Object[]{id, productName(id), 10.0 + id % 7, id % 2 == 0 ? 2 : 200, 5, categoryId});
+            users.add(new Object[]{id, "counted-user-" + id, "x"});
+            movements.add(new Object[]{id, 1_000, "OPENING", null, Timestamp.valueOf(FIRST_SALE.minusDays(1))});
+        }
+        for (long id = first; id < spare; id++) {
+            long other = id + 1 < spare ? id + 1 : first;
+            Timestamp time = Timestamp.valueOf(FIRST_SALE.plusHours(id - FIRST_ID));
+            receipts.add(new Object[]{id, "COUNTED-" + id, id, time, 20.0, 20.0});
+            sales.add(new Object[]{id * 2, id, id, 1, 10.0, 10.0});
+            sales.add(new Object[]{id * 2 + 1, other, id, 1, 10.0, 10.0});
+            adjustments.add(new Object[]{id, id, 3, "ADDITION", "Delivery", id, time});
+            movements.add(new Object[]{id, -1, "SALE", id, time});
+            movements.add(new Object[]{other, -1, "SALE", id, time});
+            movements.add(new Object[]{id, 3, "ADJUSTMENT", id, time});
+        }
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (?, ?)", spare, "Counted category " + spare);
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES (?, ?, ?, ?, ?, ?)", products);
+        jdbcTemplate.batchUpdate("INSERT INTO app_users (id, username, password) VALUES (?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role_name) VALUES (?, 'CASHIER')",
+                users.stream().map(user -> new Object[]{user[0]}).toList());
+        jdbcTemplate.batchUpdate("INSERT INTO receipts (id, receipt_number, cashier_id, transaction_date, total_amount, cash_amount, mpesa_amount, payment_method) "
+                + "VALUES (?, ?, ?, ?, ?, ?, 0, 'CASH')", receipts);
+        jdbcTemplate.batchUpdate("INSERT INTO sales (id, product_id, receipt_id, quantity, unit_price, total_amount) VALUES (?, ?, ?, ?, ?, ?)", sales);
+        jdbcTemplate.batchUpdate("INSERT INTO stock_adjustments (id, product_id, quantity_change, adjustment_type, reason, adjusted_by_user_id, adjustment_date) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", adjustments);
+        jdbcTemplate.batchUpdate("INSERT INTO stock_movements (product_id, delta, movement_type, reference_id, occurred_at) VALUES (?, ?, ?, ?, ?)", movements);
+        long last = spare - 1;
+        return new Seeded(last, spare, last, last * 2, last, spare, spare, productName(last));
+    }
+
+    // Fixed width, so no product name contains another (ProductService's duplicate check)
+    private static String productName(long id) {
+        return String.format("Counted product %08d", id);
+    }
+}
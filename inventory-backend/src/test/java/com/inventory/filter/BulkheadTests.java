@@ -0,0 +1,100 @@
+package com.inventory.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Request classification, the per-class limits of BulkheadProperties and Bulkhead admission: a full class
+ * rejects instead of queueing without limit, and a full class does not hold up another.
+ */
+class BulkheadTests {
+
+    @Test
+    void requestsAreClassifiedByMethodAndPath() {
+        assertEquals(RequestClass.CHECKOUT, RequestClass.classify("POST", "/api/sales/receipts/batch"));
+        assertEquals(RequestClass.REPORTS, RequestClass.classify("GET", "/api/sales/receipts"));
+        assertEquals(RequestClass.REPORTS, RequestClass.classify("GET", "/api/stock/ledger/verify"));
+        assertEquals(RequestClass.REPORTS, RequestClass.classify("POST", "/api/products/import"));
+        assertEquals(RequestClass.CATALOG, RequestClass.classify("GET", "/api/products/42"));
+        assertEquals(RequestClass.CATALOG, RequestClass.classify("GET", "/api/dashboard/summary"));
+        assertEquals(RequestClass.OTHER, RequestClass.classify("GET", "/api/sales/receipts/7"));
+        assertEquals(RequestClass.OTHER, RequestClass.classify("POST", "/api/products"));
+        assertEquals(RequestClass.OTHER, RequestClass.classify("POST", "/api/auth/login"));
+    }
+
+    @Test
+    void limitsNotConfiguredTakeTheDefaultsOfTheirClass() {
+        BulkheadProperties defaults = new Binder(new MapConfigurationPropertySource(Map.of()))
+                .bindOrCreate("inventory.bulkhead", BulkheadProperties.class);
+        assertEquals(new BulkheadProperties.Limits(2, 4, 10000L), defaults.of(RequestClass.REPORTS));
+        assertEquals(new BulkheadProperties.Limits(20, 50, 2000L), defaults.of(RequestClass.CHECKOUT));
+
+        BulkheadProperties configured = new Binder(new MapConfigurationPropertySource(Map.of(
+                "inventory.bulkhead.reports.max-concurrent", "4",
+                "inventory.bulkhead.other.timeout-ms", "100")))
+                .bindOrCreate("inventory.bulkhead", BulkheadProperties.class);
+        assertEquals(new BulkheadProperties.Limits(4, 4, 10000L), configured.of(RequestClass.REPORTS));
+        assertEquals(new BulkheadProperties.Limits(20, 50, 100L), configured.of(RequestClass.OTHER));
+        assertEquals(defaults.of(RequestClass.CATALOG), configured.of(RequestClass.CATALOG));
+    }
+
+    @Test
+    void fullBulkheadRejectsOnceQueueIsFull() throws Exception {
+        Bulkhead reports = new Bulkhead(RequestClass.REPORTS, 1, 1, 5000);
+        assertTrue(reports.tryAcquire());
+
+        // The single queue place is taken by a request waiting in another thread
+        CountDownLatch admitted = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try {
+                if (reports.tryAcquire()) {
+                    admitted.countDown();
+                    reports.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        waiter.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (reports.getWaiting() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, reports.getWaiting());
+
+        long started = System.nanoTime();
+        assertFalse(reports.tryAcquire()); // Queue full: rejected without waiting
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) < 1000);
+
+        // The checkout bulkhead is unaffected
+        Bulkhead checkout = new Bulkhead(RequestClass.CHECKOUT, 1, 0, 0);
+        assertTrue(checkout.tryAcquire());
+        checkout.release();
+
+        reports.release();
+        assertTrue(admitted.await(5, TimeUnit.SECONDS));
+        waiter.join(5000);
+        assertEquals(0, reports.getActive());
+    }
+
+    @Test
+    void waitingRequestTimesOut() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(RequestClass.CATALOG, 1, 5, 100);
+        assertTrue(bulkhead.tryAcquire());
+
+        long started = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started) >= 90);
+        assertEquals(0, bulkhead.getWaiting());
+        assertEquals(1, bulkhead.getActive());
+    }
+}
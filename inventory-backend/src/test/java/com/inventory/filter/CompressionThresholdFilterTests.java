@@ -0,0 +1,143 @@
+package com.inventory.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CompressionThresholdFilter on an embedded Tomcat with the compression settings of application.properties.
+ * The servlet writes its body and flushes, as the Jackson message converters do: small bodies go out with a
+ * Content-Length and uncompressed, larger ones gzipped, and bodies larger than the output buffer still stream.
+ */
+class CompressionThresholdFilterTests {
+
+    private static final CountDownLatch headersReceived = new CountDownLatch(1);
+    private static volatile boolean streamed;
+
+    private static WebServer server;
+    private static final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeAll
+    static void startServer() {
+        Compression compression = new Compression();
+        compression.setEnabled(true);
+        compression.setMimeTypes(new String[] {"application/json", "application/cbor", "text/plain"});
+        compression.setMinResponseSize(DataSize.ofKilobytes(2));
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        factory.setCompression(compression);
+        server = factory.getWebServer(servletContext -> {
+            servletContext.addFilter("compressionThreshold", new CompressionThresholdFilter())
+                    .addMappingForUrlPatterns(null, false, "/*");
+            servletContext.addServlet("body", new BodyServlet()).addMapping("/body");
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void smallBodyHasContentLengthAndIsNotCompressed() throws Exception {
+        HttpResponse<byte[]> response = get(1024);
+
+        assertEquals("1024", response.headers().firstValue("Content-Length").orElse(null));
+        assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+        assertArrayEquals(body(1024), response.body());
+    }
+
+    @Test
+    void bodyOverTheThresholdIsCompressed() throws Exception {
+        HttpResponse<byte[]> response = get(4096);
+
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertArrayEquals(body(4096), gunzip(response.body()));
+    }
+
+    @Test
+    void bodyLargerThanTheBufferStillStreams() throws Exception {
+        int size = 64 * 1024;
+        // Returns as soon as the headers arrive, while the servlet waits for them before it finishes
+        HttpResponse<InputStream> response = client.send(request(size), HttpResponse.BodyHandlers.ofInputStream());
+        headersReceived.countDown();
+
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        try (InputStream body = new GZIPInputStream(response.body())) {
+            assertArrayEquals(body(size), body.readAllBytes());
+        }
+        assertTrue(streamed, "the response was sent before the servlet finished writing it");
+    }
+
+    private static HttpResponse<byte[]> get(int size) throws IOException, InterruptedException {
+        return client.send(request(size), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static HttpRequest request(int size) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + "/body?size=" + size))
+                .header("Accept-Encoding", "gzip")
+                .build();
+    }
+
+    // Random, so that a compressed body is about as large as the original
+    private static byte[] body(int size) {
+        byte[] body = new byte[size];
+        new Random(size).nextBytes(body);
+        return body;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Writes ?size random bytes as application/json in 1 KB writes, then flushes like a message converter.
+     * Bodies over 8 KB then wait until the client has received the headers.
+     */
+    private static class BodyServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            byte[] body = body(Integer.parseInt(request.getParameter("size")));
+            response.setContentType("application/json");
+            ServletOutputStream out = response.getOutputStream();
+            for (int off = 0; off < body.length; off += 1024) {
+                out.write(body, off, Math.min(1024, body.length - off));
+                if (off == 32 * 1024) {
+                    try {
+                        streamed = headersReceived.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.inventory.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * TokenBucket refill arithmetic, AdaptiveConcurrencyLimit's increase and decrease, and which bucket
+ * RateLimitFilter charges a request to.
+ */
+class RateLimitTests {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bucketAllowsBurstThenRefillRate() {
+        long now = 0;
+        TokenBucket bucket = new TokenBucket(3, 2, now);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(now));
+        }
+        long wait = bucket.tryConsume(now);
+        assertEquals(SECOND / 2, wait, 1000); // Two tokens per second
+
+        assertTrue(bucket.tryConsume(now + SECOND / 4) > 0);
+        assertEquals(0, bucket.tryConsume(now + SECOND / 2));
+        assertFalse(bucket.isFull(now + SECOND / 2));
+        assertTrue(bucket.isFull(now + 10 * SECOND));
+    }
+
+    @Test
+    void concurrencyLimitRejectsAtLimitAndShrinksOnSlowRequests() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 2, 10, 100, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        assertFalse(limit.tryAcquire());
+
+        limit.release(TimeUnit.MILLISECONDS.toNanos(500), true); // Slower than the 100 ms target
+        assertEquals(2, limit.getLimit());
+        limit.release(TimeUnit.MILLISECONDS.toNanos(500), true); // Within the same target window: no second decrease
+        assertEquals(2, limit.getLimit());
+        assertEquals(2, limit.getInFlight());
+        assertFalse(limit.tryAcquire());
+    }
+
+    @Test
+    void concurrencyLimitGrowsWhileFastAndBusy() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 2, 10, 100, 0.5);
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limit.tryAcquire());
+            assertTrue(limit.tryAcquire());
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5), true);
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5), false); // Not sampled (e.g. a report)
+        }
+        assertTrue(limit.getLimit() > 2);
+        assertTrue(limit.getLimit() <= 10);
+    }
+
+    @Test
+    void anonymousRequestsAreLimitedByAddressWhateverTheTerminalId() throws Exception {
+        RateLimitFilter filter = filter(3, 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, login(filter, "10.0.0.1", "till-" + i));
+        }
+        // A new terminal ID each time does not buy a new burst
+        assertEquals(429, login(filter, "10.0.0.1", "till-3"));
+        assertEquals(429, login(filter, "10.0.0.1", null));
+        assertEquals(200, login(filter, "10.0.0.2", "till-3"));
+    }
+
+    @Test
+    void terminalsBeyondTheLimitShareTheUsersBucket() throws Exception {
+        RateLimitFilter filter = filter(2, 2);
+        for (String terminal : List.of("till-1", "till-2")) {
+            assertEquals(200, products(filter, "cashier", terminal));
+            assertEquals(200, products(filter, "cashier", terminal));
+            assertEquals(429, products(filter, "cashier", terminal));
+        }
+        // The third and further terminals draw from the user's own bucket, not from new ones or a shared one
+        assertEquals(200, products(filter, "cashier", "till-3"));
+        assertEquals(200, products(filter, "cashier", "till-4"));
+        assertEquals(429, products(filter, "cashier", "till-5"));
+        assertEquals(429, products(filter, "cashier", null));
+
+        assertEquals(200, products(filter, "manager", "till-9"));
+    }
+
+    @Test
+    void evictedTerminalsFreeTheirPlace() throws Exception {
+        RateLimitFilter filter = filter(1, 1);
+        assertEquals(200, products(filter, "cashier", "till-1"));
+        assertEquals(200, products(filter, "cashier", "till-2")); // The user's own bucket
+        assertEquals(429, products(filter, "cashier", "till-3"));
+
+        Thread.sleep(1100); // Refills every bucket, so they are idle
+        filter.evictIdleBuckets();
+        assertEquals(200, products(filter, "cashier", "till-3"));
+        assertEquals(200, products(filter, "cashier", "till-4")); // till-3 took the terminal place, so the user's bucket
+        assertEquals(429, products(filter, "cashier", "till-5"));
+    }
+
+    private static RateLimitFilter filter(int burst, int maxTerminalsPerUser) {
+        RateLimitFilter filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "rateLimitEnabled", true);
+        ReflectionTestUtils.setField(filter, "burst", burst);
+        ReflectionTestUtils.setField(filter, "requestsPerSecond", 1.0);
+        ReflectionTestUtils.setField(filter, "maxClients", 100);
+        ReflectionTestUtils.setField(filter, "maxTerminalsPerUser", maxTerminalsPerUser);
+        ReflectionTestUtils.setField(filter, "concurrencyLimitEnabled", false);
+        filter.init();
+        return filter;
+    }
+
+    private static int login(RateLimitFilter filter, String remoteAddress, String terminalId) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddress);
+        return send(filter, request, terminalId);
+    }
+
+    private static int products(RateLimitFilter filter, String username, String terminalId) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null, List.of()));
+        return send(filter, new MockHttpServletRequest("GET", "/api/products"), terminalId);
+    }
+
+    private static int send(RateLimitFilter filter, MockHttpServletRequest request, String terminalId) throws Exception {
+        if (terminalId != null) {
+            request.addHeader(RateLimitFilter.TERMINAL_ID_HEADER, terminalId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventory.filter;
+
+import com.inventory.metrics.RequestTiming;
+import com.inventory.metrics.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RequestMetricsFilter: the statements of one request are recorded as inventory.db.statements under the
+ * matched URI pattern, counting from the start of the request, also when the request fails.
+ */
+class RequestMetricsFilterTests {
+
+    private final StatementCounter statementCounter = new StatementCounter();
+    private SimpleMeterRegistry meterRegistry;
+    private RequestMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RequestMetricsFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.end();
+        StatementCounter.reset();
+    }
+
+    @Test
+    void recordsStatementsOfTheRequestByUriPattern() throws Exception {
+        statementCounter.inspect("select 1"); // Before the request: not counted
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/42");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            statementCounter.inspect("select product");
+            statementCounter.inspect("select category");
+            statementCounter.inspect("select stock");
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/products/{id}");
+        });
+
+        DistributionSummary statements = meterRegistry.get("inventory.db.statements")
+                .tag("method", "GET").tag("uri", "/api/products/{id}").summary();
+        assertEquals(1, statements.count());
+        assertEquals(3, statements.totalAmount());
+        assertNull(meterRegistry.find("inventory.db.statements").tag("uri", "/api/products/42").summary(),
+                "the raw path must not become a tag, or every ID gets its own time series");
+    }
+
+    @Test
+    void failedAndUnmatchedRequestsAreRecorded() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/nowhere");
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            statementCounter.inspect("select 1");
+            throw new IllegalStateException("handler failed");
+        }));
+
+        DistributionSummary statements = meterRegistry.get("inventory.db.statements")
+                .tag("method", "POST").tag("uri", "UNKNOWN").summary();
+        assertEquals(1, statements.count());
+        assertEquals(1, statements.totalAmount());
+    }
+
+    @Test
+    void marksTheEndOfTheSecurityFilters() throws Exception {
+        // Once untimed, so class loading on the first call does not count as security filter time
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(), (req, res) -> { });
+
+        RequestTiming timing = RequestTiming.start("trace");
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/products"), new MockHttpServletResponse(),
+                (req, res) -> {
+                    long end = System.nanoTime() + 50_000_000;
+                    while (System.nanoTime() < end) {
+                        Thread.onSpinWait(); // The application at work
+                    }
+                });
+
+        // The 50 ms inside the chain count as app time, not as security filter time
+        String serverTiming = timing.toServerTiming();
+        double app = Double.parseDouble(serverTiming.replaceAll(".*app;dur=([0-9.]+).*", "$1"));
+        double security = Double.parseDouble(serverTiming.replaceAll(".*security;dur=([0-9.]+).*", "$1"));
+        assertTrue(app >= 50 && security < 50, serverTiming);
+    }
+}
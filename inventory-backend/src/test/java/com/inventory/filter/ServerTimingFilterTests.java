@@ -0,0 +1,134 @@
+package com.inventory.filter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ServerTimingFilter on an embedded Tomcat, behind CompressionThresholdFilter as in the application: the
+ * Server-Timing and X-Trace-Id headers reach the client whether the body fits in the response buffer or not,
+ * and also for character output and errors. An invalid client trace ID is replaced.
+ */
+class ServerTimingFilterTests {
+
+    private static WebServer server;
+    private static final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeAll
+    static void startServer() {
+        server = new TomcatServletWebServerFactory(0).getWebServer(servletContext -> {
+            servletContext.addFilter("compressionThreshold", new CompressionThresholdFilter())
+                    .addMappingForUrlPatterns(null, false, "/*");
+            servletContext.addFilter("serverTiming", new ServerTimingFilter())
+                    .addMappingForUrlPatterns(null, true, "/*");
+            servletContext.addServlet("body", new BodyServlet()).addMapping("/body");
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Test
+    void smallBodyCarriesTheHeaders() throws Exception {
+        HttpResponse<byte[]> response = get("/body?size=1024", null);
+
+        assertEquals(1024, response.body().length);
+        assertTimed(response);
+    }
+
+    @Test
+    void bodyLargerThanTheBufferCarriesTheHeaders() throws Exception {
+        HttpResponse<byte[]> response = get("/body?size=" + 64 * 1024, null);
+
+        assertEquals(64 * 1024, response.body().length);
+        assertTimed(response);
+    }
+
+    @Test
+    void characterOutputAndErrorsCarryTheHeaders() throws Exception {
+        HttpResponse<byte[]> text = get("/body?mode=writer", null);
+        assertEquals("ok", new String(text.body()));
+        assertTimed(text);
+
+        HttpResponse<byte[]> error = get("/body?mode=error", null);
+        assertEquals(409, error.statusCode());
+        assertTimed(error);
+    }
+
+    @Test
+    void clientTraceIdIsKeptWhenValidAndReplacedOtherwise() throws Exception {
+        assertEquals("till-7-checkout-42", traceId(get("/body?size=10", "till-7-checkout-42")));
+
+        for (String invalid : new String[] {"has spaces", "semi;colon", "x".repeat(65)}) {
+            String traceId = traceId(get("/body?size=10", invalid));
+            assertNotEquals(invalid, traceId);
+            assertTrue(traceId.matches("[0-9a-f]{16}"), traceId);
+        }
+    }
+
+    private static void assertTimed(HttpResponse<?> response) {
+        String serverTiming = response.headers().firstValue("Server-Timing").orElse("");
+        assertTrue(serverTiming.contains("total;dur="), "Server-Timing: " + serverTiming);
+        assertTrue(traceId(response).matches("[0-9a-f]{16}"), "X-Trace-Id: " + traceId(response));
+    }
+
+    private static String traceId(HttpResponse<?> response) {
+        return response.headers().firstValue(ServerTimingFilter.TRACE_ID_HEADER).orElse("");
+    }
+
+    private static HttpResponse<byte[]> get(String path, String traceId) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path));
+        if (traceId != null) {
+            request.header(ServerTimingFilter.TRACE_ID_HEADER, traceId);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    /**
+     * Writes ?size bytes in 1 KB writes and flushes like a message converter; ?mode=writer writes text
+     * and ?mode=error answers with an error instead.
+     */
+    private static class BodyServlet extends HttpServlet {
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            String mode = request.getParameter("mode");
+            if ("writer".equals(mode)) {
+                response.setContentType("text/plain");
+                response.getWriter().write("ok");
+                return;
+            }
+            if ("error".equals(mode)) {
+                response.sendError(HttpServletResponse.SC_CONFLICT, "conflict");
+                return;
+            }
+            byte[] chunk = new byte[1024];
+            Arrays.fill(chunk, (byte) 'a');
+            response.setContentType("application/json");
+            ServletOutputStream out = response.getOutputStream();
+            for (int remaining = Integer.parseInt(request.getParameter("size")); remaining > 0; remaining -= chunk.length) {
+                out.write(chunk, 0, Math.min(chunk.length, remaining));
+            }
+            out.flush();
+        }
+    }
+}
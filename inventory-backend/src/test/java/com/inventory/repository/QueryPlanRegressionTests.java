@@ -0,0 +1,186 @@
+package com.inventory.repository;
+
+import com.inventory.model.Receipt;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Query-plan regression tests for the hot repository queries.
+ * Seeds an H2 database (schema created by the Flyway migrations), calls the repository methods,
+ * captures the SQL Hibernate generates for them with a StatementInspector, runs EXPLAIN on it and
+ * fails if any of them falls back to a full table scan. Queries with no repository method yet
+ * (the date-bounded adjustment history) are still written out by hand.
+ */
+@DataJpaTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryPlanRegressionTests {
+
+    private static final int PRODUCTS = 200;
+    private static final int RECEIPTS = 20_000;
+    private static final int ADJUSTMENTS = 5_000;
+    private static final LocalDateTime JUNE_START = LocalDateTime.of(2023, 6, 1, 0, 0);
+    private static final LocalDateTime JUNE_END = LocalDateTime.of(2023, 6, 30, 23, 59, 59);
+
+    // SQL of the statements Hibernate prepared since the last capture (the tests run on one thread)
+    private static final List<String> CAPTURED_SQL = new CopyOnWriteArrayList<>();
+
+    /**
+     * Replaces the application's statement inspector with one that records the generated SQL.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SqlCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer sqlCapture() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                CAPTURED_SQL.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private SalesRepository salesRepository;
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO app_users (id, username, password) VALUES (1, 'owner', 'x'), (2, 'cashier', 'x')");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Drinks')");
+
+        List<Object[]> products = new ArrayList<>();
+        for (int i = 1; i <= PRODUCTS; i++) {
+            products.add(new Object[]{i, "Product " + i, 10.0, 100, 5, 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES (?, ?, ?, ?, ?, ?)", products);
+
+        String[] paymentMethods = {"CASH", "MPESA", "MIXED"};
+        LocalDateTime start = LocalDateTime.of(2023, 1, 1, 8, 0);
+        List<Object[]> receipts = new ArrayList<>();
+        List<Object[]> sales = new ArrayList<>();
+        for (int i = 1; i <= RECEIPTS; i++) {
+            receipts.add(new Object[]{i, "R" + i, (i % 2) + 1, Timestamp.valueOf(start.plusMinutes(i * 30L)),
+                    20.0, paymentMethods[i % 3], 20.0, 0.0});
+            sales.add(new Object[]{i * 2 - 1, (i % PRODUCTS) + 1, i, 1, 10.0, 10.0});
+            sales.add(new Object[]{i * 2, ((i + 7) % PRODUCTS) + 1, i, 1, 10.0, 10.0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO receipts (id, receipt_number, cashier_id, transaction_date, total_amount, payment_method, cash_amount, mpesa_amount) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", receipts);
+        jdbcTemplate.batchUpdate("INSERT INTO sales (id, product_id, receipt_id, quantity, unit_price, total_amount) VALUES (?, ?, ?, ?, ?, ?)", sales);
+
+        List<Object[]> adjustments = new ArrayList<>();
+        for (int i = 1; i <= ADJUSTMENTS; i++) {
+            adjustments.add(new Object[]{i, (i % PRODUCTS) + 1, 1, "ADDITION", "Restock", 1, Timestamp.valueOf(start.plusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO stock_adjustments (id, product_id, quantity_change, adjustment_type, reason, adjusted_by_user_id, adjustment_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", adjustments);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void receiptDateRangeFilterUsesIndex() {
+        String sql = capture(() -> receiptRepository.findFilteredReceipts(JUNE_START, JUNE_END, null, null, null));
+        assertNoTableScan(sql, List.of(Timestamp.valueOf(JUNE_START), Timestamp.valueOf(JUNE_END)), "RECEIPTS", "SALES", "PRODUCTS");
+    }
+
+    @Test
+    void receiptCashierFilterUsesIndex() {
+        String sql = capture(() -> receiptRepository.findFilteredReceipts(null, null, 2L, null, null));
+        assertNoTableScan(sql, List.of(2L), "RECEIPTS", "SALES", "PRODUCTS");
+    }
+
+    @Test
+    void receiptPaymentMethodAndDateFilterUsesIndex() {
+        String sql = capture(() -> receiptRepository.findFilteredReceipts(JUNE_START, null, null, Receipt.PaymentMethod.MPESA, null));
+        assertNoTableScan(sql, List.of(Timestamp.valueOf(JUNE_START), "MPESA"), "RECEIPTS", "SALES", "PRODUCTS");
+    }
+
+    @Test
+    void receiptAllFiltersUsesIndex() {
+        String sql = capture(() -> receiptRepository.findFilteredReceipts(JUNE_START, JUNE_END, 2L, Receipt.PaymentMethod.CASH, "Product 1"));
+        assertNoTableScan(sql, List.of(Timestamp.valueOf(JUNE_START), Timestamp.valueOf(JUNE_END), 2L, "CASH", "%Product 1%"),
+                "RECEIPTS", "SALES", "PRODUCTS");
+    }
+
+    @Test
+    void receiptByIdWithSalesUsesIndex() {
+        String sql = capture(() -> receiptRepository.findReceiptByIdWithSalesAndCashier(42L));
+        assertNoTableScan(sql, List.of(42L), "RECEIPTS", "SALES");
+    }
+
+    @Test
+    void salesByProductUsesIndex() {
+        assertNoTableScan(capture(() -> salesRepository.existsByProductId(17L)), List.of(17L), "SALES");
+        assertNoTableScan(capture(() -> salesRepository.findByProductId(17L)), List.of(17L), "SALES");
+    }
+
+    @Test
+    void stockAdjustmentHistoryUsesIndex() {
+        // StockAdjustmentRepository.findAllByOrderByAdjustmentDateDesc (first page) and a date-bounded history
+        assertNoTableScan("SELECT sa.id FROM stock_adjustments sa ORDER BY sa.adjustment_date DESC FETCH FIRST 100 ROWS ONLY", "STOCK_ADJUSTMENTS");
+        assertNoTableScan("SELECT sa.id FROM stock_adjustments sa " +
+                "WHERE sa.adjustment_date >= TIMESTAMP '2023-03-01 00:00:00' ORDER BY sa.adjustment_date DESC", "STOCK_ADJUSTMENTS");
+    }
+
+    /**
+     * Runs the repository call and returns the SQL of the first statement Hibernate generated for it
+     * (the query itself; eager associations may be loaded by further statements).
+     */
+    private String capture(Runnable repositoryCall) {
+        CAPTURED_SQL.clear();
+        repositoryCall.run();
+        assertFalse(CAPTURED_SQL.isEmpty(), "The repository call ran no statement");
+        return CAPTURED_SQL.get(0);
+    }
+
+    /**
+     * Runs EXPLAIN for the generated query, with its parameters bound in order, and fails if H2 plans
+     * a full scan of any of the given tables.
+     */
+    private void assertNoTableScan(String sql, List<Object> parameters, String... tables) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, parameters.toArray());
+        for (String table : tables) {
+            assertPlanHasNoTableScan(plan, table);
+        }
+    }
+
+    /**
+     * Runs EXPLAIN for the query and fails if H2 plans a full scan of the given table.
+     */
+    private void assertNoTableScan(String sql, String table) {
+        assertPlanHasNoTableScan(jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class), table);
+    }
+
+    private void assertPlanHasNoTableScan(String plan, String table) {
+        String scanMarker = ("PUBLIC." + table + ".tableScan").toUpperCase(Locale.ROOT);
+        assertFalse(plan.toUpperCase(Locale.ROOT).contains(scanMarker),
+                () -> "Query plan falls back to a full scan of " + table + ":\n" + plan);
+    }
+}
@@ -0,0 +1,118 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for DashboardService: the overview aggregates, and stale pieces with their last known values
+ * when the queries cannot finish within the timeout.
+ */
+@DataJpaTest
+@Import(DashboardService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DashboardServiceTests {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM sales");
+        jdbcTemplate.update("DELETE FROM receipts");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM app_users");
+        jdbcTemplate.update("INSERT INTO app_users (id, username, password) VALUES (1, 'cashier', 'x')");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Drinks')");
+        jdbcTemplate.update("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES " +
+                "(1, 'Soda', 50.0, 100, 10, 1), (2, 'Water', 30.0, 3, 5, 1), (3, 'Juice', 80.0, 0, 0, 1)");
+
+        Timestamp today = Timestamp.valueOf(LocalDate.now().atStartOfDay().plusMinutes(1));
+        Timestamp lastMonth = Timestamp.valueOf(LocalDate.now().minusDays(30).atStartOfDay());
+        String receipt = "INSERT INTO receipts (id, receipt_number, cashier_id, transaction_date, total_amount, payment_method, cash_amount, mpesa_amount) " +
+                "VALUES (?, ?, 1, ?, ?, ?, 0, 0)";
+        jdbcTemplate.update(receipt, 1, "R1", today, 130.0, "CASH");
+        jdbcTemplate.update(receipt, 2, "R2", today, 90.0, "MPESA");
+        jdbcTemplate.update(receipt, 3, "R3", lastMonth, 800.0, "CASH");
+        String sale = "INSERT INTO sales (id, product_id, receipt_id, quantity, unit_price, total_amount) VALUES (?, ?, ?, ?, ?, ?)";
+        jdbcTemplate.update(sale, 1, 1, 1, 2, 50.0, 100.0);
+        jdbcTemplate.update(sale, 2, 2, 1, 1, 30.0, 30.0);
+        jdbcTemplate.update(sale, 3, 2, 2, 3, 30.0, 90.0);
+        jdbcTemplate.update(sale, 4, 3, 3, 10, 80.0, 800.0); // Outside the top sellers period
+        ReflectionTestUtils.setField(dashboardService, "queryTimeoutMillis", 5000L);
+    }
+
+    @Test
+    void overviewAggregatesTodayAndTopSellers() {
+        DashboardService.Overview overview = dashboardService.overview();
+
+        assertTrue(overview.isComplete());
+        assertEquals(3L, overview.getProductCount().getValue());
+        assertEquals(2, overview.getLowStock().getValue().size()); // Juice (0 <= 0) and Water (3 <= 5), by name
+        assertEquals("Juice", overview.getLowStock().getValue().get(0).name());
+        assertEquals(2, overview.getTodaySales().getValue().getReceipts());
+        assertEquals(220.0, overview.getTodaySales().getValue().getAmount(), 0.001);
+        assertEquals(2, overview.getPaymentMethods().getValue().size());
+        assertEquals("CASH", overview.getPaymentMethods().getValue().get(0).getPaymentMethod());
+        assertEquals(130.0, overview.getPaymentMethods().getValue().get(0).getAmount(), 0.001);
+        assertEquals("Water", overview.getTopSellers().getValue().get(0).getName());
+        assertEquals(4, overview.getTopSellers().getValue().get(0).getQuantity());
+        assertEquals(2, overview.getTopSellers().getValue().size());
+        assertFalse(overview.getTopSellers().isStale());
+    }
+
+    @Test
+    void slowQueriesReturnLastKnownValuesMarkedStale() throws Exception {
+        DashboardService.Overview fresh = dashboardService.overview();
+        assertTrue(fresh.isComplete());
+
+        // Occupy every query thread, so the next overview's queries cannot run in time
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(dashboardService, "executor");
+        int threads = (int) ReflectionTestUtils.getField(dashboardService, "threads");
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> release.await(10, TimeUnit.SECONDS));
+        }
+        jdbcTemplate.update("DELETE FROM sales WHERE receipt_id = 2");
+        jdbcTemplate.update("DELETE FROM receipts WHERE id = 2");
+        ReflectionTestUtils.setField(dashboardService, "queryTimeoutMillis", 200L);
+        try {
+            DashboardService.Overview partial = dashboardService.overview();
+
+            assertFalse(partial.isComplete());
+            assertTrue(partial.getTodaySales().isStale());
+            assertEquals(2, partial.getTodaySales().getValue().getReceipts()); // The earlier value
+            assertEquals(fresh.getTodaySales().getAsOf(), partial.getTodaySales().getAsOf());
+            assertTrue(partial.getTodaySales().getError().contains("timed out"));
+        } finally {
+            release.countDown();
+        }
+
+        ReflectionTestUtils.setField(dashboardService, "queryTimeoutMillis", 5000L);
+        DashboardService.Overview recovered = dashboardService.overview();
+        assertTrue(recovered.isComplete());
+        assertEquals(1, recovered.getTodaySales().getValue().getReceipts());
+        assertNull(recovered.getTodaySales().getError());
+    }
+}
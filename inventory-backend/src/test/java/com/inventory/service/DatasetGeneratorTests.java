@@ -0,0 +1,110 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for DatasetGenerator at a small scale: the configured volumes, consistency of receipts with their
+ * sales and of stock with the ledger, and the same data from the same seed.
+ */
+@DataJpaTest
+@Import({DatasetGenerator.class, StockLedgerService.class, DatasetGeneratorTests.Encoder.class})
+@TestPropertySource(properties = {
+        "inventory.datagen.enabled=true",
+        "inventory.datagen.categories=5",
+        "inventory.datagen.products=200",
+        "inventory.datagen.cashiers=3",
+        "inventory.datagen.sales-lines=3000",
+        "inventory.datagen.years=1",
+        "inventory.datagen.stock-adjustments=150",
+        "inventory.datagen.batch-size=100",
+        "inventory.datagen.end-date=2024-06-01"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatasetGeneratorTests {
+
+    @TestConfiguration
+    static class Encoder {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private DatasetGenerator generator;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM stock_snapshots");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM stock_adjustments");
+        jdbcTemplate.update("DELETE FROM sales");
+        jdbcTemplate.update("DELETE FROM receipts");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM user_roles");
+        jdbcTemplate.update("DELETE FROM app_users");
+        jdbcTemplate.update("INSERT INTO app_users (id, username, password) VALUES (1, 'owner', 'x')");
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_name) VALUES (1, 'OWNER')");
+    }
+
+    @Test
+    void generatesConsistentData() {
+        DatasetGenerator.GenerationResult result = generator.generate();
+
+        assertEquals(200, count("products"));
+        assertEquals(3000, count("sales"));
+        assertEquals(result.getReceipts(), count("receipts"));
+        assertEquals(150, count("stock_adjustments"));
+        assertEquals(4, count("app_users"));
+        assertEquals(0, count("receipts r WHERE ABS(r.total_amount - (SELECT SUM(s.total_amount) FROM sales s WHERE s.receipt_id = r.id)) > 0.001"));
+        assertEquals(0, count("receipts WHERE transaction_date < TIMESTAMP '2023-06-01 00:00:00' OR transaction_date >= TIMESTAMP '2024-06-01 00:00:00'"));
+        assertEquals(0, count("products WHERE quantity < 0"));
+        assertTrue(stockLedgerService.verify().isEmpty());
+        // Dropped for the bulk load and rebuilt afterwards
+        assertEquals(1, count("INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_STOCK_MOVEMENTS_PRODUCT_OCCURRED'"));
+    }
+
+    @Test
+    void sameSeedSameData() {
+        generator.generate();
+        List<Map<String, Object>> first = fingerprint();
+        clear();
+        generator.generate();
+        assertEquals(first, fingerprint());
+    }
+
+    private List<Map<String, Object>> fingerprint() {
+        return jdbcTemplate.queryForList("SELECT p.name, p.price, p.quantity, "
+                + "(SELECT COALESCE(SUM(s.quantity), 0) FROM sales s WHERE s.product_id = p.id) AS sold "
+                + "FROM products p ORDER BY p.name");
+    }
+
+    private long count(String tableAndCondition) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableAndCondition, Long.class);
+    }
+}
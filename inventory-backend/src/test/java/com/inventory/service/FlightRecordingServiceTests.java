@@ -0,0 +1,86 @@
+package com.inventory.service;
+
+import com.inventory.metrics.CheckoutEvent;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for FlightRecordingService: the recording is bounded, only one runs at a time,
+ * and dumps contain the application's events.
+ */
+@DataJpaTest
+@Import(FlightRecordingService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightRecordingServiceTests {
+
+    @TempDir
+    static Path recordingDir;
+
+    @DynamicPropertySource
+    static void recordingProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.jfr.directory", () -> recordingDir.toString());
+        registry.add("inventory.jfr.settings", () -> "default");
+        registry.add("inventory.jfr.max-age-minutes", () -> 10);
+    }
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @AfterEach
+    void close() {
+        flightRecordingService.close();
+    }
+
+    @Test
+    void dumpsApplicationEvents() throws Exception {
+        FlightRecordingService.RecordingStatus started = flightRecordingService.start(60L, null);
+        assertTrue(started.isRunning());
+        assertEquals(10, started.getMaxAgeMinutes()); // Capped at inventory.jfr.max-age-minutes
+
+        CheckoutEvent event = new CheckoutEvent();
+        event.begin();
+        event.receiptId = 42;
+        event.lines = 3;
+        event.outcome = "OK";
+        event.commit();
+
+        FlightRecordingService.RecordingStatus stopped = flightRecordingService.stop();
+        assertFalse(stopped.isRunning());
+        List<RecordedEvent> checkouts = RecordingFile.readAllEvents(Paths.get(stopped.getLastDump())).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.inventory.Checkout"))
+                .toList();
+        assertEquals(1, checkouts.size());
+        assertEquals(42, checkouts.get(0).getLong("receiptId"));
+        assertEquals(3, checkouts.get(0).getInt("lines"));
+        assertEquals(0, checkouts.get(0).getInt("retries"));
+    }
+
+    @Test
+    void oneRecordingAtATime() {
+        assertThrows(IllegalStateException.class, () -> flightRecordingService.dump());
+        flightRecordingService.start(null, null);
+        assertThrows(IllegalStateException.class, () -> flightRecordingService.start(null, null));
+        assertTrue(flightRecordingService.dump().getLastDump().startsWith(recordingDir.toString()));
+        flightRecordingService.stop();
+        assertThrows(IllegalStateException.class, () -> flightRecordingService.stop());
+    }
+}
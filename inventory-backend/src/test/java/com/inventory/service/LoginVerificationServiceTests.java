@@ -0,0 +1,87 @@
+package com.inventory.service;
+
+import com.inventory.service.exception.LoginCapacityExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for LoginVerificationService admission control: verifications beyond the pool and queue
+ * capacity are rejected immediately, and authentication failures reach the caller unchanged.
+ */
+class LoginVerificationServiceTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private LoginVerificationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new LoginVerificationService();
+        ReflectionTestUtils.setField(service, "authenticationManager", (AuthenticationManager) authentication -> {
+            if ("wrong".equals(authentication.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            try {
+                release.await(5, TimeUnit.SECONDS); // Simulates a slow BCrypt check
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new UsernamePasswordAuthenticationToken(authentication.getName(), null, List.of());
+        });
+        ReflectionTestUtils.setField(service, "threads", 1);
+        ReflectionTestUtils.setField(service, "queueCapacity", 1);
+        ReflectionTestUtils.setField(service, "timeoutMillis", 5000L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        service.shutdown();
+    }
+
+    @Test
+    void rejectsLoginsBeyondPoolAndQueueCapacity() throws Exception {
+        Future<Authentication> running = callers.submit(() -> service.authenticate("owner", "password"));
+        Future<Authentication> queued = callers.submit(() -> service.authenticate("cashier", "password"));
+        waitUntil(() -> service.getQueuedCount() == 1);
+
+        assertThrows(LoginCapacityExceededException.class, () -> service.authenticate("third", "password"));
+
+        release.countDown();
+        assertEquals("owner", running.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("cashier", queued.get(5, TimeUnit.SECONDS).getName());
+    }
+
+    @Test
+    void badCredentialsAreRethrown() {
+        assertThrows(BadCredentialsException.class, () -> service.authenticate("owner", "wrong"));
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition not reached in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.inventory.service;
+
+import com.inventory.model.Category;
+import com.inventory.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for ProductImportService: invalid rows are reported while the valid rows around them are imported,
+ * and duplicate names are rejected by the same rule as ProductService.saveProduct.
+ */
+@DataJpaTest
+@Import({ProductImportService.class, ProductService.class, StockLedgerService.class})
+@TestPropertySource(properties = "inventory.import.batch-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportServiceTests {
+
+    private static final String HEADER = "name,description,price,quantity,minStockLevel,category\n";
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM stock_snapshots");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Drinks'), (2, 'Snacks')");
+        jdbcTemplate.update("INSERT INTO products (name, price, quantity, min_stock_level, category_id) VALUES ('Soda', 50.0, 10, 1, 1)");
+    }
+
+    @Test
+    void invalidRowsAreReportedAndTheRestImported() throws IOException {
+        List<ProductImportService.ImportResult> progress = new ArrayList<>();
+        ProductImportService.ImportResult result = productImportService.importProducts(new StringReader(HEADER +
+                "Water,,30,12,2,Drinks\n" +                       // line 2
+                "Crisps,,abc,5,1,Snacks\n" +                      // line 3: bad price
+                ",,20,5,1,Snacks\n" +                             // line 4: no name
+                "Juice,,60,-1,1,Drinks\n" +                       // line 5: negative quantity
+                "Nuts,,40,5,1,Toys\n" +                           // line 6: unknown category
+                "\"Cake, chocolate\",\"Sliced\nto order\",80,3,1,2\n" + // lines 7-8: category by ID
+                "Gum,,10,,,Snacks\n" +                            // line 9: quantity and minimum default to 0
+                "\n" +
+                "Tea,,25,7,1,drinks\n"), progress::add);          // line 11: category name ignores case
+
+        assertEquals(8, result.getRowsRead());
+        assertEquals(4, result.getImported());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(3L, 4L, 5L, 6L), result.getErrors().stream().map(ProductImportService.RowError::getLine).collect(Collectors.toList()));
+        assertEquals("Invalid number for 'price': abc", result.getErrors().get(0).getMessage());
+        assertEquals("Category not found: Toys", result.getErrors().get(3).getMessage());
+        assertEquals(2, progress.size(), "one progress call per committed batch of 2");
+
+        assertEquals(List.of("Cake, chocolate", "Gum", "Soda", "Tea", "Water"),
+                jdbcTemplate.queryForList("SELECT name FROM products ORDER BY name", String.class));
+        assertEquals("Sliced\nto order", jdbcTemplate.queryForObject("SELECT description FROM products WHERE name = 'Cake, chocolate'", String.class));
+        assertEquals(2L, jdbcTemplate.queryForObject("SELECT category_id FROM products WHERE name = 'Cake, chocolate'", Long.class));
+        // The imported stock is in the ledger; Gum has none
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_movements WHERE movement_type = 'IMPORT'", Integer.class));
+    }
+
+    @Test
+    void duplicateNamesIgnoreCaseAndSurroundingWhitespace() throws IOException {
+        ProductImportService.ImportResult result = productImportService.importProducts(new StringReader(HEADER +
+                " SODA ,,50,1,1,Drinks\n" +   // line 2: same name as the existing Soda
+                "Soda Water,,60,1,1,Drinks\n" + // line 3: contains the name, but is a different product
+                "Water,,30,1,1,Drinks\n" +
+                "water,,30,1,1,Drinks\n"), null); // line 5: same name as line 4
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(2L, 5L), result.getErrors().stream().map(ProductImportService.RowError::getLine).collect(Collectors.toList()));
+        assertEquals("Product with name 'SODA' already exists.", result.getErrors().get(0).getMessage());
+        assertEquals(List.of("Soda", "Soda Water", "Water"), jdbcTemplate.queryForList("SELECT name FROM products ORDER BY name", String.class));
+    }
+
+    @Test
+    void saveProductAppliesTheSameDuplicateRule() {
+        Category drinks = new Category();
+        drinks.setId(1L);
+        assertThrows(IllegalArgumentException.class, () -> productService.saveProduct(new Product(" sOdA ", null, 50.0, 1, 1, drinks)));
+
+        Product sodaWater = productService.saveProduct(new Product(" Soda Water ", null, 60.0, 1, 1, drinks));
+        assertEquals("Soda Water", sodaWater.getName());
+        // A name contained in an existing one is not a duplicate
+        assertEquals("Sod", productService.saveProduct(new Product("Sod", null, 40.0, 1, 1, drinks)).getName());
+    }
+
+    @Test
+    void missingRequiredColumnsRejectTheFile() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productImportService.importProducts(new StringReader("name,description\nWater,\n"), null));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class));
+    }
+}
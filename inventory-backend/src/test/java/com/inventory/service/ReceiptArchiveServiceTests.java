@@ -0,0 +1,146 @@
+package com.inventory.service;
+
+import com.inventory.model.Receipt;
+import com.inventory.model.Sale;
+import com.inventory.repository.ReceiptRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round-trip tests for ReceiptArchiveService: receipts before the cutoff leave the live tables
+ * and are found again through the sparse block index, with the same filters as the live search.
+ */
+@DataJpaTest
+@Import(ReceiptArchiveService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReceiptArchiveServiceTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2023, 1, 1, 9, 0);
+
+    @TempDir
+    static Path archiveDir;
+
+    @DynamicPropertySource
+    static void archiveProperties(DynamicPropertyRegistry registry) {
+        registry.add("inventory.archive.directory", () -> archiveDir.toString());
+        registry.add("inventory.archive.block-size", () -> 7);
+    }
+
+    @Autowired
+    private ReceiptArchiveService archiveService;
+
+    @Autowired
+    private ReceiptRepository receiptRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM receipt_archive_blocks");
+        jdbcTemplate.update("DELETE FROM sales");
+        jdbcTemplate.update("DELETE FROM receipts");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM app_users");
+        jdbcTemplate.update("INSERT INTO app_users (id, username, password) VALUES (1, 'owner', 'x'), (2, 'cashier', 'x')");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Drinks')");
+        jdbcTemplate.update("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES (1, 'Soda', 50.0, 10, 1, 1), (2, 'Water', 30.0, 10, 1, 1)");
+
+        List<Object[]> receipts = new ArrayList<>();
+        List<Object[]> sales = new ArrayList<>();
+        for (int i = 1; i <= 60; i++) {
+            // One receipt per day, January 1st to March 1st 2023
+            receipts.add(new Object[]{i, "R" + i, (i % 2) + 1, Timestamp.valueOf(START.plusDays(i - 1)), 80.0, i % 2 == 0 ? "CASH" : "MPESA", 80.0, 0.0});
+            sales.add(new Object[]{i * 2 - 1, 1, i, 1, 50.0, 50.0});
+            sales.add(new Object[]{i * 2, 2, i, 1, 30.0, 30.0});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO receipts (id, receipt_number, cashier_id, transaction_date, total_amount, payment_method, cash_amount, mpesa_amount) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", receipts);
+        jdbcTemplate.batchUpdate("INSERT INTO sales (id, product_id, receipt_id, quantity, unit_price, total_amount) VALUES (?, ?, ?, ?, ?, ?)", sales);
+        archiveService.init();
+    }
+
+    @Test
+    void archivesReceiptsBeforeCutoffAndFindsThemAgain() {
+        ReceiptArchiveService.ArchiveResult result = archiveService.archiveReceiptsBefore(LocalDateTime.of(2023, 2, 1, 0, 0));
+
+        assertEquals(31, result.getReceipts());
+        assertEquals(5, result.getBlocks()); // 31 receipts in blocks of 7
+        assertEquals(29, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM receipts", Integer.class));
+        assertEquals(58, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sales", Integer.class));
+
+        Optional<Receipt> archived = archiveService.findArchivedReceipt(17L);
+        assertTrue(archived.isPresent());
+        assertEquals("R17", archived.get().getReceiptNumber());
+        assertEquals(START.plusDays(16), archived.get().getTransactionDate());
+        assertEquals(2, archived.get().getSales().size());
+        assertEquals(80.0, archived.get().getSales().stream().mapToDouble(Sale::getTotalAmount).sum());
+        assertEquals("cashier", archived.get().getCashier().getUsername());
+
+        assertFalse(archiveService.findArchivedReceipt(45L).isPresent()); // Still live
+    }
+
+    @Test
+    void searchOnlyConsultsArchiveWhenRangeOverlaps() {
+        archiveService.archiveReceiptsBefore(LocalDateTime.of(2023, 2, 1, 0, 0));
+
+        assertFalse(archiveService.overlaps(LocalDateTime.of(2023, 2, 1, 0, 0), null));
+        assertTrue(archiveService.findArchivedReceipts(LocalDateTime.of(2023, 2, 1, 0, 0), null, null, null, null).isEmpty());
+
+        assertTrue(archiveService.overlaps(null, null));
+        List<Receipt> week = archiveService.findArchivedReceipts(
+                LocalDateTime.of(2023, 1, 10, 0, 0), LocalDateTime.of(2023, 1, 16, 23, 59), null, null, null);
+        assertEquals(7, week.size());
+
+        List<Receipt> cashInWeek = archiveService.findArchivedReceipts(
+                LocalDateTime.of(2023, 1, 10, 0, 0), LocalDateTime.of(2023, 1, 16, 23, 59), 1L, Receipt.PaymentMethod.CASH, "Sod");
+        assertTrue(cashInWeek.stream().allMatch(receipt -> receipt.getPaymentMethod() == Receipt.PaymentMethod.CASH));
+        assertEquals(week.stream().filter(receipt -> receipt.getPaymentMethod() == Receipt.PaymentMethod.CASH).count(), cashInWeek.size());
+    }
+
+    @Test
+    void productNameFilterMatchesLikeTheLiveSearch() {
+        archiveService.archiveReceiptsBefore(LocalDateTime.of(2023, 2, 1, 0, 0));
+
+        // Case-sensitive on both sides of the cutoff
+        assertTrue(archiveService.findArchivedReceipts(null, null, null, null, "soda").isEmpty());
+        assertTrue(receiptRepository.findFilteredReceipts(null, null, null, null, "soda").isEmpty());
+
+        // Only the matching sales of a matching receipt, on both sides of the cutoff
+        List<Receipt> archived = archiveService.findArchivedReceipts(null, null, null, null, "Sod");
+        List<Receipt> live = receiptRepository.findFilteredReceipts(null, null, null, null, "Sod");
+        assertEquals(31, archived.size());
+        assertEquals(29, live.size());
+        for (Receipt receipt : archived) {
+            assertEquals(List.of("Soda"), receipt.getSales().stream().map(sale -> sale.getProduct().getName()).toList());
+        }
+        for (Receipt receipt : live) {
+            assertEquals(List.of("Soda"), receipt.getSales().stream().map(sale -> sale.getProduct().getName()).toList());
+        }
+
+        // No wildcards: "_" is a plain character
+        assertTrue(archiveService.findArchivedReceipts(null, null, null, null, "S_da").isEmpty());
+        assertTrue(receiptRepository.findFilteredReceipts(null, null, null, null, "S_da").isEmpty());
+    }
+}
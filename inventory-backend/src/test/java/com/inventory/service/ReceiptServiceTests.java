@@ -0,0 +1,149 @@
+package com.inventory.service;
+
+import com.inventory.model.Receipt;
+import com.inventory.service.exception.InsufficientStockException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for concurrent checkouts in ReceiptService: no lost stock updates or overselling, no deadlock between
+ * checkouts sharing products, and the stock ledger agreeing with Product.quantity afterwards.
+ */
+@DataJpaTest
+@Import({ReceiptService.class, ReceiptArchiveService.class, StockLedgerService.class, ReceiptServiceTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReceiptServiceTests {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private ReceiptService receiptService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM sales");
+        jdbcTemplate.update("DELETE FROM receipts");
+        jdbcTemplate.update("DELETE FROM stock_snapshots");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("DELETE FROM app_users");
+        jdbcTemplate.update("INSERT INTO app_users (id, username, password) VALUES (1, 'cashier', 'x')");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Drinks')");
+    }
+
+    @Test
+    void concurrentCheckoutsOfTheSameProductsLoseNoUpdates() throws Exception {
+        product(1, 1000);
+        product(2, 1000);
+
+        // Half the tills list the products in the opposite order; the locks are still taken by ascending ID
+        List<Callable<Receipt>> checkouts = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            long first = i % 2 == 0 ? 1 : 2;
+            checkouts.add(() -> receiptService.recordBatchSale(request(first, 3 - first), "cashier"));
+        }
+        for (Future<Receipt> checkout : runConcurrently(checkouts)) {
+            checkout.get();
+        }
+
+        assertEquals(920, quantity(1));
+        assertEquals(920, quantity(2));
+        assertEquals(920, stockLedgerService.getCurrentQuantity(1L));
+        assertTrue(stockLedgerService.verify().isEmpty());
+        assertEquals(80, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_movements WHERE product_id = 1 AND reference_id IN (SELECT id FROM receipts)", Integer.class));
+    }
+
+    @Test
+    void concurrentCheckoutsDoNotOversell() throws Exception {
+        product(1, 10);
+
+        List<Callable<Receipt>> checkouts = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            checkouts.add(() -> receiptService.recordBatchSale(request(1), "cashier"));
+        }
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        for (Future<Receipt> checkout : runConcurrently(checkouts)) {
+            try {
+                checkout.get();
+                sold.incrementAndGet();
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertTrue(e.getCause() instanceof InsufficientStockException, e.getCause().toString());
+                refused.incrementAndGet();
+            }
+        }
+
+        assertEquals(10, sold.get());
+        assertEquals(15, refused.get());
+        assertEquals(0, quantity(1));
+        assertTrue(stockLedgerService.verify().isEmpty());
+    }
+
+    private List<Future<Receipt>> runConcurrently(List<Callable<Receipt>> tasks) throws InterruptedException {
+        ExecutorService tills = Executors.newFixedThreadPool(8);
+        try {
+            return tills.invokeAll(tasks);
+        } finally {
+            tills.shutdown();
+        }
+    }
+
+    private void product(long id, int quantity) {
+        jdbcTemplate.update("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES (?, ?, 1.0, ?, 0, 1)",
+                id, "Product " + id, quantity);
+        jdbcTemplate.update("INSERT INTO stock_movements (product_id, delta, movement_type, occurred_at) VALUES (?, ?, 'OPENING', CURRENT_TIMESTAMP)",
+                id, quantity);
+    }
+
+    private int quantity(long id) {
+        return jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE id = ?", Integer.class, id);
+    }
+
+    private static ReceiptService.RecordReceiptRequest request(long... productIds) {
+        List<ReceiptService.RecordSaleItem> items = new ArrayList<>();
+        for (long productId : productIds) {
+            ReceiptService.RecordSaleItem item = new ReceiptService.RecordSaleItem();
+            item.setProductId(productId);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        ReceiptService.RecordReceiptRequest request = new ReceiptService.RecordReceiptRequest();
+        request.setSaleItems(items);
+        request.setPaymentMethod(Receipt.PaymentMethod.CASH);
+        return request;
+    }
+}
@@ -0,0 +1,102 @@
+package com.inventory.service;
+
+import com.inventory.service.exception.InvalidRefreshTokenException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for RefreshTokenService: rotation, reuse detection (the whole family and its access tokens are revoked)
+ * and expiry. The HTTP side (401 responses) is covered by AuthControllerTests.
+ */
+@DataJpaTest
+@Import({RefreshTokenService.class, TokenRevocationService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenServiceTests {
+
+    private static final long USER_ID = 1;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM revoked_tokens");
+        jdbcTemplate.update("DELETE FROM user_roles");
+        jdbcTemplate.update("DELETE FROM app_users");
+        jdbcTemplate.update("INSERT INTO app_users (id, username, password) VALUES (?, 'cashier', 'x')", USER_ID);
+        tokenRevocationService.reload();
+    }
+
+    @Test
+    void rotationIssuesANewTokenAndRetiresTheOldOne() {
+        String first = refreshTokenService.issue(USER_ID, "access-1");
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first, "access-2");
+        assertEquals("cashier", rotation.getUser().getUsername());
+        assertNotEquals(first, rotation.getRefreshToken());
+
+        // The new token continues the session; only hashes are stored
+        String second = refreshTokenService.rotate(rotation.getRefreshToken(), "access-3").getRefreshToken();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT family_id) FROM refresh_tokens", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE token_hash IN (?, ?)",
+                Integer.class, first, second));
+        assertFalse(tokenRevocationService.isRevoked("access-3"));
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheFamily() {
+        String first = refreshTokenService.issue(USER_ID, "access-1");
+        String second = refreshTokenService.rotate(first, "access-2").getRefreshToken();
+        String otherSession = refreshTokenService.issue(USER_ID, "access-other");
+
+        InvalidRefreshTokenException reuse = assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(first, "access-3"));
+        assertEquals("Refresh token has already been used.", reuse.getMessage());
+
+        // Whoever holds the newest token of the family is logged out too, including their access token
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(second, "access-4"));
+        assertTrue(tokenRevocationService.isRevoked("access-2"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE access_token_id IN ('access-3', 'access-4')", Integer.class));
+
+        // Other sessions of the same user are not affected
+        assertFalse(tokenRevocationService.isRevoked("access-other"));
+        refreshTokenService.rotate(otherSession, "access-5");
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = refreshTokenService.issue(USER_ID, "access-1");
+        jdbcTemplate.update("UPDATE refresh_tokens SET expires_at = ?", Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)));
+
+        InvalidRefreshTokenException e = assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(token, "access-2"));
+        assertEquals("Refresh token has expired.", e.getMessage());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens", Integer.class), "no replacement was issued");
+    }
+
+    @Test
+    void unknownOrMissingTokenIsRejected() {
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("not-a-token", "access-1"));
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(null, "access-1"));
+    }
+}
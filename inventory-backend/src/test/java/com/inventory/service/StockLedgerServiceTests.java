@@ -0,0 +1,98 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for StockLedgerService: stock derived from snapshots plus movements, point-in-time queries
+ * and verification against Product.quantity.
+ */
+@DataJpaTest
+@Import(StockLedgerService.class)
+@TestPropertySource(properties = "inventory.stock-ledger.snapshot-safety-lag-seconds=0")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerServiceTests {
+
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2024, 3, 1, 9, 0);
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM stock_snapshots");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Drinks')");
+        jdbcTemplate.update("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES (1, 'Soda', 50.0, 37, 1, 1)");
+
+        movement(100, "OPENING", DAY_ONE);
+        movement(-20, "SALE", DAY_ONE.plusDays(1));
+        movement(-50, "SALE", DAY_ONE.plusDays(2));
+        movement(5, "REFUND", DAY_ONE.plusDays(3));
+        movement(2, "ADJUSTMENT", DAY_ONE.plusDays(4));
+    }
+
+    @Test
+    void currentQuantityIsSumOfMovements() {
+        assertEquals(37, stockLedgerService.getCurrentQuantity(1L));
+        assertTrue(stockLedgerService.verify().isEmpty());
+    }
+
+    @Test
+    void pointInTimeQuantity() {
+        assertEquals(0, stockLedgerService.getQuantityAt(1L, DAY_ONE.minusDays(1)));
+        assertEquals(80, stockLedgerService.getQuantityAt(1L, DAY_ONE.plusDays(1).plusHours(1)));
+        assertEquals(35, stockLedgerService.getQuantityAt(1L, DAY_ONE.plusDays(3).plusHours(1)));
+    }
+
+    @Test
+    void snapshotsFoldMovementsWithoutChangingResults() throws InterruptedException {
+        assertEquals(1, stockLedgerService.compactSnapshots());
+        assertEquals(0, stockLedgerService.compactSnapshots()); // Nothing new since the last snapshot
+
+        Thread.sleep(5);
+        movement(-7, "SALE", LocalDateTime.now());
+        assertEquals(30, stockLedgerService.getCurrentQuantity(1L));
+        assertEquals(80, stockLedgerService.getQuantityAt(1L, DAY_ONE.plusDays(1).plusHours(1)));
+
+        // A later snapshot starts from the previous one
+        Thread.sleep(5);
+        assertEquals(1, stockLedgerService.compactSnapshots());
+        assertEquals(30, jdbcTemplate.queryForObject("SELECT quantity FROM stock_snapshots ORDER BY as_of DESC FETCH FIRST 1 ROWS ONLY", Integer.class));
+        assertEquals(30, stockLedgerService.getCurrentQuantity(1L));
+    }
+
+    @Test
+    void verifyReportsDriftBetweenProductAndLedger() {
+        jdbcTemplate.update("UPDATE products SET quantity = 40 WHERE id = 1");
+
+        List<StockLedgerService.Discrepancy> discrepancies = stockLedgerService.verify();
+        assertEquals(1, discrepancies.size());
+        assertEquals(40, discrepancies.get(0).getStoredQuantity());
+        assertEquals(37, discrepancies.get(0).getLedgerQuantity());
+    }
+
+    private void movement(int delta, String type, LocalDateTime occurredAt) {
+        jdbcTemplate.update("INSERT INTO stock_movements (product_id, delta, movement_type, occurred_at) VALUES (1, ?, ?, ?)",
+                delta, type, Timestamp.valueOf(occurredAt));
+    }
+}
@@ -0,0 +1,73 @@
+package com.inventory.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for TokenRevocationService: local revocations, propagation of revocations written by
+ * another instance on reload, and purging of expired entries.
+ */
+@DataJpaTest
+@Import(TokenRevocationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TokenRevocationServiceTests {
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM revoked_tokens");
+        tokenRevocationService.reload();
+    }
+
+    @Test
+    void revokedTokenIsRejectedImmediately() {
+        String revoked = UUID.randomUUID().toString();
+        tokenRevocationService.revoke(revoked, LocalDateTime.now().plusMinutes(15));
+
+        assertTrue(tokenRevocationService.isRevoked(revoked));
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(tokenRevocationService.isRevoked(UUID.randomUUID().toString()));
+        }
+    }
+
+    @Test
+    void revocationFromAnotherInstanceAppliesOnReload() {
+        String revoked = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO revoked_tokens (token_id, expires_at, revoked_at) VALUES (?, ?, ?)",
+                revoked, Timestamp.valueOf(LocalDateTime.now().plusMinutes(15)), Timestamp.valueOf(LocalDateTime.now()));
+        assertFalse(tokenRevocationService.isRevoked(revoked));
+
+        tokenRevocationService.reload();
+        assertTrue(tokenRevocationService.isRevoked(revoked));
+    }
+
+    @Test
+    void expiredRevocationsArePurgedOnReload() {
+        jdbcTemplate.update("INSERT INTO revoked_tokens (token_id, expires_at, revoked_at) VALUES (?, ?, ?)",
+                "expired", Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)), Timestamp.valueOf(LocalDateTime.now().minusMinutes(20)));
+        tokenRevocationService.revoke("already-expired", LocalDateTime.now().minusSeconds(1));
+
+        tokenRevocationService.reload();
+        assertEquals(0, tokenRevocationService.getRevokedCount());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM revoked_tokens", Integer.class));
+    }
+}
@@ -0,0 +1,80 @@
+package com.inventory.service;
+
+import com.inventory.config.JacksonConfig;
+import com.inventory.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for WarmUpService: the rounds run, and the rolled-back checkouts leave no users, products,
+ * receipts, sales, stock or ledger movements behind.
+ */
+@DataJpaTest
+@Import({WarmUpService.class, ReceiptService.class, ReceiptArchiveService.class, StockLedgerService.class,
+        JwtUtil.class, JacksonConfig.class, WarmUpServiceTests.Metrics.class})
+@TestPropertySource(properties = "inventory.warmup.iterations=5")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WarmUpServiceTests {
+
+    private static final List<String> TABLES = List.of("app_users", "products", "receipts", "sales", "stock_movements");
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private WarmUpService warmUpService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM sales");
+        jdbcTemplate.update("DELETE FROM receipts");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        jdbcTemplate.update("DELETE FROM products");
+        jdbcTemplate.update("DELETE FROM categories");
+        jdbcTemplate.update("INSERT INTO categories (id, name) VALUES (1, 'Drinks')");
+        jdbcTemplate.update("INSERT INTO products (id, name, price, quantity, min_stock_level, category_id) VALUES " +
+                "(1, 'Soda', 50.0, 100, 10, 1), (2, 'Water', 30.0, 3, 5, 1)");
+    }
+
+    @Test
+    void warmUpRunsTheRoundsAndLeavesNoData() {
+        List<Integer> before = rowCounts();
+
+        WarmUpService.WarmUpResult result = warmUpService.warmUp();
+
+        assertNull(result.getError());
+        assertEquals(5, result.getIterations());
+        assertEquals(before, rowCounts());
+        assertEquals(103, jdbcTemplate.queryForObject("SELECT SUM(quantity) FROM products", Integer.class));
+    }
+
+    private List<Integer> rowCounts() {
+        return TABLES.stream()
+                .map(table -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class))
+                .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.inventory.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test support for catching N+1 selects: counts the SQL statements the application sends to the database.
+ *
+ * Importing this configuration wraps every DataSource bean, so statements are counted whoever issues them:
+ * Hibernate (including lazy loads while Jackson writes the response), JdbcTemplate and Flyway alike.
+ * Every prepareStatement / prepareCall counts once (a JDBC batch is one statement however many rows it has),
+ * and every execute on a plain Statement counts once.
+ *
+ * The count is global rather than per thread, so work handed to another thread (e.g. login verification,
+ * dashboard queries) is included; tests using it must not run anything else against the database at the
+ * same time. Scheduled jobs (token revocation reload, ledger snapshots, ...) are the exception: they run on
+ * Spring's scheduler threads (spring.task.scheduling.thread-name-prefix, "scheduling-" by default), whose
+ * statements are never counted, so a job that happens to run during a request cannot change its count.
+ *
+ * Usage:
+ * {@code @Import(StatementCounting.class)} on the test class, then
+ * {@code int statements = StatementCounting.count(() -> mockMvc.perform(get("/api/products")));}
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class StatementCounting {
+
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    // Thread name prefix of Spring Boot's default TaskScheduler, which runs the @Scheduled jobs
+    private static final String SCHEDULER_THREAD_PREFIX = "scheduling-";
+
+    /**
+     * Code whose statements are counted.
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    /**
+     * Runs the action and counts the statements it sends to the database.
+     * @param action The request or service call to count.
+     * @return The number of statements.
+     * @throws Exception Whatever the action throws.
+     */
+    public static int count(Action action) throws Exception {
+        STATEMENTS.set(0);
+        action.run();
+        return STATEMENTS.get();
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+                    return new CountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return countingProxy(Connection.class, super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return countingProxy(Connection.class, super.getConnection(username, password));
+        }
+    }
+
+    /**
+     * Wraps a Connection (counting prepared statements and wrapping plain Statements)
+     * or a plain Statement (counting executions).
+     */
+    private static <T> T countingProxy(Class<T> type, T target) {
+        return type.cast(Proxy.newProxyInstance(StatementCounting.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    // Identity semantics, so Spring can match the proxy with the connection it holds
+                    if (name.equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (name.equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ((name.equals("prepareStatement") || name.equals("prepareCall")
+                            || (type == Statement.class && name.startsWith("execute")))
+                            && !Thread.currentThread().getName().startsWith(SCHEDULER_THREAD_PREFIX)) {
+                        STATEMENTS.incrementAndGet();
+                    }
+                    Object result = invoke(method, target, args);
+                    if (type == Connection.class && name.equals("createStatement")) {
+                        return countingProxy(Statement.class, (Statement) result);
+                    }
+                    return result;
+                }));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
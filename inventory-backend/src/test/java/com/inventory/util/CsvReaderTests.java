@@ -0,0 +1,95 @@
+package com.inventory.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for CsvReader: quoting, separators and line breaks inside quoted fields, line numbers and malformed input.
+ */
+class CsvReaderTests {
+
+    @Test
+    void plainRecords() throws IOException {
+        assertEquals(List.of(List.of("name", "price"), List.of("Soda", "50")), readAll("name,price\nSoda,50\n"));
+        assertEquals(List.of(List.of("Soda", "50")), readAll("Soda,50"), "the last line needs no line break");
+    }
+
+    @Test
+    void emptyFieldsAreKept() throws IOException {
+        assertEquals(List.of(List.of("Soda", "", "", "")), readAll("Soda,,,\n"));
+        assertEquals(List.of(List.of("")), readAll("\n"), "an empty line is one empty field");
+    }
+
+    @Test
+    void quotedFieldsMayHoldSeparatorsQuotesAndLineBreaks() throws IOException {
+        List<List<String>> records = readAll("\"Soda, 500ml\",\"The \"\"original\"\" one\",\"two\nlines\"\n" +
+                "\"\",\"a\r\nb\"\n");
+        assertEquals(List.of("Soda, 500ml", "The \"original\" one", "two\nlines"), records.get(0));
+        assertEquals(List.of("", "a\r\nb"), records.get(1));
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsLiteral() throws IOException {
+        assertEquals(List.of(List.of("12\" pizza", "5")), readAll("12\" pizza,5\n"));
+    }
+
+    @Test
+    void crlfAndLoneCrEndRecords() throws IOException {
+        assertEquals(List.of(List.of("a", "1"), List.of("b", "2"), List.of("c", "3")), readAll("a,1\r\nb,2\rc,3\r\n"));
+    }
+
+    @Test
+    void lineNumbersCountPhysicalLines() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("name,description\nSoda,\"first\nsecond\nthird\"\nWater,plain\n"));
+        reader.readRecord();
+        assertEquals(1, reader.getLineNumber());
+        reader.readRecord();
+        assertEquals(2, reader.getLineNumber());
+        reader.readRecord();
+        assertEquals(5, reader.getLineNumber(), "the record after a three-line field starts on line 5");
+        assertNull(reader.readRecord());
+    }
+
+    @Test
+    void recordsMayHaveDifferentFieldCounts() throws IOException {
+        // Short and long rows are returned as they are; the caller decides what is missing
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("d"), List.of("e", "f", "g", "h")), readAll("a,b,c\nd\ne,f,g,h\n"));
+    }
+
+    @Test
+    void unterminatedQuoteIsAnError() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("name,price\nSoda,50\n\"Broken,10\nWater,20\n"));
+        reader.readRecord();
+        reader.readRecord();
+        IOException e = assertThrows(IOException.class, reader::readRecord);
+        assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+    }
+
+    @Test
+    void customSeparator() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("Soda;\"50;00\"\n"), ';');
+        assertEquals(List.of("Soda", "50;00"), reader.readRecord());
+        assertNull(reader.readRecord());
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> record;
+            while ((record = reader.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,95 @@
+package com.inventory.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for JwtUtil.verify: a token is verified once and then served from the cache, while a token that is
+ * not byte for byte the same (e.g. the same claims with another signature) misses the cache and is rejected.
+ */
+class JwtUtilTests {
+
+    private static final String SECRET = "testSecretThatIsLongEnoughForHS512SigningOfTokensInTheJwtUtilTests0123456789";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretString", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 60_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxEntries", 100);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", meterRegistry);
+        jwtUtil.init();
+    }
+
+    @Test
+    void validTokenIsVerifiedOnceThenCached() {
+        String token = jwtUtil.generateToken(User.withUsername("cashier").password("x").roles("CASHIER").build(), "token-1");
+
+        VerifiedTokenCache.VerifiedToken verified = jwtUtil.verify(token);
+        assertNotNull(verified);
+        assertEquals("cashier", verified.getUsername());
+        assertEquals("token-1", verified.getTokenId());
+        assertEquals(List.of("ROLE_CASHIER"), verified.getRoles());
+
+        assertNotNull(jwtUtil.verify(token));
+        assertEquals(1, cacheGets("miss"));
+        assertEquals(1, cacheGets("hit"));
+    }
+
+    @Test
+    void tamperedTokenWithTheSameClaimsMissesTheCacheAndIsRejected() {
+        String token = jwtUtil.generateToken(User.withUsername("cashier").password("x").roles("CASHIER").build(), "token-1");
+        assertNotNull(jwtUtil.verify(token)); // Now cached
+        Claims claims = jwtUtil.extractAllClaims(token);
+
+        // The same header and claims with a changed signature
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1);
+        assertNull(jwtUtil.verify(tampered));
+
+        // The same claims signed with another key
+        String forged = Jwts.builder()
+                .claims(claims)
+                .signWith(Keys.hmacShaKeyFor("anotherSecretThatIsAlsoLongEnoughForHS512SigningButIsNotTheServers0123".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        assertNull(jwtUtil.verify(forged));
+
+        assertEquals(3, cacheGets("miss"));
+        assertEquals(0, cacheGets("hit"));
+        assertEquals(2, meterRegistry.get("inventory.jwt.verification").tag("result", "rejected").timer().count());
+    }
+
+    @Test
+    void disabledCacheVerifiesEveryTime() {
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxEntries", 0);
+        jwtUtil.init();
+        String token = jwtUtil.generateToken(User.withUsername("owner").password("x").roles("OWNER").build());
+
+        assertNotNull(jwtUtil.verify(token));
+        assertNotNull(jwtUtil.verify(token));
+        assertEquals(0, cacheGets("hit"));
+        assertEquals(2, meterRegistry.get("inventory.jwt.verification").tag("result", "verified").timer().count());
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "jwt-verified").tag("result", result).counter().count();
+    }
+}
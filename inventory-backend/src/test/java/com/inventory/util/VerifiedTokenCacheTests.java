@@ -0,0 +1,65 @@
+package com.inventory.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests for VerifiedTokenCache: entries never outlive their token, the least recently used entry is evicted
+ * at maxEntries, and a maximum of 0 or less disables the cache.
+ */
+class VerifiedTokenCacheTests {
+
+    private static final long HOUR = 3_600_000;
+
+    @Test
+    void expiredEntriesAreNotReturned() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("expired", token("cashier", System.currentTimeMillis() - 1));
+        cache.put("valid", token("cashier", System.currentTimeMillis() + HOUR));
+
+        assertNull(cache.get("expired"));
+        assertEquals(1, cache.size(), "the expired entry is removed when it is looked up");
+        assertNotNull(cache.get("valid"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedAtMaxEntries() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("a", token("a", System.currentTimeMillis() + HOUR));
+        cache.put("b", token("b", System.currentTimeMillis() + HOUR));
+        cache.get("a"); // Now b is the least recently used
+
+        cache.put("c", token("c", System.currentTimeMillis() + HOUR));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals("a", cache.get("a").getUsername());
+        assertEquals("c", cache.get("c").getUsername());
+    }
+
+    @Test
+    void maxEntriesOfZeroOrLessDisablesTheCache() {
+        for (int maxEntries : new int[] {0, -1}) {
+            VerifiedTokenCache cache = new VerifiedTokenCache(maxEntries);
+            cache.put("a", token("a", System.currentTimeMillis() + HOUR));
+            assertNull(cache.get("a"));
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    void digestDependsOnEveryCharacterOfTheToken() {
+        String digest = VerifiedTokenCache.digest("header.payload.signature");
+        assertEquals(digest, VerifiedTokenCache.digest("header.payload.signature"));
+        assertNotEquals(digest, VerifiedTokenCache.digest("header.payload.signaturf"));
+    }
+
+    private static VerifiedTokenCache.VerifiedToken token(String username, long expiresAtMillis) {
+        return new VerifiedTokenCache.VerifiedToken(username, "id-" + username, List.of("ROLE_CASHIER"), expiresAtMillis);
+    }
+}
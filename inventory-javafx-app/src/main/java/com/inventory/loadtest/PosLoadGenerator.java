@@ -0,0 +1,377 @@
+package com.inventory.loadtest;
+
+import com.inventory.model.Product;
+import com.inventory.model.Receipt;
+import com.inventory.model.User;
+import com.inventory.ui.util.ApiClient;
+import com.inventory.ui.util.ApiClient.RecordReceiptRequestDTO;
+import com.inventory.ui.util.ApiClient.SaleItemRequestDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Synthetic point-of-sale load against a locally started backend (http://localhost:8080, see ApiClient),
+ * to find out how many tills one backend instance sustains.
+ *
+ * Simulates {@code --terminals} tills, each an ApiClient logged in as its own cashier account
+ * (loadtest-cashier-1..N, created through the owner account if missing). Checkouts arrive at a fixed total
+ * rate ({@code --rate} per second) and go to the tills in turn. The arrivals do not wait for earlier checkouts
+ * to finish, and latency is measured from the scheduled arrival, so a backend that falls behind shows up as
+ * growing latency rather than as a lower request rate. A share of the arrivals ({@code --browse}) also
+ * searches the catalog, like a cashier looking up an item.
+ *
+ * A cart holds 1 to {@code --max-items} different products with 1-3 units each. Products are drawn from a
+ * Zipf distribution ({@code --skew}) over the shuffled catalog, so a few products get most of the sales.
+ * Requests run on virtual threads when the JVM has them (Java 21+) and on a cached thread pool otherwise.
+ *
+ * The report lists the throughput, p50/p99/p99.9/max latency and error rate per operation. Checkouts
+ * rejected for insufficient stock are counted apart from errors. Finally the stock of every product sold
+ * is compared with its stock before the run: the decrease must equal the units sold (otherwise concurrent
+ * checkouts lost each other's updates and goods left the shop without being deducted), and no stock may be
+ * negative. This assumes nothing else sells or adjusts stock during the run.
+ *
+ * mvn -Ploadtest compile exec:exec -Dloadtest.args="--terminals 20 --rate 50 --duration 60"
+ * Other options: --max-items 8, --skew 1.0, --browse 0.2, --owner-password password, --cashier-password loadtest
+ */
+public class PosLoadGenerator {
+
+    private static final String CASHIER_PREFIX = "loadtest-cashier-";
+    private static final Pattern HTTP_STATUS = Pattern.compile("HTTP (\\d{3})");
+
+    private final List<ApiClient> tills;
+    private final List<Product> catalog;
+    private final double[] cumulativePopularity;
+    private final int maxItems;
+    private final double browseRatio;
+    private final OperationStats checkouts = new OperationStats("checkout");
+    private final OperationStats searches = new OperationStats("search");
+    private final Map<Long, LongAdder> unitsSold = new ConcurrentHashMap<>();
+
+    private PosLoadGenerator(List<ApiClient> tills, List<Product> catalog, double skew, int maxItems, double browseRatio) {
+        this.tills = tills;
+        this.catalog = catalog;
+        this.maxItems = maxItems;
+        this.browseRatio = browseRatio;
+        this.cumulativePopularity = new double[catalog.size()];
+        double total = 0;
+        for (int rank = 0; rank < catalog.size(); rank++) {
+            total += 1.0 / Math.pow(rank + 1, skew);
+            cumulativePopularity[rank] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.getProperties().putIfAbsent("inventory.api.log", "false"); // Before ApiClient is loaded
+        // Count the backend's 429/503 rejections instead of hiding them behind client retries
+        System.getProperties().putIfAbsent("inventory.api.max-retries", "0");
+        Map<String, String> options = parseOptions(args);
+        int terminals = Integer.parseInt(options.getOrDefault("terminals", "10"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "20"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int maxItems = Integer.parseInt(options.getOrDefault("max-items", "8"));
+        double skew = Double.parseDouble(options.getOrDefault("skew", "1.0"));
+        double browseRatio = Double.parseDouble(options.getOrDefault("browse", "0.2"));
+        String ownerPassword = options.getOrDefault("owner-password", "password");
+        String cashierPassword = options.getOrDefault("cashier-password", "loadtest");
+
+        ApiClient owner = login("owner", ownerPassword);
+        List<Product> catalog = owner.getAllProducts(null).stream()
+                .filter(p -> p.getQuantity() > 0)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (catalog.isEmpty()) {
+            System.err.println("No products in stock; seed the catalog first.");
+            System.exit(2);
+        }
+        Map<Long, Integer> stockBefore = catalog.stream().collect(Collectors.toMap(Product::getId, Product::getQuantity));
+        Collections.shuffle(catalog, new Random(42)); // Popularity rank, the same on every run
+
+        List<ApiClient> tills = logInCashiers(owner, terminals, cashierPassword);
+        System.out.println(String.format(Locale.ROOT, "%d tills, %.1f checkouts/s for %d s over %d products (skew %.2f)",
+                terminals, rate, durationSeconds, catalog.size(), skew));
+
+        PosLoadGenerator generator = new PosLoadGenerator(tills, catalog, skew, maxItems, browseRatio);
+        double elapsedSeconds = generator.run(rate, durationSeconds);
+        generator.report(elapsedSeconds);
+        boolean consistent = generator.checkStock(owner, stockBefore);
+        System.exit(consistent ? 0 : 1);
+    }
+
+    /**
+     * Releases checkouts at the target rate until the duration is over, then waits for the ones in flight.
+     * @return The seconds from the first arrival until the last request completed.
+     */
+    private double run(double rate, int durationSeconds) throws InterruptedException {
+        ExecutorService requests = newRequestExecutor();
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long arrivals = (long) (rate * durationSeconds);
+        long start = System.nanoTime();
+        long nextProgress = start + TimeUnit.SECONDS.toNanos(10);
+        for (long n = 0; n < arrivals; n++) {
+            long scheduled = start + n * intervalNanos;
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            ApiClient till = tills.get((int) (n % tills.size()));
+            requests.execute(() -> checkout(till, scheduled));
+            if (ThreadLocalRandom.current().nextDouble() < browseRatio) {
+                requests.execute(() -> search(till, scheduled));
+            }
+            if (System.nanoTime() >= nextProgress) {
+                System.out.println(String.format(Locale.ROOT, "%3d s: %s; %s",
+                        TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), checkouts.progress(), searches.progress()));
+                nextProgress += TimeUnit.SECONDS.toNanos(10);
+            }
+        }
+        requests.shutdown();
+        if (!requests.awaitTermination(2, TimeUnit.MINUTES)) {
+            System.err.println("Requests still running after 2 minutes; reporting what has completed.");
+        }
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private void checkout(ApiClient till, long scheduled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<Long, Integer> cart = new LinkedHashMap<>();
+        double total = 0;
+        int items = 1 + random.nextInt(maxItems);
+        for (int i = 0; i < items; i++) {
+            Product product = pickProduct(random);
+            int quantity = 1 + random.nextInt(3);
+            cart.merge(product.getId(), quantity, Integer::sum);
+            total += product.getPrice() * quantity;
+        }
+        List<SaleItemRequestDTO> saleItems = new ArrayList<>();
+        cart.forEach((productId, quantity) -> saleItems.add(new SaleItemRequestDTO(productId, quantity)));
+        RecordReceiptRequestDTO request = new RecordReceiptRequestDTO(saleItems, Receipt.PaymentMethod.CASH, total, 0, null);
+        try {
+            till.recordBatchSale(request);
+            checkouts.succeeded(scheduled);
+            cart.forEach((productId, quantity) -> unitsSold.computeIfAbsent(productId, id -> new LongAdder()).add(quantity));
+        } catch (IOException e) {
+            if (e.getMessage() != null && e.getMessage().contains("Insufficient stock")) {
+                checkouts.rejected(scheduled);
+            } else {
+                checkouts.failed(scheduled, e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void search(ApiClient till, long scheduled) {
+        String name = pickProduct(ThreadLocalRandom.current()).getName();
+        try {
+            till.getAllProducts(name.substring(0, Math.min(4, name.length())));
+            searches.succeeded(scheduled);
+        } catch (IOException e) {
+            searches.failed(scheduled, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Product pickProduct(ThreadLocalRandom random) {
+        double point = random.nextDouble() * cumulativePopularity[cumulativePopularity.length - 1];
+        int rank = Arrays.binarySearch(cumulativePopularity, point);
+        return catalog.get(rank >= 0 ? rank : Math.min(-rank - 1, catalog.size() - 1));
+    }
+
+    private void report(double elapsedSeconds) {
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "Completed in %.1f s", elapsedSeconds));
+        System.out.println(String.format(Locale.ROOT, "%-9s %9s %9s %9s %8s %7s %10s %9s %9s %9s %9s",
+                "operation", "requests", "ok", "rejected", "errors", "error%", "ok/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        checkouts.print(elapsedSeconds);
+        searches.print(elapsedSeconds);
+        checkouts.printErrors();
+        searches.printErrors();
+    }
+
+    /**
+     * Compares the stock of every product sold with its stock before the run.
+     * @return true if every decrease matches the units sold and no stock is negative.
+     */
+    private boolean checkStock(ApiClient owner, Map<Long, Integer> stockBefore) throws IOException, InterruptedException {
+        Map<Long, Integer> stockAfter = owner.getAllProducts(null).stream()
+                .collect(Collectors.toMap(Product::getId, Product::getQuantity));
+        long lostUnits = 0;
+        int mismatched = 0;
+        int negative = 0;
+        List<String> examples = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : unitsSold.entrySet()) {
+            long sold = entry.getValue().sum();
+            int before = stockBefore.get(entry.getKey());
+            int after = stockAfter.getOrDefault(entry.getKey(), 0);
+            if (after < 0) {
+                negative++;
+            }
+            if (before - after != sold) {
+                mismatched++;
+                lostUnits += sold - (before - after);
+                if (examples.size() < 10) {
+                    examples.add(String.format("  product %d: stock %d -> %d, but %d units sold", entry.getKey(), before, after, sold));
+                }
+            }
+        }
+        System.out.println();
+        System.out.println("Stock check over " + unitsSold.size() + " products sold:");
+        if (mismatched == 0 && negative == 0) {
+            System.out.println("  OK: every stock decrease matches the units sold, no negative stock.");
+            return true;
+        }
+        System.out.println(String.format("  OVERSELL: %d products whose stock decrease differs from the units sold "
+                + "(%d units sold but not deducted), %d with negative stock", mismatched, lostUnits, negative));
+        examples.forEach(System.out::println);
+        return false;
+    }
+
+    private static ApiClient login(String username, String password) throws IOException, InterruptedException {
+        ApiClient client = new ApiClient();
+        client.setTokens(client.login(username, password));
+        return client;
+    }
+
+    /**
+     * Logs in one ApiClient per till, creating the load test cashier accounts that do not exist yet.
+     */
+    private static List<ApiClient> logInCashiers(ApiClient owner, int terminals, String password) throws IOException, InterruptedException {
+        Set<String> existing = owner.getAllUsers().stream().map(User::getUsername).collect(Collectors.toSet());
+        List<ApiClient> tills = new ArrayList<>();
+        for (int i = 1; i <= terminals; i++) {
+            String username = CASHIER_PREFIX + i;
+            if (!existing.contains(username)) {
+                owner.createUser(new User(username, password, Set.of(User.Role.CASHIER)));
+            }
+            ApiClient till = login(username, password);
+            till.setTerminalId("till-" + i);
+            tills.add(till);
+        }
+        return tills;
+    }
+
+    /**
+     * One thread per request in flight: virtual threads on Java 21+, found reflectively because the
+     * client is built for Java 17, otherwise a cached pool of platform threads.
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            System.out.println("Requests run on virtual threads.");
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            System.out.println("Virtual threads are not available on this JVM; requests run on a cached thread pool.");
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /**
+     * Outcome counts and latencies (from the scheduled arrival until the response) of one kind of request.
+     */
+    private static class OperationStats {
+        private final String name;
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorCauses = new ConcurrentHashMap<>();
+        private long[] latencies = new long[1024];
+        private int latencyCount;
+
+        OperationStats(String name) {
+            this.name = name;
+        }
+
+        void succeeded(long scheduled) {
+            ok.increment();
+            recordLatency(scheduled);
+        }
+
+        void rejected(long scheduled) {
+            rejected.increment();
+            recordLatency(scheduled);
+        }
+
+        void failed(long scheduled, IOException e) {
+            errors.increment();
+            recordLatency(scheduled);
+            errorCauses.computeIfAbsent(cause(e), c -> new LongAdder()).increment();
+        }
+
+        private synchronized void recordLatency(long scheduled) {
+            if (latencyCount == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencyCount * 2);
+            }
+            latencies[latencyCount++] = System.nanoTime() - scheduled;
+        }
+
+        // "HTTP 400 - Deadlock detected..." for error responses, the exception type for network errors
+        private static String cause(IOException e) {
+            String message = e.getMessage() != null ? e.getMessage() : "";
+            Matcher status = HTTP_STATUS.matcher(message);
+            if (!status.find()) {
+                return e.getClass().getSimpleName();
+            }
+            String detail = message.substring(status.end()).replaceFirst("^ - ", "");
+            return "HTTP " + status.group(1) + (detail.isEmpty() ? "" : " - " + detail.substring(0, Math.min(60, detail.length())));
+        }
+
+        String progress() {
+            return String.format("%d %s ok, %d rejected, %d errors", ok.sum(), name, rejected.sum(), errors.sum());
+        }
+
+        synchronized void print(double elapsedSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            long requests = sorted.length;
+            System.out.println(String.format(Locale.ROOT, "%-9s %9d %9d %9d %8d %6.2f%% %10.1f %9.1f %9.1f %9.1f %9.1f",
+                    name, requests, ok.sum(), rejected.sum(), errors.sum(),
+                    requests > 0 ? 100.0 * errors.sum() / requests : 0.0,
+                    ok.sum() / elapsedSeconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    sorted.length > 0 ? sorted[sorted.length - 1] / 1_000_000.0 : 0.0));
+        }
+
+        void printErrors() {
+            errorCauses.forEach((cause, count) -> System.out.println("  " + name + " error x" + count.sum() + ": " + cause));
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.inventory.loadtest;
+
+import com.inventory.model.Category;
+import com.inventory.model.Product;
+import com.inventory.model.Receipt;
+import com.inventory.ui.util.ApiClient;
+import com.inventory.ui.util.ApiClient.RecordReceiptRequestDTO;
+import com.inventory.ui.util.ApiClient.SaleItemRequestDTO;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures how long a till waits after a backend restart: starts the backend as a separate process, waits
+ * for its readiness probe, then logs in and checks out one item, and reports per launch mode the time from
+ * process start to readiness (after the backend's warm-up), to the first successful login and to the first
+ * successful checkout, plus Spring's own "Started ... in" time.
+ *
+ * Modes:
+ * - default: java -jar target/inventory-backend-0.0.1-SNAPSHOT.jar
+ * - fast-start: the startup-optimized launch from the backend's fast-start Maven profile (AOT bean
+ *   definitions, AppCDS archive, fast-start Spring profile); build it first with mvn -Pfast-start package
+ *
+ * Each mode is launched --runs times, alternating between the modes, against a scratch copy of the backend's
+ * database (./data/inventorydb copied to target/startup-benchmark/db), so the runs look like a restart after
+ * an update while the receipts and the product they create never reach the real database. JFR recordings and
+ * archives go to the scratch directory too. An untimed launch first makes sure there is a product to sell
+ * ("Startup benchmark item", created in the copy if missing) and warms the OS file cache. Port 8080 must
+ * be free. Backend output goes to target/startup-benchmark/ in the backend module.
+ *
+ * mvn -Ploadtest compile exec:exec -Dloadtest.main=com.inventory.loadtest.StartupBenchmark -Dloadtest.args="--runs 5"
+ * Other options: --backend ../inventory-backend, --modes default,fast-start, --timeout 180, --password password
+ */
+public class StartupBenchmark {
+
+    private static final String JAR = "inventory-backend-0.0.1-SNAPSHOT.jar";
+    private static final String ITEM_NAME = "Startup benchmark item";
+    private static final String SCRATCH_DIR = "target/startup-benchmark";
+    // The backend's database file (spring.datasource.url) and its scratch copy, relative to the backend module
+    private static final String DATABASE_FILE = "data/inventorydb.mv.db";
+    private static final String SCRATCH_DATABASE = SCRATCH_DIR + "/db";
+    private static final Pattern STARTED = Pattern.compile("Started \\w+ in ([0-9.]+) seconds");
+
+    private final Path backend;
+    private final long timeoutNanos;
+    private final String password;
+
+    private StartupBenchmark(Path backend, long timeoutSeconds, String password) {
+        this.backend = backend;
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.password = password;
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.getProperties().putIfAbsent("inventory.api.log", "false"); // Before ApiClient is loaded
+        System.getProperties().putIfAbsent("inventory.api.max-retries", "0");
+        Map<String, String> options = parseOptions(args);
+        Path backend = Path.of(options.getOrDefault("backend", "../inventory-backend")).toAbsolutePath().normalize();
+        int runs = Integer.parseInt(options.getOrDefault("runs", "3"));
+        List<String> modes = Arrays.asList(options.getOrDefault("modes", "default,fast-start").split(","));
+        long timeoutSeconds = Long.parseLong(options.getOrDefault("timeout", "180"));
+        StartupBenchmark benchmark = new StartupBenchmark(backend, timeoutSeconds, options.getOrDefault("password", "password"));
+
+        if (portInUse(8080)) {
+            throw new IllegalStateException("Port 8080 is in use; stop the running backend first.");
+        }
+        for (String mode : modes) {
+            benchmark.command(mode); // Fails early if a mode's build output is missing
+        }
+        benchmark.copyDatabase();
+        System.out.println("Untimed launch: preparing the item to sell...");
+        benchmark.launch(modes.get(0), "setup", true);
+
+        Map<String, List<Result>> results = new LinkedHashMap<>();
+        for (int run = 1; run <= runs; run++) {
+            for (String mode : modes) {
+                Result result = benchmark.launch(mode, String.valueOf(run), false);
+                System.out.println(String.format(Locale.ROOT, "%-10s run %d: %s", mode, run, result));
+                results.computeIfAbsent(mode, m -> new ArrayList<>()).add(result);
+            }
+        }
+
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-10s %12s %12s %12s %14s   (median of %d runs, seconds)",
+                "mode", "started", "ready", "first login", "first checkout", runs));
+        results.forEach((mode, list) -> System.out.println(String.format(Locale.ROOT, "%-10s %12.2f %12.2f %12.2f %14.2f",
+                mode, median(list, r -> r.started), median(list, r -> r.ready), median(list, r -> r.firstLogin),
+                median(list, r -> r.firstCheckout))));
+    }
+
+    /**
+     * Starts the backend, waits for the first successful login and checkout, then stops it.
+     */
+    private Result launch(String mode, String label, boolean setup) throws Exception {
+        Path logDir = backend.resolve(SCRATCH_DIR);
+        Files.createDirectories(logDir);
+        Path log = logDir.resolve(mode + "-" + label + ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command(mode))
+                .directory(backend.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            ApiClient client = new ApiClient();
+            while (!client.isBackendReady()) {
+                checkAlive(process, start, log);
+                Thread.sleep(50);
+            }
+            double ready = seconds(start);
+            while (true) {
+                checkAlive(process, start, log);
+                try {
+                    client.setTokens(client.login("owner", password));
+                    break;
+                } catch (IOException e) {
+                    Thread.sleep(50); // Not ready to authenticate yet (the default users are seeded in the background)
+                }
+            }
+            double firstLogin = seconds(start);
+            Product item = setup ? prepareItem(client) : findItem(client);
+            while (true) {
+                checkAlive(process, start, log);
+                try {
+                    client.recordBatchSale(new RecordReceiptRequestDTO(List.of(new SaleItemRequestDTO(item.getId(), 1)),
+                            Receipt.PaymentMethod.CASH, item.getPrice(), 0, null));
+                    break;
+                } catch (IOException e) {
+                    Thread.sleep(50);
+                }
+            }
+            double firstCheckout = seconds(start);
+            return new Result(startedSeconds(log), ready, firstLogin, firstCheckout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * Replaces the scratch database with a copy of the backend's database, or removes it so the backend
+     * creates an empty one if there is no database yet.
+     */
+    private void copyDatabase() throws IOException {
+        Path source = backend.resolve(DATABASE_FILE);
+        Path target = backend.resolve(SCRATCH_DATABASE + ".mv.db");
+        Files.createDirectories(target.getParent());
+        Files.deleteIfExists(backend.resolve(SCRATCH_DATABASE + ".trace.db"));
+        if (Files.exists(source)) {
+            System.out.println("Copying " + source + " to " + target + ".");
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            System.out.println(source + " does not exist; the backend starts with an empty database.");
+            Files.deleteIfExists(target);
+        }
+    }
+
+    private List<String> command(String mode) {
+        List<String> command = new ArrayList<>();
+        switch (mode) {
+            case "default":
+                requireFile("target/" + JAR, "mvn package");
+                command.addAll(List.of("java", "-jar", "target/" + JAR));
+                break;
+            case "fast-start":
+                requireFile("target/fast-start/application.jsa", "mvn -Pfast-start package");
+                command.addAll(List.of("java", "-XX:SharedArchiveFile=target/fast-start/application.jsa", "-Dspring.aot.enabled=true",
+                        "-jar", "target/fast-start/" + JAR, "--spring.profiles.active=fast-start"));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode + " (default, fast-start)");
+        }
+        // Everything the backend writes stays in the scratch directory
+        command.add("--spring.datasource.url=jdbc:h2:file:./" + SCRATCH_DATABASE);
+        command.add("--inventory.jfr.directory=./" + SCRATCH_DIR + "/recordings");
+        command.add("--inventory.archive.directory=./" + SCRATCH_DIR + "/archive");
+        return command;
+    }
+
+    private void requireFile(String relativePath, String build) {
+        if (!Files.exists(backend.resolve(relativePath))) {
+            throw new IllegalStateException(backend.resolve(relativePath) + " is missing; run '" + build + "' in " + backend);
+        }
+    }
+
+    private void checkAlive(Process process, long start, Path log) {
+        if (!process.isAlive()) {
+            throw new IllegalStateException("The backend exited with code " + process.exitValue() + ", see " + log);
+        }
+        if (System.nanoTime() - start > timeoutNanos) {
+            throw new IllegalStateException("No successful checkout within the timeout, see " + log);
+        }
+    }
+
+    private static Product findItem(ApiClient client) throws IOException, InterruptedException {
+        return client.getAllProducts(ITEM_NAME).stream()
+                .filter(product -> ITEM_NAME.equals(product.getName()) && product.getQuantity() > 0)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("'" + ITEM_NAME + "' is missing or out of stock"));
+    }
+
+    private static Product prepareItem(ApiClient client) throws IOException, InterruptedException {
+        try {
+            return findItem(client);
+        } catch (IllegalStateException e) {
+            List<Category> categories = client.getAllCategories();
+            Category category = categories.isEmpty() ? null : categories.get(0);
+            System.out.println("Creating '" + ITEM_NAME + "'.");
+            return client.createProduct(new Product(ITEM_NAME, "Sold by StartupBenchmark", 1.0, 1_000_000, 0, category));
+        }
+    }
+
+    private static double startedSeconds(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(new String(Files.readAllBytes(log), StandardCharsets.UTF_8));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+
+    private static boolean portInUse(int port) {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    private static double median(List<Result> results, ToDoubleFunction<Result> metric) {
+        double[] values = results.stream().mapToDouble(metric).sorted().toArray();
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    /**
+     * Seconds from process start of one launch.
+     */
+    private static class Result {
+        private final double started;
+        private final double ready;
+        private final double firstLogin;
+        private final double firstCheckout;
+
+        Result(double started, double ready, double firstLogin, double firstCheckout) {
+            this.started = started;
+            this.ready = ready;
+            this.firstLogin = firstLogin;
+            this.firstCheckout = firstCheckout;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "started in %.2f s (Spring), ready %.2f s, first login %.2f s, first checkout %.2f s",
+                    started, ready, firstLogin, firstCheckout);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.inventory.model;
+
+import java.util.List;
+
+/**
+ * The backend's dashboard overview (GET /api/dashboard/overview).
+ * Each aggregate comes as a Piece: when the backend could not compute it in time, the piece is stale and
+ * holds the last value it had (from asOf), or no value at all.
+ */
+public class DashboardOverview {
+    private Piece<Long> productCount;
+    private Piece<List<Product>> lowStock;
+    private Piece<SalesTotal> todaySales;
+    private Piece<List<SalesTotal>> paymentMethods;
+    private Piece<List<TopSeller>> topSellers;
+    private int topSellersDays;
+    private boolean complete;
+    private String generatedAt;
+
+    public DashboardOverview() {
+        // Default constructor for Gson
+    }
+
+    public Piece<Long> getProductCount() { return productCount; }
+    public Piece<List<Product>> getLowStock() { return lowStock; }
+    public Piece<SalesTotal> getTodaySales() { return todaySales; }
+    public Piece<List<SalesTotal>> getPaymentMethods() { return paymentMethods; }
+    public Piece<List<TopSeller>> getTopSellers() { return topSellers; }
+    public int getTopSellersDays() { return topSellersDays; }
+    public boolean isComplete() { return complete; }
+    public String getGeneratedAt() { return generatedAt; }
+
+    /**
+     * One aggregate of the overview.
+     */
+    public static class Piece<T> {
+        private T value;
+        private boolean stale;
+        private String asOf;
+        private String error;
+
+        public T getValue() { return value; }
+        public boolean isStale() { return stale; }
+        public String getAsOf() { return asOf; }
+        public String getError() { return error; }
+    }
+
+    /**
+     * Receipt count and amount, for all payment methods (paymentMethod null) or one.
+     */
+    public static class SalesTotal {
+        private String paymentMethod;
+        private long receipts;
+        private double amount;
+
+        public String getPaymentMethod() { return paymentMethod; }
+        public long getReceipts() { return receipts; }
+        public double getAmount() { return amount; }
+    }
+
+    /**
+     * A product with the quantity and amount sold in the top sellers period.
+     */
+    public static class TopSeller {
+        private long productId;
+        private String name;
+        private long quantity;
+        private double amount;
+
+        public long getProductId() { return productId; }
+        public String getName() { return name; }
+        public long getQuantity() { return quantity; }
+        public double getAmount() { return amount; }
+    }
+}
@@ -130,6 +130,9 @@ public class InventoryApp extends Application {
         if (mainController != null) {
             mainController.shutdownExecutor();
         }
+        if (apiClient != null) {
+            apiClient.logout(); // Revoke the refresh token so it cannot be reused after the app closes
+        }
         super.stop();
     }
 
@@ -1,8 +1,7 @@
 package com.inventory.ui.controller;
 
+import com.inventory.model.DashboardOverview;
 import com.inventory.model.Product;
-import com.inventory.model.Sale; // Keep for data structure, but won't fetch directly
-import com.inventory.model.Receipt; // NEW: Import Receipt
 import com.inventory.ui.util.ApiClient;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
@@ -20,9 +19,7 @@ import javafx.scene.chart.BarChart;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
 import java.util.concurrent.ExecutorService;
 import javafx.scene.control.Alert; // Ensure Alert is imported
 
@@ -127,30 +124,26 @@ public class DashboardController {
         dashboardStatusLabel.setText("Loading dashboard data...");
         executorService.submit(() -> {
             try {
-                // Fetch all products for low stock and total count
-                List<Product> allProducts = apiClient.getAllProducts("");
-                long totalProducts = allProducts.size();
-                List<Product> currentLowStockProducts = allProducts.stream()
-                        .filter(p -> p.getQuantity() <= p.getMinStockLevel())
-                        .sorted(Comparator.comparing(Product::getName))
-                        .collect(Collectors.toList());
-
-                // NEW: Fetch all receipts and calculate total sales from them
-                List<Receipt> allReceipts = apiClient.getFilteredReceipts(null, null, null, null, null); // Get all receipts
-                double totalSalesAmount = allReceipts.stream()
-                        .flatMap(receipt -> receipt.getSales().stream()) // Flatten sales from all receipts
-                        .mapToDouble(Sale::getTotalAmount)
-                        .sum();
+                // One call: the backend computes the counts, sums and low stock list concurrently
+                DashboardOverview overview = apiClient.getDashboardOverview();
+                Long productCount = overview.getProductCount().getValue();
+                DashboardOverview.SalesTotal todaySales = overview.getTodaySales().getValue();
+                List<Product> currentLowStockProducts = overview.getLowStock().getValue() != null
+                        ? overview.getLowStock().getValue()
+                        : List.of();
 
                 Platform.runLater(() -> {
-                    totalProductsValueLabel.setText(String.valueOf(totalProducts));
-                    totalSalesValueLabel.setText(String.format("KSh %.2f", totalSalesAmount));
+                    totalProductsValueLabel.setText(productCount != null ? String.valueOf(productCount) : "-");
+                    totalSalesValueLabel.setText(todaySales != null ? String.format("KSh %.2f", todaySales.getAmount()) : "-");
 
                     lowStockProducts.setAll(currentLowStockProducts);
 
                     updateLowStockBarChart(currentLowStockProducts);
 
-                    dashboardStatusLabel.setText("Dashboard data loaded.");
+                    // Pieces the backend could not compute in time show their last known value
+                    dashboardStatusLabel.setText(overview.isComplete()
+                            ? "Dashboard data loaded."
+                            : "Dashboard data loaded; some figures are from an earlier refresh.");
                 });
 
             } catch (IOException | InterruptedException e) {
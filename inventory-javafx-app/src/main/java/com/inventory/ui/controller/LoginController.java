@@ -105,7 +105,7 @@ public class LoginController {
                 System.out.println("🎭 Roles: " + rolesList);
 
                 // Store the JWT and roles for future API use
-                apiClient.setJwtToken(jwt);
+                apiClient.setTokens(loginResponse);
                 apiClient.setLoggedInUserRoles(rolesList);
 
                 Platform.runLater(() -> {
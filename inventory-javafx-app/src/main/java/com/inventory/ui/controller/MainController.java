@@ -13,11 +13,14 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.HBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService; // ADDED: Import for ScheduledExecutorService
@@ -273,6 +276,59 @@ public class MainController {
         showProductForm(null); // Call the generic form with null for a new product
     }
 
+    /**
+     * Handles the "Import CSV" button action directly from FXML.
+     * Lets the owner pick a CSV file and uploads it to the backend bulk import endpoint.
+     */
+    @FXML
+    private void handleImportProducts() {
+        if (!apiClient.getLoggedInUserRoles().contains("OWNER")) {
+            showAlert("Access Denied", "Permission Denied", "Only users with the OWNER role can import products.");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Products from CSV");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files (*.csv)", "*.csv"));
+        File file = fileChooser.showOpenDialog(mainTabPane.getScene().getWindow());
+        if (file == null) {
+            productStatusLabel.setText("Product import cancelled.");
+            return;
+        }
+
+        productStatusLabel.setText("Importing products from " + file.getName() + "...");
+        executorService.submit(() -> {
+            try {
+                Map<String, Object> result = apiClient.importProductsCsv(file.toPath());
+                long imported = ((Number) result.get("imported")).longValue();
+                long rejected = ((Number) result.get("rejected")).longValue();
+                Platform.runLater(() -> {
+                    productStatusLabel.setText("Import finished: " + imported + " products imported, " + rejected + " rows rejected.");
+                    if (rejected > 0) {
+                        StringBuilder details = new StringBuilder();
+                        Object errors = result.get("errors");
+                        if (errors instanceof List) {
+                            ((List<?>) errors).stream().limit(20).forEach(error -> {
+                                Map<?, ?> rowError = (Map<?, ?>) error;
+                                details.append("Line ").append(((Number) rowError.get("line")).longValue())
+                                        .append(": ").append(rowError.get("message")).append("\n");
+                            });
+                        }
+                        showAlert("Import Completed With Errors", rejected + " rows were rejected", details.toString());
+                    }
+                    loadProducts(""); // Refresh the product list
+                });
+            } catch (IOException | InterruptedException e) {
+                Platform.runLater(() -> {
+                    String errorMessage = "Failed to import products: " + e.getMessage();
+                    productStatusLabel.setText(errorMessage);
+                    showAlert("Error", "Product Import Failed", errorMessage);
+                    System.err.println("MainController: Error importing products: " + e.getMessage());
+                });
+            }
+        });
+    }
+
     /**
      * Handles the "Edit Product" button action directly from FXML.
      * Gets the selected product and opens the form for editing.
@@ -22,10 +22,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future; // For handling async task results
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Controller for the Sales History view (sales-view.fxml).
@@ -56,6 +58,8 @@ public class SalesController {
     private ExecutorService executorService;
     private ObservableList<Sale> salesList = FXCollections.observableArrayList();
     private ObservableList<User> availableCashiers = FXCollections.observableArrayList();
+    // Incremented on every refresh, so chunks of a superseded load are not added to the table
+    private final AtomicInteger salesLoadGeneration = new AtomicInteger();
 
     private MainController mainController;
 
@@ -248,31 +252,41 @@ public class SalesController {
         }
 
         salesStatusLabel.setText("Loading sales history...");
+        salesList.clear();
+        int generation = salesLoadGeneration.incrementAndGet();
         executorService.submit(() -> {
             try {
-                // Call the new API method with all filtering parameters
-                List<Receipt> filteredReceipts = apiClient.getFilteredReceipts(
-                        startDate, endDate, cashierId, paymentMethod, productName
-                );
-
-                // Extract individual sales from receipts.
-                // Note: The backend's /api/sales/receipts endpoint returns Receipts,
-                // but our SalesTable displays individual Sales. We need to flatten this.
-                // If you want to display Receipts directly in the table, the TableView columns
-                // would need to be reconfigured for Receipt properties.
-                ObservableList<Sale> extractedSales = FXCollections.observableArrayList();
-                for (Receipt receipt : filteredReceipts) {
-                    if (receipt.getSales() != null) {
-                        for (Sale sale : receipt.getSales()) {
-                            sale.setReceipt(receipt); // Ensure sale has receipt reference for columns
-                            extractedSales.add(sale);
+                // Receipts arrive in chunks while the response is still downloading; each chunk is
+                // appended to the table right away, so the first rows show up before the load completes.
+                AtomicInteger loadedSales = new AtomicInteger();
+                apiClient.streamFilteredReceipts(startDate, endDate, cashierId, paymentMethod, productName, receipts -> {
+                    // Extract individual sales from receipts.
+                    // Note: The backend's /api/sales/receipts endpoint returns Receipts,
+                    // but our SalesTable displays individual Sales. We need to flatten this.
+                    // If you want to display Receipts directly in the table, the TableView columns
+                    // would need to be reconfigured for Receipt properties.
+                    List<Sale> extractedSales = new ArrayList<>();
+                    for (Receipt receipt : receipts) {
+                        if (receipt.getSales() != null) {
+                            for (Sale sale : receipt.getSales()) {
+                                sale.setReceipt(receipt); // Ensure sale has receipt reference for columns
+                                extractedSales.add(sale);
+                            }
                         }
                     }
-                }
+                    int loaded = loadedSales.addAndGet(extractedSales.size());
+                    Platform.runLater(() -> {
+                        if (generation == salesLoadGeneration.get()) {
+                            salesList.addAll(extractedSales);
+                            salesStatusLabel.setText("Loading sales history... " + loaded + " sales so far");
+                        }
+                    });
+                });
 
                 Platform.runLater(() -> {
-                    salesList.setAll(extractedSales);
-                    salesStatusLabel.setText("Sales history loaded successfully. Total sales found: " + extractedSales.size());
+                    if (generation == salesLoadGeneration.get()) {
+                        salesStatusLabel.setText("Sales history loaded successfully. Total sales found: " + loadedSales.get());
+                    }
                 });
             } catch (IOException | InterruptedException e) {
                 Platform.runLater(() -> {
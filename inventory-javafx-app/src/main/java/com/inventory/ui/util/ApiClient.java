@@ -1,17 +1,29 @@
 package com.inventory.ui.util;
 
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import com.inventory.model.Product;
 import com.inventory.model.Receipt;
 import com.inventory.model.Sale; // Assuming Sale is also a POJO in frontend.model
 import com.inventory.model.User;
 import com.inventory.model.StockAdjustment; // Import StockAdjustment POJO
 import com.inventory.model.Category; // Import Category POJO
+import com.inventory.model.DashboardOverview;
 
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URLEncoder;
@@ -19,31 +31,189 @@ import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set; // For user roles as Set<String>
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Client for interacting with the Spring Boot backend API.
  * Handles HTTP requests, JSON serialization/deserialization, and JWT authentication.
+ *
+ * The large read responses (product catalog, categories, receipt and stock adjustment history) can be
+ * fetched as CBOR instead of JSON by starting the app with -Dinventory.api.format=cbor. CBOR is smaller on
+ * the wire and is decoded without text parsing; JSON (the default) is used for everything else.
+ * These reads also ask for gzip (Accept-Encoding) and are decompressed while they are decoded, so the
+ * compressed and the decompressed body are never held in memory as a whole.
+ * List responses are parsed element by element (Gson JsonReader, Jackson MappingIterator); the stream*
+ * methods hand them to the caller in chunks while the download is still running.
+ *
+ * Every request carries an X-Trace-Id. The client logs each call with its round-trip time and the
+ * backend's Server-Timing breakdown (auth, security, db, app, ser, total), so a slow checkout can be
+ * attributed to the network or to a server phase, and matched to the server by trace ID.
+ *
+ * Every request also carries an X-Terminal-Id (-Dinventory.terminal.id, otherwise generated per client), which
+ * the backend rate limits together with the user. Requests the backend turns away under load (429 Too Many
+ * Requests, 503 Service Unavailable with Retry-After) were rejected before they were processed, so they are
+ * retried up to -Dinventory.api.max-retries times (default 3), waiting at least as long as Retry-After asks and
+ * backing off exponentially with jitter.
  */
 public class ApiClient {
 
     private static final String BASE_URL = "http://localhost:8080/api";
+    private static final String READY_URL = "http://localhost:8080/readyz";
     private final HttpClient httpClient;
     private final Gson gson;
     private String jwtToken; // Stores the JWT token after successful login
     private List<String> loggedInUserRoles; // Stores roles of the logged-in user
+    private String refreshToken; // Single-use token for renewing the JWT without a password
+    private long jwtExpiresAtMillis; // When the current JWT expires (0 = unknown)
+    private String terminalId; // Identifies this till to the backend's rate limiter
+
+    // Refresh the JWT this long before it expires, so requests never go out with an expired token
+    private static final long REFRESH_MARGIN_MILLIS = 60_000;
+
+    private static final String CBOR_MEDIA_TYPE = "application/cbor";
+    // Items per chunk handed to the consumer of a streamed list response
+    private static final int STREAM_CHUNK_SIZE = 200;
+    private static final String TRACE_ID_HEADER = "X-Trace-Id";
+    private static final String TERMINAL_ID_HEADER = "X-Terminal-Id";
+    // Retries of requests rejected with 429/503 and Retry-After; 0 returns the rejection to the caller
+    private static final int MAX_RETRIES = Integer.getInteger("inventory.api.max-retries", 3);
+    private static final long RETRY_BASE_MILLIS = 500;
+    private static final long RETRY_MAX_WAIT_MILLIS = 10_000;
+    // Per-call log lines; turned off with -Dinventory.api.log=false (the load generator does)
+    private static final boolean LOG_CALLS = Boolean.parseBoolean(System.getProperty("inventory.api.log", "true"));
+    // Decodes CBOR responses into the same POJOs as Gson (fields, no getters); null when JSON is configured
+    private final ObjectMapper cborMapper;
 
     public ApiClient() {
         this.httpClient = HttpClient.newBuilder().build();
+        this.terminalId = System.getProperty("inventory.terminal.id",
+                "till-" + UUID.randomUUID().toString().replace("-", "").substring(0, 8));
         // Configure Gson to handle LocalDateTime correctly
         this.gson = new GsonBuilder()
                 .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
                 .create();
+        String format = System.getProperty("inventory.api.format", "json");
+        if ("cbor".equalsIgnoreCase(format)) {
+            this.cborMapper = CBORMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                    .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                    .build();
+        } else {
+            this.cborMapper = null;
+        }
+        if (LOG_CALLS) {
+            System.out.println("API payload format: " + (cborMapper != null ? "CBOR" : "JSON"));
+        }
+    }
+
+    /**
+     * Sets the terminal ID sent with every request (the load generator gives each simulated till its own).
+     * @param terminalId Letters, digits, '.', '_' and '-', at most 64 characters.
+     */
+    public void setTerminalId(String terminalId) {
+        this.terminalId = terminalId;
+    }
+
+    /**
+     * Sends a request, retrying it while the backend rejects it with 429/503 and Retry-After (see the class comment).
+     * @param request The request.
+     * @param bodyHandler The body handler.
+     * @return The response; the last rejection once the retries are used up.
+     * @throws IOException If a network error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<T> response = sendOnce(request, bodyHandler);
+            int status = response.statusCode();
+            Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+            if ((status != 429 && status != 503) || retryAfter.isEmpty() || attempt >= MAX_RETRIES) {
+                return response;
+            }
+            if (response.body() instanceof InputStream body) {
+                body.close();
+            }
+            long waitMillis = retryWaitMillis(retryAfter.get(), attempt);
+            if (LOG_CALLS) {
+                System.out.println(String.format("API %s %s rejected with %d, retrying in %d ms",
+                        request.method(), request.uri().getPath(), status, waitMillis));
+            }
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    /**
+     * @return How long to wait before retry number attempt + 1: the server's Retry-After (in seconds) or the
+     *         exponential backoff, whichever is longer, plus up to 25% jitter so rejected tills do not return in step.
+     */
+    private static long retryWaitMillis(String retryAfter, int attempt) {
+        long serverMillis;
+        try {
+            serverMillis = Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException e) {
+            serverMillis = 1000; // An HTTP date or garbage; wait a second
+        }
+        long wait = Math.min(RETRY_MAX_WAIT_MILLIS, Math.max(serverMillis, RETRY_BASE_MILLIS << attempt));
+        return wait + ThreadLocalRandom.current().nextLong(wait / 4 + 1);
+    }
+
+    /**
+     * Sends a request with a new trace ID and logs the round trip together with the server's timing breakdown.
+     * For streamed bodies (ofInputStream) the round trip ends when the response headers arrive.
+     */
+    private <T> HttpResponse<T> sendOnce(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) throws IOException, InterruptedException {
+        String traceId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        HttpRequest tracedRequest = HttpRequest.newBuilder(request, (name, value) -> true)
+                .header(TRACE_ID_HEADER, traceId)
+                .header(TERMINAL_ID_HEADER, terminalId)
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<T> response = httpClient.send(tracedRequest, bodyHandler);
+        if (!LOG_CALLS) {
+            return response;
+        }
+        double roundTripMillis = (System.nanoTime() - start) / 1_000_000.0;
+        System.out.println(String.format("API %s %s -> %d in %.1f ms [trace %s]%s",
+                request.method(), request.uri().getPath(), response.statusCode(), roundTripMillis,
+                response.headers().firstValue(TRACE_ID_HEADER).orElse(traceId),
+                response.headers().firstValue("Server-Timing").map(ApiClient::formatServerTiming).orElse("")));
+        return response;
+    }
+
+    /**
+     * Formats a Server-Timing header for the log,
+     * e.g. "auth;dur=0.12, db;dur=3.10;desc="4 statements"" becomes " server: auth 0.12, db 3.10 (4 statements) ms".
+     */
+    private static String formatServerTiming(String serverTiming) {
+        StringBuilder formatted = new StringBuilder(" server:");
+        for (String metric : serverTiming.split(",")) {
+            String[] parts = metric.trim().split(";");
+            formatted.append(' ').append(parts[0]);
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].startsWith("dur=")) {
+                    formatted.append(' ').append(parts[i].substring(4));
+                } else if (parts[i].startsWith("desc=")) {
+                    formatted.append(" (").append(parts[i].substring(5).replace("\"", "")).append(')');
+                }
+            }
+            formatted.append(',');
+        }
+        formatted.setLength(formatted.length() - 1);
+        return formatted.append(" ms").toString();
     }
 
     /**
@@ -56,6 +226,75 @@ public class ApiClient {
         System.out.println("🔐 JWT token set in ApiClient.");
     }
 
+    /**
+     * Stores the tokens from a login or refresh response: the JWT, its lifetime and the refresh token.
+     * @param response The parsed login/refresh response body.
+     */
+    public void setTokens(Map<String, Object> response) {
+        this.jwtToken = (String) response.get("jwt");
+        this.refreshToken = (String) response.get("refreshToken");
+        Object expiresIn = response.get("expiresIn");
+        this.jwtExpiresAtMillis = expiresIn instanceof Number
+                ? System.currentTimeMillis() + ((Number) expiresIn).longValue()
+                : 0;
+    }
+
+    /**
+     * Renews the JWT with the refresh token if it expires within REFRESH_MARGIN_MILLIS.
+     * Synchronized so concurrent requests trigger a single refresh (refresh tokens are single-use).
+     * On failure the current token is kept; the request then fails with 401/403 as before.
+     */
+    private synchronized void refreshTokenIfNeeded() {
+        if (refreshToken == null || jwtExpiresAtMillis == 0
+                || System.currentTimeMillis() < jwtExpiresAtMillis - REFRESH_MARGIN_MILLIS) {
+            return;
+        }
+        try {
+            String json = gson.toJson(Map.of("refreshToken", refreshToken));
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(BASE_URL + "/auth/refresh"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build();
+            HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                setTokens(gson.fromJson(response.body(), new TypeToken<Map<String, Object>>() {}.getType()));
+            } else {
+                System.err.println("Token refresh failed: HTTP " + response.statusCode() + " - " + response.body());
+                refreshToken = null; // Invalid or reused; a new login is required
+            }
+        } catch (IOException e) {
+            System.err.println("Token refresh failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Revokes the refresh token on the server and forgets the tokens.
+     */
+    public void logout() {
+        String token = refreshToken;
+        jwtToken = null;
+        refreshToken = null;
+        jwtExpiresAtMillis = 0;
+        if (token == null) {
+            return;
+        }
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(BASE_URL + "/auth/logout"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(Map.of("refreshToken", token))))
+                    .build();
+            send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            System.err.println("Logout request failed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Sets the roles of the currently logged-in user.
      * @param roles A List of String representing the user's roles (e.g., "OWNER", "CASHIER").
@@ -85,6 +324,7 @@ public class ApiClient {
      * @return The constructed HttpRequest.Builder.
      */
     private HttpRequest.Builder createAuthorizedRequestBuilder(String uri, String method, HttpRequest.BodyPublisher bodyPublisher) {
+        refreshTokenIfNeeded();
         HttpRequest.Builder builder = HttpRequest.newBuilder()
                 .uri(URI.create(uri))
                 .header("Content-Type", "application/json")
@@ -115,6 +355,111 @@ public class ApiClient {
         return builder;
     }
 
+    /**
+     * Sends a read request, asking for CBOR when it is configured and for gzip compression.
+     * The body is not read yet; decode it with readPayloadList or payloadText, which also close it.
+     * @param builder The request builder (from createAuthorizedRequestBuilder).
+     * @return The response with the body as a stream.
+     * @throws IOException If a network error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    private HttpResponse<InputStream> sendForPayload(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        if (cborMapper != null) {
+            builder.setHeader("Accept", CBOR_MEDIA_TYPE);
+        }
+        builder.setHeader("Accept-Encoding", "gzip");
+        return send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+    }
+
+    /**
+     * Opens the body of a response from sendForPayload, decompressing it if the server gzipped it.
+     */
+    private static InputStream openPayload(HttpResponse<InputStream> response) throws IOException {
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(response.body(), 8192) : response.body();
+    }
+
+    /**
+     * Decodes a JSON or CBOR array from a response of sendForPayload one element at a time, reading straight
+     * from the (decompressing) stream, and passes the elements on in chunks of STREAM_CHUNK_SIZE.
+     * Only the current chunk is held by this method; the consumer decides what to keep.
+     * @param response The response.
+     * @param itemType The element class.
+     * @param onChunk Receives each chunk on the calling thread, in order.
+     * @return The number of elements read.
+     * @throws IOException If the body cannot be read or decoded.
+     */
+    private <T> int readPayloadList(HttpResponse<InputStream> response, Class<T> itemType, Consumer<List<T>> onChunk) throws IOException {
+        boolean cbor = response.headers().firstValue("Content-Type")
+                .map(contentType -> contentType.startsWith(CBOR_MEDIA_TYPE))
+                .orElse(false);
+        int count = 0;
+        List<T> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        try (InputStream in = openPayload(response)) {
+            if (cbor && cborMapper != null) {
+                try (MappingIterator<T> items = cborMapper.readerFor(itemType).readValues(in)) {
+                    while (items.hasNextValue()) {
+                        chunk.add(items.nextValue());
+                        count++;
+                        chunk = emitIfFull(chunk, onChunk);
+                    }
+                }
+            } else {
+                try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        chunk.add(gson.fromJson(reader, itemType));
+                        count++;
+                        chunk = emitIfFull(chunk, onChunk);
+                    }
+                    reader.endArray();
+                }
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new IOException("Invalid response body: " + e.getMessage(), e);
+        }
+        if (!chunk.isEmpty()) {
+            onChunk.accept(chunk);
+        }
+        return count;
+    }
+
+    private static <T> List<T> emitIfFull(List<T> chunk, Consumer<List<T>> onChunk) {
+        if (chunk.size() < STREAM_CHUNK_SIZE) {
+            return chunk;
+        }
+        onChunk.accept(chunk);
+        return new ArrayList<>(STREAM_CHUNK_SIZE);
+    }
+
+    /**
+     * @return The body of a response from sendForPayload as text, for error messages (the backend sends errors as plain strings).
+     */
+    private static String payloadText(HttpResponse<InputStream> response) throws IOException {
+        try (InputStream in = openPayload(response)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Checks the backend's readiness probe. After a restart the backend answers 503 there until its startup
+     * warm-up has finished, although it already accepts requests.
+     * @return true if the backend is ready for traffic, false if it is still starting or not reachable.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    public boolean isBackendReady() throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(READY_URL))
+                .GET()
+                .build();
+        try {
+            return sendOnce(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false; // Not listening yet
+        }
+    }
 
     /**
      * User Login.
@@ -132,11 +477,13 @@ public class ApiClient {
                 .POST(HttpRequest.BodyPublishers.ofString(json))
                 .build();
 
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         // ADDED DEBUGGING: Print raw response body for login
-        System.out.println("DEBUG: ApiClient Login Response Status: " + response.statusCode());
-        System.out.println("DEBUG: ApiClient Login Raw Response Body: " + response.body());
+        if (LOG_CALLS) {
+            System.out.println("DEBUG: ApiClient Login Response Status: " + response.statusCode());
+            System.out.println("DEBUG: ApiClient Login Raw Response Body: " + response.body());
+        }
 
 
         if (response.statusCode() == 200) {
@@ -159,18 +506,30 @@ public class ApiClient {
      * @throws InterruptedException If the operation is interrupted.
      */
     public List<Product> getAllProducts(String searchQuery) throws IOException, InterruptedException {
+        List<Product> products = new ArrayList<>();
+        streamAllProducts(searchQuery, products::addAll);
+        return products;
+    }
+
+    /**
+     * Retrieves all products or products matching a search query, handing them over in chunks as they are parsed.
+     * @param searchQuery Optional search term for product name or description.
+     * @param onChunk Receives each chunk of products, in order, on the calling thread.
+     * @return The total number of products.
+     * @throws IOException If a network error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    public int streamAllProducts(String searchQuery, Consumer<List<Product>> onChunk) throws IOException, InterruptedException {
         String url = BASE_URL + "/products";
         if (searchQuery != null && !searchQuery.isEmpty()) {
             url += "?search=" + URLEncoder.encode(searchQuery, StandardCharsets.UTF_8);
         }
-        HttpRequest request = createAuthorizedRequestBuilder(url, "GET", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = sendForPayload(createAuthorizedRequestBuilder(url, "GET", null));
 
         if (response.statusCode() == 200) {
-            Type productListType = new TypeToken<List<Product>>() {}.getType();
-            return gson.fromJson(response.body(), productListType);
+            return readPayloadList(response, Product.class, onChunk);
         } else {
-            throw new IOException("Failed to fetch products: HTTP " + response.statusCode() + " - " + response.body());
+            throw new IOException("Failed to fetch products: HTTP " + response.statusCode() + " - " + payloadText(response));
         }
     }
 
@@ -184,7 +543,7 @@ public class ApiClient {
     public Product createProduct(Product product) throws IOException, InterruptedException {
         String json = gson.toJson(product);
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/products", "POST", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 201) { // 201 Created
             return gson.fromJson(response.body(), Product.class);
@@ -203,7 +562,7 @@ public class ApiClient {
     public Product updateProduct(Product product) throws IOException, InterruptedException {
         String json = gson.toJson(product);
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/products/" + product.getId(), "PUT", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 200) {
             return gson.fromJson(response.body(), Product.class);
@@ -239,13 +598,35 @@ public class ApiClient {
      */
     public void deleteProduct(Long id) throws IOException, InterruptedException {
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/products/" + id, "DELETE", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() != 204) { // 204 No Content for successful deletion
             throw new IOException("Failed to delete product: HTTP " + response.statusCode() + " - " + response.body());
         }
     }
 
+    /**
+     * Bulk-imports products from a CSV file. The file is streamed to the backend, which
+     * inserts valid rows in batches and reports rejected rows.
+     * Expected header: name,description,price,quantity,minStockLevel,category
+     * @param csvFile Path of the CSV file to upload.
+     * @return A Map with the import summary (rowsRead, imported, rejected, errors).
+     * @throws IOException If a network error occurs or the backend rejects the file.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    public Map<String, Object> importProductsCsv(Path csvFile) throws IOException, InterruptedException {
+        HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/products/import", "POST", HttpRequest.BodyPublishers.ofFile(csvFile))
+                .setHeader("Content-Type", "text/csv; charset=UTF-8")
+                .build();
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() == 200) {
+            return gson.fromJson(response.body(), new TypeToken<Map<String, Object>>() {}.getType());
+        } else {
+            throw new IOException("Failed to import products: HTTP " + response.statusCode() + " - " + response.body());
+        }
+    }
+
     // --- Receipt/Sales Endpoints ---
 
     /**
@@ -304,7 +685,7 @@ public class ApiClient {
         String json = gson.toJson(requestDTO);
         // Ensure this URL exactly matches your backend ReceiptController's @RequestMapping and @PostMapping
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/sales/receipts/batch", "POST", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 201) { // 201 Created
             return gson.fromJson(response.body(), Receipt.class);
@@ -326,6 +707,27 @@ public class ApiClient {
      */
     public List<Receipt> getFilteredReceipts(LocalDateTime startDate, LocalDateTime endDate, Long cashierId,
                                              Receipt.PaymentMethod paymentMethod, String productName) throws IOException, InterruptedException {
+        List<Receipt> receipts = new ArrayList<>();
+        streamFilteredReceipts(startDate, endDate, cashierId, paymentMethod, productName, receipts::addAll);
+        return receipts;
+    }
+
+    /**
+     * Retrieves filtered sales receipts, handing them over in chunks as they are parsed, so the first rows
+     * can be shown before a long history has finished downloading.
+     * @param startDate Optional start date.
+     * @param endDate Optional end date.
+     * @param cashierId Optional cashier ID.
+     * @param paymentMethod Optional payment method.
+     * @param productName Optional product name contained in the sale.
+     * @param onChunk Receives each chunk of receipts, in order, on the calling thread.
+     * @return The total number of receipts.
+     * @throws IOException If a network error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    public int streamFilteredReceipts(LocalDateTime startDate, LocalDateTime endDate, Long cashierId,
+                                      Receipt.PaymentMethod paymentMethod, String productName,
+                                      Consumer<List<Receipt>> onChunk) throws IOException, InterruptedException {
         StringBuilder urlBuilder = new StringBuilder(BASE_URL + "/sales/receipts?"); // THIS IS THE CORRECT BASE URL
         if (startDate != null) {
             urlBuilder.append("startDate=").append(URLEncoder.encode(startDate.format(LocalDateTimeAdapter.FORMATTER), StandardCharsets.UTF_8)).append("&");
@@ -348,14 +750,12 @@ public class ApiClient {
             url = url.substring(0, url.length() - 1);
         }
 
-        HttpRequest request = createAuthorizedRequestBuilder(url, "GET", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = sendForPayload(createAuthorizedRequestBuilder(url, "GET", null));
 
         if (response.statusCode() == 200) {
-            Type receiptListType = new TypeToken<List<Receipt>>() {}.getType();
-            return gson.fromJson(response.body(), receiptListType);
+            return readPayloadList(response, Receipt.class, onChunk);
         } else {
-            throw new IOException("Failed to fetch filtered receipts: HTTP " + response.statusCode() + " - " + response.body());
+            throw new IOException("Failed to fetch filtered receipts: HTTP " + response.statusCode() + " - " + payloadText(response));
         }
     }
 
@@ -368,7 +768,7 @@ public class ApiClient {
      */
     public void deleteReceipt(Long receiptId) throws IOException, InterruptedException {
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/sales/receipts/" + receiptId, "DELETE", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() != 204) { // 204 No Content for successful deletion
             throw new IOException("Failed to delete receipt: HTTP " + response.statusCode() + " - " + response.body());
@@ -386,7 +786,7 @@ public class ApiClient {
     public List<User> getAllUsers() throws IOException, InterruptedException {
         String url = BASE_URL + "/users";
         HttpRequest request = createAuthorizedRequestBuilder(url, "GET", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 200) {
             Type userListType = new TypeToken<List<User>>() {}.getType();
@@ -406,7 +806,7 @@ public class ApiClient {
     public User createUser(User user) throws IOException, InterruptedException {
         String json = gson.toJson(user);
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/users", "POST", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 201) { // 201 Created
             return gson.fromJson(response.body(), User.class);
@@ -426,7 +826,7 @@ public class ApiClient {
     public User updateUser(Long userId, User user) throws IOException, InterruptedException {
         String json = gson.toJson(user);
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/users/" + userId, "PUT", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 200) {
             return gson.fromJson(response.body(), User.class);
@@ -443,7 +843,7 @@ public class ApiClient {
      */
     public void deleteUser(Long id) throws IOException, InterruptedException {
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/users/" + id, "DELETE", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() != 204) { // 204 No Content
             throw new IOException("Failed to delete user: HTTP " + response.statusCode() + " - " + response.body());
@@ -485,7 +885,7 @@ public class ApiClient {
     public StockAdjustment adjustStock(StockAdjustmentRequestDTO requestDTO) throws IOException, InterruptedException {
         String json = gson.toJson(requestDTO);
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/stock/adjustments", "POST", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 201) { // 201 Created
             return gson.fromJson(response.body(), StockAdjustment.class);
@@ -502,14 +902,34 @@ public class ApiClient {
      */
     public List<StockAdjustment> getStockAdjustmentHistory() throws IOException, InterruptedException {
         String url = BASE_URL + "/stock/adjustments/history";
-        HttpRequest request = createAuthorizedRequestBuilder(url, "GET", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = sendForPayload(createAuthorizedRequestBuilder(url, "GET", null));
 
         if (response.statusCode() == 200) {
-            Type historyListType = new TypeToken<List<StockAdjustment>>() {}.getType();
-            return gson.fromJson(response.body(), historyListType);
+            List<StockAdjustment> history = new ArrayList<>();
+            readPayloadList(response, StockAdjustment.class, history::addAll);
+            return history;
         } else {
-            throw new IOException("Failed to fetch stock adjustment history: HTTP " + response.statusCode() + " - " + response.body());
+            throw new IOException("Failed to fetch stock adjustment history: HTTP " + response.statusCode() + " - " + payloadText(response));
+        }
+    }
+
+    // --- Dashboard Endpoints ---
+
+    /**
+     * Retrieves the dashboard overview in one call: product count, low stock products, today's sales,
+     * today's totals by payment method and the top sellers.
+     * @return The overview; pieces the backend could not compute in time are marked stale.
+     * @throws IOException If a network error occurs.
+     * @throws InterruptedException If the operation is interrupted.
+     */
+    public DashboardOverview getDashboardOverview() throws IOException, InterruptedException {
+        HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/dashboard/overview", "GET", null).build();
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
+
+        if (response.statusCode() == 200) {
+            return gson.fromJson(response.body(), DashboardOverview.class);
+        } else {
+            throw new IOException("Failed to fetch dashboard overview: HTTP " + response.statusCode() + " - " + response.body());
         }
     }
 
@@ -523,14 +943,14 @@ public class ApiClient {
      */
     public List<Category> getAllCategories() throws IOException, InterruptedException {
         String url = BASE_URL + "/categories";
-        HttpRequest request = createAuthorizedRequestBuilder(url, "GET", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<InputStream> response = sendForPayload(createAuthorizedRequestBuilder(url, "GET", null));
 
         if (response.statusCode() == 200) {
-            Type categoryListType = new TypeToken<List<Category>>() {}.getType();
-            return gson.fromJson(response.body(), categoryListType);
+            List<Category> categories = new ArrayList<>();
+            readPayloadList(response, Category.class, categories::addAll);
+            return categories;
         } else {
-            throw new IOException("Failed to fetch categories: HTTP " + response.statusCode() + " - " + response.body());
+            throw new IOException("Failed to fetch categories: HTTP " + response.statusCode() + " - " + payloadText(response));
         }
     }
 
@@ -544,7 +964,7 @@ public class ApiClient {
     public Category createCategory(Category category) throws IOException, InterruptedException {
         String json = gson.toJson(category);
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/categories", "POST", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 201) { // 201 Created
             return gson.fromJson(response.body(), Category.class);
@@ -563,7 +983,7 @@ public class ApiClient {
     public Category updateCategory(Category category) throws IOException, InterruptedException {
         String json = gson.toJson(category);
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/categories/" + category.getId(), "PUT", HttpRequest.BodyPublishers.ofString(json)).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() == 200) {
             return gson.fromJson(response.body(), Category.class);
@@ -580,7 +1000,7 @@ public class ApiClient {
      */
     public void deleteCategory(Long id) throws IOException, InterruptedException {
         HttpRequest request = createAuthorizedRequestBuilder(BASE_URL + "/categories/" + id, "DELETE", null).build();
-        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = send(request, HttpResponse.BodyHandlers.ofString());
 
         if (response.statusCode() != 204) { // 204 No Content
             throw new IOException("Failed to delete category: HTTP " + response.statusCode() + " - " + response.body());